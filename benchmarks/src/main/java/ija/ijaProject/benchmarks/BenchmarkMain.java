@@ -0,0 +1,69 @@
+/**
+ * Soubor: benchmarks/src/main/java/ija/ijaProject/benchmarks/BenchmarkMain.java
+ *
+ * Popis:
+ *  Spouštěč benchmarků. Výsledky zapisuje ve formátu JSON do adresáře
+ *  results pod jménem aktuálního commitu, aby šly porovnat mezi commity.
+ *
+ * @Author: Yaroslav Hryn (xhryny00),Oleksandr Musiichuk (xmusii00)
+ *
+ */
+
+package ija.ijaProject.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * Runs JMH with the usual command line options (benchmark regexps,
+ * {@code -p board=50}, {@code -f}, {@code -wi} ...). Unless {@code -rf}/{@code -rff}
+ * is given, results are written as JSON to {@code results/jmh-<commit>.json},
+ * where the commit is the short hash of {@code git rev-parse HEAD} (a timestamp
+ * outside a git checkout).
+ */
+public final class BenchmarkMain {
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cmd);
+        if (!cmd.getResultFormat().hasValue() && !cmd.getResult().hasValue()) {
+            File results = new File("results");
+            results.mkdirs();
+            File file = new File(results, "jmh-" + revision() + ".json");
+            options.resultFormat(ResultFormatType.JSON).result(file.getPath());
+            System.out.println("[Benchmarks] Writing results to " + file);
+        }
+        new Runner(options.build()).run();
+    }
+
+    /** Short hash of the current commit, or a timestamp. */
+    private static String revision() {
+        try {
+            Process git = new ProcessBuilder("git", "rev-parse", "--short", "HEAD")
+                    .redirectErrorStream(true)
+                    .start();
+            String hash = new String(git.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+            if (git.waitFor() == 0 && !hash.isEmpty()) {
+                return hash;
+            }
+        } catch (IOException e) {
+            System.err.println("git not available: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * Soubor: benchmarks/src/main/java/ija/ijaProject/benchmarks/Boards.java
+ *
+ * Popis:
+ *  Herní desky pro benchmarky: všech 30 vestavěných úrovní a umělé
+ *  desky od 10x10 do 500x500 z generátoru úrovní s pevným seedem.
+ *
+ * @Author: Yaroslav Hryn (xhryny00),Oleksandr Musiichuk (xmusii00)
+ *
+ */
+
+package ija.ijaProject.benchmarks;
+
+import ija.ijaProject.game.CompactBoard;
+import ija.ijaProject.game.Game;
+import ija.ijaProject.game.levels.GameLevels;
+import ija.ijaProject.game.levels.LevelGenerator;
+import ija.ijaProject.game.levels.NodeStateManager;
+import ija.ijaProject.game.levels.ScrambleDescriptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Board fixtures. A board spec is either {@link #BUILTIN} (all 10 levels of
+ * all 3 difficulties) or the side length of a square synthetic board. Synthetic
+ * boards are generated and scrambled with fixed seeds, so every run and every
+ * commit measures the same boards.
+ */
+public final class Boards {
+    /** Spec of the 30 built-in levels. */
+    public static final String BUILTIN = "builtin";
+
+    private Boards() {
+    }
+
+    /**
+     * Creates scrambled, initialized games for a board spec.
+     *
+     * @param spec {@link #BUILTIN} or a side length
+     * @return games
+     */
+    public static List<Game> games(String spec) {
+        // turn() logs every move outside replay mode; the benchmarks measure the engine only
+        NodeStateManager.getInstance().setReplayMode(true);
+
+        List<Game> games = new ArrayList<>();
+        if (BUILTIN.equals(spec)) {
+            for (int difficulty = 0; difficulty < 3; difficulty++) {
+                for (int level = 1; level <= 10; level++) {
+                    Game game = GameLevels.createLevelGame(level, difficulty);
+                    scramble(CompactBoard.fromGame(game), level * 31L + difficulty).applyTo(game);
+                    games.add(game);
+                }
+            }
+        } else {
+            int size = Integer.parseInt(spec);
+            CompactBoard solved = solved(size);
+            Game game = solved.toGame();
+            scramble(solved, size).applyTo(game);
+            games.add(game);
+        }
+        return games;
+    }
+
+    /**
+     * Creates solved boards for a board spec.
+     *
+     * @param spec {@link #BUILTIN} or a side length
+     * @return solved boards
+     */
+    public static List<CompactBoard> solvedBoards(String spec) {
+        NodeStateManager.getInstance().setReplayMode(true);
+
+        List<CompactBoard> boards = new ArrayList<>();
+        if (BUILTIN.equals(spec)) {
+            for (int difficulty = 0; difficulty < 3; difficulty++) {
+                for (int level = 1; level <= 10; level++) {
+                    boards.add(CompactBoard.fromGame(GameLevels.createLevelGame(level, difficulty)));
+                }
+            }
+        } else {
+            boards.add(solved(Integer.parseInt(spec)));
+        }
+        return boards;
+    }
+
+    /** Number of scramble moves per batch used for a board. */
+    public static int scrambleMoves(CompactBoard board) {
+        return Math.max(10, board.size() / 10);
+    }
+
+    private static CompactBoard solved(int size) {
+        int bulbs = Math.max(1, size * size / 50);
+        return new LevelGenerator(new Random(size)).generate(size, size, bulbs, LevelGenerator.Difficulty.EASY);
+    }
+
+    private static ScrambleDescriptor scramble(CompactBoard solved, long seed) {
+        return ScrambleDescriptor.generate(solved, scrambleMoves(solved), seed);
+    }
+}
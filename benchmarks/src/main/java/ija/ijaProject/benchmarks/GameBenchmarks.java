@@ -0,0 +1,82 @@
+/**
+ * Soubor: benchmarks/src/main/java/ija/ijaProject/benchmarks/GameBenchmarks.java
+ *
+ * Popis:
+ *  Benchmarky jádra hry: inicializace napájení, otočení uzlu,
+ *  hluboká kopie hry a dotaz na rozsvícené žárovky.
+ *
+ * @Author: Yaroslav Hryn (xhryny00),Oleksandr Musiichuk (xmusii00)
+ *
+ */
+
+package ija.ijaProject.benchmarks;
+
+import ija.ijaProject.common.GameNode;
+import ija.ijaProject.game.Game;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot paths of {@link Game}. For the built-in spec every operation runs on
+ * all 30 levels, so one op covers the whole level set.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmarks {
+    @Param({Boards.BUILTIN, "10", "50", "100", "250", "500"})
+    public String board;
+
+    private List<Game> games;
+    private final List<GameNode[]> playable = new ArrayList<>();
+    private int next = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        games = Boards.games(board);
+        for (Game game : games) {
+            playable.add(game.getNodes().stream().filter(game::isPlayebleNode).toArray(GameNode[]::new));
+        }
+    }
+
+    @Benchmark
+    public void init(Blackhole bh) {
+        for (Game game : games) {
+            game.init();
+            bh.consume(game.getLitBulbCount());
+        }
+    }
+
+    @Benchmark
+    public void turn(Blackhole bh) {
+        int step = next++;
+        for (int g = 0; g < games.size(); g++) {
+            GameNode[] nodes = playable.get(g);
+            // walk the board so consecutive turns hit different nodes
+            GameNode node = nodes[(int) ((step * 7919L) % nodes.length)];
+            node.turn();
+            bh.consume(games.get(g).isCompleted());
+        }
+    }
+
+    @Benchmark
+    public void deepCopy(Blackhole bh) {
+        for (Game game : games) {
+            bh.consume(game.deepCopy());
+        }
+    }
+
+    @Benchmark
+    public void anyBulbLit(Blackhole bh) {
+        for (Game game : games) {
+            bh.consume(game.anyBulbLit());
+        }
+    }
+}
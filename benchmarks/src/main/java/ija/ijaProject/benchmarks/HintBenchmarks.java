@@ -0,0 +1,105 @@
+/**
+ * Soubor: benchmarks/src/main/java/ija/ijaProject/benchmarks/HintBenchmarks.java
+ *
+ * Popis:
+ *  Benchmark výpočtu nápovědy (počet otočení do nejbližšího řešení)
+ *  po tahu hráče.
+ *
+ * @Author: Yaroslav Hryn (xhryny00),Oleksandr Musiichuk (xmusii00)
+ *
+ */
+
+package ija.ijaProject.benchmarks;
+
+import ija.ijaProject.common.GameNode;
+import ija.ijaProject.game.CompactBoard;
+import ija.ijaProject.game.Game;
+import ija.ijaProject.game.solver.BoardSolver;
+import ija.ijaProject.game.solver.HintEngine;
+import ija.ijaProject.game.solver.Solution;
+import ija.ijaProject.game.solver.SolutionHints;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A synchronous nearest-solution search and lookup of every cell after one
+ * turn, i.e. what the hint window and tooltip used to do on each move
+ * ({@code SolutionHints} now runs the search in the background), against the
+ * incremental {@link HintEngine} update of the turned cell against the targets
+ * {@link SolutionHints} found in the background. The solver search grows
+ * quickly with board size, so the synthetic boards stop at 50x50.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HintBenchmarks {
+    @Param({Boards.BUILTIN, "10", "25", "50"})
+    public String board;
+
+    private List<Game> games;
+    private final List<HintEngine> engines = new ArrayList<>();
+    private final List<GameNode[]> playable = new ArrayList<>();
+    private int next = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        games = Boards.games(board);
+        List<CompactBoard> solved = Boards.solvedBoards(board);
+        for (int i = 0; i < games.size(); i++) {
+            Game game = games.get(i);
+            Game solvedGame = solved.get(i).toGame();
+            engines.add(awaitTargets(game, new SolutionHints(game, solvedGame)));
+            playable.add(game.getNodes().stream().filter(game::isPlayebleNode).toArray(GameNode[]::new));
+        }
+    }
+
+    @Benchmark
+    public void rotationsNeededAfterTurn(Blackhole bh) {
+        int step = next++;
+        for (int g = 0; g < games.size(); g++) {
+            Game game = games.get(g);
+            GameNode[] nodes = playable.get(g);
+            nodes[(int) ((step * 7919L) % nodes.length)].turn();
+            Solution nearest = new BoardSolver(CompactBoard.fromGame(game)).solveNearest();
+            if (nearest == null) continue;
+            for (int row = 1; row <= game.rows(); row++) {
+                for (int col = 1; col <= game.cols(); col++) {
+                    bh.consume(nearest.rotationsAt(row, col));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void engineAfterTurn(Blackhole bh) {
+        int step = next++;
+        for (int g = 0; g < games.size(); g++) {
+            GameNode[] nodes = playable.get(g);
+            GameNode node = nodes[(int) ((step * 7919L) % nodes.length)];
+            node.turn();
+            HintEngine engine = engines.get(g);
+            bh.consume(engine.cellChanged(node.getPosition().row(), node.getPosition().col(), node.getConnectorMask()));
+        }
+    }
+
+    /** Waits until the background search has published targets, so every turn is measured incrementally. */
+    private static HintEngine awaitTargets(Game game, SolutionHints hints) {
+        hints.requestNearest();
+        while (hints.targetMasks() == null) {
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+        return new HintEngine(game, hints);
+    }
+}
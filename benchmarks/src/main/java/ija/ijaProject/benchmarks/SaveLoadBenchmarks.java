@@ -0,0 +1,64 @@
+/**
+ * Soubor: benchmarks/src/main/java/ija/ijaProject/benchmarks/SaveLoadBenchmarks.java
+ *
+ * Popis:
+ *  Benchmarky ukládání a načítání stavu uzlů přes NodeStateManager.
+ *
+ * @Author: Yaroslav Hryn (xhryny00),Oleksandr Musiichuk (xmusii00)
+ *
+ */
+
+package ija.ijaProject.benchmarks;
+
+import ija.ijaProject.game.Game;
+import ija.ijaProject.game.levels.NodeStateManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link NodeStateManager} save and load of node states. The files go to
+ * {@code game_states} in the working directory under level numbers from
+ * {@link #LEVEL_BASE} up, so they never overwrite the player's own saves.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SaveLoadBenchmarks {
+    /** First level number used for benchmark saves. */
+    public static final int LEVEL_BASE = 9000;
+    private static final int DIFFICULTY = 0;
+
+    @Param({Boards.BUILTIN, "10", "50", "100", "250", "500"})
+    public String board;
+
+    private List<Game> games;
+    private NodeStateManager manager;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        games = Boards.games(board);
+        manager = NodeStateManager.getInstance();
+        for (int i = 0; i < games.size(); i++) {
+            manager.saveInitialState(LEVEL_BASE + i, DIFFICULTY, games.get(i));
+        }
+    }
+
+    @Benchmark
+    public void save() {
+        for (int i = 0; i < games.size(); i++) {
+            manager.savePlayerProgress(LEVEL_BASE + i, DIFFICULTY, games.get(i));
+        }
+    }
+
+    @Benchmark
+    public void load() {
+        for (int i = 0; i < games.size(); i++) {
+            manager.loadSimulationState(LEVEL_BASE + i, DIFFICULTY, games.get(i));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * Soubor: benchmarks/src/main/java/ija/ijaProject/benchmarks/ScrambleBenchmarks.java
+ *
+ * Popis:
+ *  Benchmarky zamíchání úrovně: výpočet otočení nad CompactBoard
+ *  a jejich hromadné použití na hru.
+ *
+ * @Author: Yaroslav Hryn (xhryny00),Oleksandr Musiichuk (xmusii00)
+ *
+ */
+
+package ija.ijaProject.benchmarks;
+
+import ija.ijaProject.game.CompactBoard;
+import ija.ijaProject.game.Game;
+import ija.ijaProject.game.levels.ScrambleDescriptor;
+import ija.ijaProject.game.levels.Scrambler;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The scramble loop ({@link Scrambler#scramble}) and applying its result
+ * to a {@link Game} ({@link ScrambleDescriptor#applyTo}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScrambleBenchmarks {
+    @Param({Boards.BUILTIN, "10", "50", "100", "250", "500"})
+    public String board;
+
+    private List<CompactBoard> solved;
+    private final List<Game> games = new ArrayList<>();
+    private final List<ScrambleDescriptor> scrambles = new ArrayList<>();
+    private final Random random = new Random(7);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        solved = Boards.solvedBoards(board);
+        for (CompactBoard board : solved) {
+            games.add(board.toGame());
+            scrambles.add(ScrambleDescriptor.generate(board, Boards.scrambleMoves(board), 11));
+        }
+    }
+
+    @Benchmark
+    public void scramble(Blackhole bh) {
+        Scrambler scrambler = new Scrambler(random);
+        for (CompactBoard board : solved) {
+            bh.consume(scrambler.scramble(board, Boards.scrambleMoves(board)));
+        }
+    }
+
+    @Benchmark
+    public void applyScramble(Blackhole bh) {
+        for (int i = 0; i < games.size(); i++) {
+            Game game = games.get(i);
+            scrambles.get(i).applyTo(game);
+            bh.consume(game.getLitBulbCount());
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * Soubor: src/main/java/ija.ijaProject/common/Connectors.java
+ *
+ * Popis:
+ * Pomocné operace nad 4bitovou maskou konektorů políčka.
+ * Bit strany odpovídá {@link Side#mask()} (NORTH = 1, EAST = 2,
+ * SOUTH = 4, WEST = 8), otočení o 90° po směru hodinových ručiček
+ * je bitová rotace masky.
+ *
+ * @Author: Yaroslav Hryn (xhryny00),Oleksandr Musiichuk (xmusii00)
+ *
+ */
+
+package ija.ijaProject.common;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/** Pomocné operace nad 4bitovou maskou konektorů políčka.
+ * Bit strany odpovídá {@link Side#mask()}, otočení o 90° po směru
+ * hodinových ručiček je bitová rotace masky. */
+public final class Connectors {
+    /** Maska bez konektorů. */
+    public static final int NONE = 0;
+    /** Maska se všemi čtyřmi konektory. */
+    public static final int ALL = 0xF;
+
+    /** Počet otočení z masky {@code from} do masky {@code to} (index from * 16 + to), -1 pokud nelze. */
+    private static final byte[] ROTATIONS = new byte[256];
+
+    static {
+        for (int from = 0; from < 16; from++) {
+            for (int to = 0; to < 16; to++) {
+                ROTATIONS[from * 16 + to] = -1;
+            }
+            int m = from;
+            for (int k = 0; k < 4; k++) {
+                if (ROTATIONS[from * 16 + m] < 0) {
+                    ROTATIONS[from * 16 + m] = (byte) k;
+                }
+                m = rotate(m);
+            }
+        }
+    }
+
+    private Connectors() {
+    }
+
+    /**
+     * Sestaví masku ze zadaných stran.
+     * @param sides strany s konektorem
+     * @return maska konektorů
+     */
+    public static int of(Side... sides) {
+        int mask = NONE;
+        for (Side s : sides) {
+            mask |= s.mask();
+        }
+        return mask;
+    }
+
+    /** Ověří, zda maska obsahuje konektor na zadané straně. */
+    public static boolean has(int mask, Side side) {
+        return (mask & side.mask()) != 0;
+    }
+
+    /**
+     * Otočí masku o 90° po směru hodinových ručiček.
+     * @param mask původní maska
+     * @return maska po otočení
+     */
+    public static int rotate(int mask) {
+        return ((mask << 1) | (mask >>> 3)) & ALL;
+    }
+
+    /**
+     * Otočí masku {@code times}-krát o 90° po směru hodinových ručiček.
+     * @param mask původní maska
+     * @param times počet otočení (libovolné nezáporné číslo)
+     * @return maska po otočení
+     */
+    public static int rotate(int mask, int times) {
+        int k = times & 3;
+        return ((mask << k) | (mask >>> (4 - k))) & ALL;
+    }
+
+    /**
+     * Vrátí nejmenší počet otočení, kterým se z masky {@code from} stane maska {@code to}.
+     * @param from aktuální maska
+     * @param to cílová maska
+     * @return počet otočení 0..3, nebo -1 pokud masky nejsou otočením jedna druhé
+     */
+    public static int rotationsBetween(int from, int to) {
+        return ROTATIONS[(from & ALL) * 16 + (to & ALL)];
+    }
+
+    /** Vrátí počet konektorů v masce. */
+    public static int count(int mask) {
+        return Integer.bitCount(mask & ALL);
+    }
+
+    /**
+     * Vytvoří množinu stran z masky.
+     * @param mask maska konektorů
+     * @return nová množina stran
+     */
+    public static Set<Side> toSet(int mask) {
+        EnumSet<Side> set = EnumSet.noneOf(Side.class);
+        for (Side s : Side.values()) {
+            if (has(mask, s)) set.add(s);
+        }
+        return set;
+    }
+
+    /**
+     * Vytvoří pole stran z masky v pořadí NORTH, EAST, SOUTH, WEST.
+     * @param mask maska konektorů
+     * @return nové pole stran
+     */
+    public static Side[] toSides(int mask) {
+        Side[] sides = new Side[count(mask)];
+        int i = 0;
+        for (Side s : Side.values()) {
+            if (has(mask, s)) sides[i++] = s;
+        }
+        return sides;
+    }
+}
@@ -16,8 +16,9 @@ package ija.ijaProject.common;
 import ija.ijaProject.game.Game;
 import ija.ijaProject.game.levels.NodeStateManager;
 import visualization.common.AbstractObservableField;
+import visualization.common.ChangeEvent;
 import visualization.common.ToolField;
-import java.util.HashSet;
+import java.util.EnumSet;
 import java.util.Set;
 
 /** Třída reprezentující uzel (políčko) v prostředí hry (Game). Každé políčko má čtyři strany označené pomocí Side. Každá strana může být prázdná nebo obsahovat konektor (vstupní/výstupní vodič), pomocí kterého se lze napojit na sousední políčko. Pro účely hry existují 4 typy uzlů (políček):
@@ -32,7 +33,7 @@ public class GameNode extends AbstractObservableField implements ToolField {
     private boolean isPower;
     private boolean isLink;
     private boolean isConnectedToPower = false;
-    private final Set<Side> connectors = new HashSet<>();
+    private int connectorMask = Connectors.NONE;
     private int rotationCount = 0;
 
     /**
@@ -52,11 +53,19 @@ public class GameNode extends AbstractObservableField implements ToolField {
     }
 
     /**
-     * Vrací kopii množiny aktuálních konektorů.
+     * Vrací kopii množiny aktuálních konektorů, vytvořenou z masky až na požádání.
      * @return množina směrů konektorů
      */
     public Set<Side> getConnectors() {
-        return new HashSet<>(connectors);
+        return Connectors.toSet(connectorMask);
+    }
+
+    /**
+     * Vrací aktuální masku konektorů (viz {@link Connectors}).
+     * @return 4bitová maska konektorů
+     */
+    public int getConnectorMask() {
+        return connectorMask;
     }
 
     /**
@@ -64,9 +73,10 @@ public class GameNode extends AbstractObservableField implements ToolField {
      * @param side směr, ve kterém je konektor žárovky
      */
     public void setBulb(Side side) {
+        int oldMask = connectorMask;
         isBulb = true;
-        connectors.add(side);
-        notifyObservers();
+        connectorMask |= side.mask();
+        notifyTypeChanged(oldMask);
     }
 
     /**
@@ -74,11 +84,10 @@ public class GameNode extends AbstractObservableField implements ToolField {
      * @param sides pole směrů, které zdroj připojuje
      */
     public void setPower(Side... sides) {
+        int oldMask = connectorMask;
         isPower = true;
-        for (Side s : sides) {
-            connectors.add(s);
-        }
-        notifyObservers();
+        connectorMask |= Connectors.of(sides);
+        notifyTypeChanged(oldMask);
     }
 
     /**
@@ -86,41 +95,48 @@ public class GameNode extends AbstractObservableField implements ToolField {
      * @param sides směry, ve kterých tento uzel propojuje sousední uzly
      */
     public void setLink(Side... sides) {
+        int oldMask = connectorMask;
         isLink = true;
-        for (Side s : sides) {
-            connectors.add(s);
-        }
-        notifyObservers();
+        connectorMask |= Connectors.of(sides);
+        notifyTypeChanged(oldMask);
     }
 
     /**
      * Otočí tento uzel o 90° po směru hodinových ručiček.
-     * Po otočení aktualizuje množinu konektorů, notifikaci pozorovatelům
-     * a, pokud je přiřazena hra, znovu ji inicializuje.
+     * Po otočení aktualizuje masku konektorů, notifikaci pozorovatelům
+     * a, pokud je přiřazena hra, inkrementálně přepočítá napájení.
      */
     @Override
     public void turn() {
-        Set<Side> newConnectors = new HashSet<>();
-        for (Side s : connectors) {
-            newConnectors.add(rotateClockwise(s));
-        }
-        connectors.clear();
-        connectors.addAll(newConnectors);
+        int oldMask = connectorMask;
+        connectorMask = Connectors.rotate(connectorMask);
         //notifyObservers();
         rotationCount++;
         Position pos = this.getPosition();
         if (!NodeStateManager.getInstance().isReplayMode()) {
             NodeStateManager.getInstance().logMove(pos.row(), pos.col(), 1);
         }
-        notifyObservers();
+        notifyChanged(oldMask, isConnectedToPower, rotationCount - 1);
 
         if (game != null) {
-            game.init();
+            game.updatePower(this);
         }
 
         //NodeStateManager.getInstance().logMove(position.col(), position.row(), rotationCount % 4);
     }
 
+    /**
+     * Otočí konektory uzlu {@code times}-krát o 90° bez zápisu tahu,
+     * notifikace pozorovatelů a přepočtu napájení. Slouží hře pro hromadné
+     * změny, po kterých sama jednou přepočítá napájení a notifikuje.
+     *
+     * @param times počet otočení (libovolné nezáporné číslo)
+     */
+    public void rotateConnectors(int times) {
+        connectorMask = Connectors.rotate(connectorMask, times);
+        rotationCount += times;
+    }
+
     /**
      * Vrátí, kolikrát byl tento uzel za svou životnost otočen uživatelem.
      * @return počet otočení
@@ -136,45 +152,31 @@ public class GameNode extends AbstractObservableField implements ToolField {
         this.rotationCount = 0;
     }
 
-    /**
-     * Pomocná metoda otáčející jeden směr o 90° CW.
-     * @param side původní směr
-     * @return nový směr po otočení
-     */
-    private Side rotateClockwise(Side side) {
-        return switch (side) {
-            case NORTH -> Side.EAST;
-            case EAST -> Side.SOUTH;
-            case SOUTH -> Side.WEST;
-            case WEST -> Side.NORTH;
-        };
-    }
-
     /**
      * Zjistí, zda tento uzel obsahuje konektor na severní straně.
      * @return true pokud ano, jinak false
      */
     @Override
     public boolean north() {
-        return connectors.contains(Side.NORTH);
+        return (connectorMask & Side.NORTH.mask()) != 0;
     }
 
     /** @return true pokud tento uzel obsahuje konektor na východní straně */
     @Override
     public boolean east() {
-        return connectors.contains(Side.EAST);
+        return (connectorMask & Side.EAST.mask()) != 0;
     }
 
     /** @return true pokud tento uzel obsahuje konektor na jižní straně */
     @Override
     public boolean south() {
-        return connectors.contains(Side.SOUTH);
+        return (connectorMask & Side.SOUTH.mask()) != 0;
     }
 
     /** @return true pokud tento uzel obsahuje konektor na západní straně */
     @Override
     public boolean west() {
-        return connectors.contains(Side.WEST);
+        return (connectorMask & Side.WEST.mask()) != 0;
     }
 
     /**
@@ -192,12 +194,46 @@ public class GameNode extends AbstractObservableField implements ToolField {
      * @param connected nové napájecí spojení (true = napájeno)
      */
     public void setConnectedToPower(boolean connected) {
-        if (this.isConnectedToPower != connected) {
-            this.isConnectedToPower = connected;
-            notifyObservers();
+        if (updateConnectedToPower(connected)) {
+            notifyChanged(connectorMask, !connected, rotationCount);
         }
     }
 
+    /**
+     * Notifikuje pozorovatele o změně oproti zadanému původnímu stavu.
+     * Druhy změny se odvodí z hodnot, které se liší; beze změny se nic
+     * neposílá. Slouží i hře, která po hromadné změně notifikuje každý
+     * dotčený uzel jednou.
+     *
+     * @param oldMask          původní maska konektorů
+     * @param oldPowered       původní napájení
+     * @param oldRotationCount původní počet otočení
+     */
+    public void notifyChanged(int oldMask, boolean oldPowered, int oldRotationCount) {
+        notifyObservers(ChangeEvent.of(oldMask, connectorMask,
+                oldPowered, isConnectedToPower, oldRotationCount, rotationCount));
+    }
+
+    /** Notifikuje pozorovatele o změně typu políčka. */
+    private void notifyTypeChanged(int oldMask) {
+        Set<ChangeEvent.Kind> kinds = EnumSet.of(ChangeEvent.Kind.TYPE);
+        if (oldMask != connectorMask) kinds.add(ChangeEvent.Kind.CONNECTORS);
+        notifyObservers(new ChangeEvent(kinds, oldMask, connectorMask,
+                isConnectedToPower, isConnectedToPower, rotationCount, rotationCount));
+    }
+
+    /**
+     * Nastaví příznak napájení bez notifikace pozorovatelů. Slouží hře
+     * pro hromadné změny, po kterých notifikuje každý změněný uzel jednou.
+     * @param connected nové napájecí spojení (true = napájeno)
+     * @return true pokud se stav změnil
+     */
+    public boolean updateConnectedToPower(boolean connected) {
+        if (this.isConnectedToPower == connected) return false;
+        this.isConnectedToPower = connected;
+        return true;
+    }
+
 
     /** Ověřuje typ políčka (vodič).*/
     @Override
@@ -224,7 +260,7 @@ public class GameNode extends AbstractObservableField implements ToolField {
 
     /** Ověří, zda na zadané straně políčka existuje konektor. */
     public boolean containsConnector(Side side) {
-        return connectors.contains(side);
+        return (connectorMask & side.mask()) != 0;
     }
 
 
@@ -269,6 +305,6 @@ public class GameNode extends AbstractObservableField implements ToolField {
      * @return pole hodnot Side
      */
     public Side[] getSides() {
-        return connectors.toArray(new Side[0]);
+        return Connectors.toSides(connectorMask);
     }
 }
\ No newline at end of file
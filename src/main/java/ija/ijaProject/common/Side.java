@@ -22,4 +22,19 @@ package ija.ijaProject.common;
              case WEST  -> NORTH;
          };
      }
+
+    /** Vraci protější stranu. */
+     public Side opposite() {
+         return switch(this) {
+             case NORTH -> SOUTH;
+             case EAST  -> WEST;
+             case SOUTH -> NORTH;
+             case WEST  -> EAST;
+         };
+     }
+
+    /** Vraci bit strany v masce konektorů (viz {@link Connectors}). */
+     public int mask() {
+         return 1 << ordinal();
+     }
  }
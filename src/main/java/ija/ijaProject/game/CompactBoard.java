@@ -0,0 +1,347 @@
+/**
+ * Soubor: src/main/java/ija.ijaProject/game/CompactBoard.java
+ *
+ * Popis:
+ * Kompaktní reprezentace herní desky bez objektů pro jednotlivá políčka.
+ * Stav je uložen v plochých polích byte[] (typ uzlu, maska konektorů,
+ * příznak napájení a počet otočení) indexovaných (row - 1) * cols + (col - 1).
+ * Slouží pro analýzy, řešič a generátor, kde je potřeba držet v paměti
+ * velké množství desek. Objekty GameNode pro UI vzniknou až metodou
+ * {@link #toGame()}.
+ *
+ * @Author: Yaroslav Hryn (xhryny00),Oleksandr Musiichuk (xmusii00)
+ *
+ */
+
+package ija.ijaProject.game;
+
+import ija.ijaProject.common.Connectors;
+import ija.ijaProject.common.GameNode;
+import ija.ijaProject.common.Position;
+import ija.ijaProject.common.Side;
+
+import java.util.Arrays;
+
+/** Kompaktní reprezentace herní desky bez objektů pro jednotlivá políčka.
+ * Stav je uložen v plochých polích byte[] indexovaných
+ * (row - 1) * cols + (col - 1). Objekty GameNode pro UI vzniknou
+ * až metodou {@link #toGame()}. */
+public class CompactBoard {
+    /** Prázdné políčko. */
+    public static final byte EMPTY = 0;
+    /** Vodič. */
+    public static final byte LINK = 1;
+    /** Žárovka. */
+    public static final byte BULB = 2;
+    /** Zdroj. */
+    public static final byte POWER = 3;
+
+    private final int rows;
+    private final int cols;
+    private final byte[] types;
+    private final byte[] masks;
+    private final byte[] powered;
+    private final byte[] rotations;
+    private int powerIndex = -1;
+    private int bulbCount = 0;
+    private int litBulbCount = 0;
+
+    /**
+     * Vytvoří prázdnou desku s danými rozměry.
+     *
+     * @param rows počet řádků (>0)
+     * @param cols počet sloupců (>0)
+     * @throws IllegalArgumentException pokud jsou rozměry ≤ 0
+     */
+    public CompactBoard(int rows, int cols) {
+        if (rows <= 0 || cols <= 0) {
+            throw new IllegalArgumentException("Invalid board size.");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        int size = rows * cols;
+        this.types = new byte[size];
+        this.masks = new byte[size];
+        this.powered = new byte[size];
+        this.rotations = new byte[size];
+    }
+
+    /**
+     * Převede hru na kompaktní desku (aktuální natočení, napájení a počty otočení).
+     *
+     * @param game zdrojová hra
+     * @return nová kompaktní deska
+     */
+    public static CompactBoard fromGame(Game game) {
+        CompactBoard board = new CompactBoard(game.rows(), game.cols());
+        for (GameNode node : game.getNodes()) {
+            Position pos = node.getPosition();
+            int i = board.index(pos.row(), pos.col());
+            byte type = node.isPower() ? POWER : node.isBulb() ? BULB : LINK;
+            board.set(i, type, node.getConnectorMask());
+            board.rotations[i] = (byte) (node.getRotationCount() & 3);
+            if (node.light()) {
+                board.powered[i] = 1;
+                if (type == BULB) board.litBulbCount++;
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Vytvoří plnohodnotnou hru (s objekty GameNode pro UI) z aktuálního stavu desky.
+     * Hra je ihned inicializována, pokud obsahuje zdroj i žárovku.
+     * Počty otočení se nepřenášejí: uzly nové hry začínají s nulovým počtem
+     * otočení v aktuálním natočení desky, takže {@code fromGame(g).toGame()}
+     * zachová masky a napájení, ale ne {@link GameNode#getRotationCount()}.
+     *
+     * @return nová instance Game
+     */
+    public Game toGame() {
+        Game game = Game.create(rows, cols);
+        for (int i = 0; i < types.length; i++) {
+            Side[] sides = Connectors.toSides(masks[i]);
+            Position p = new Position(row(i), col(i));
+            switch (types[i]) {
+                case LINK -> game.createLinkNode(p, sides);
+                case BULB -> game.createBulbNode(p, sides[0]);
+                case POWER -> game.createPowerNode(p, sides);
+                default -> { }
+            }
+        }
+        if (powerIndex >= 0 && bulbCount > 0) {
+            game.init();
+        }
+        return game;
+    }
+
+    /**
+     * Vytvoří nezávislou kopii desky.
+     *
+     * @return kopie desky
+     */
+    public CompactBoard copy() {
+        CompactBoard copy = new CompactBoard(rows, cols);
+        System.arraycopy(types, 0, copy.types, 0, types.length);
+        System.arraycopy(masks, 0, copy.masks, 0, masks.length);
+        System.arraycopy(powered, 0, copy.powered, 0, powered.length);
+        System.arraycopy(rotations, 0, copy.rotations, 0, rotations.length);
+        copy.powerIndex = powerIndex;
+        copy.bulbCount = bulbCount;
+        copy.litBulbCount = litBulbCount;
+        return copy;
+    }
+
+    /** Vrací počet řádků. */
+    public int rows() {
+        return rows;
+    }
+
+    /** Vrací počet sloupců. */
+    public int cols() {
+        return cols;
+    }
+
+    /** Vrací počet políček desky. */
+    public int size() {
+        return types.length;
+    }
+
+    /**
+     * Vrací index políčka (1-based souřadnice jako v Game).
+     *
+     * @param row řádek (1..rows)
+     * @param col sloupec (1..cols)
+     * @return index do plochých polí
+     */
+    public int index(int row, int col) {
+        return (row - 1) * cols + (col - 1);
+    }
+
+    /** Vrací řádek (1-based) políčka s daným indexem. */
+    public int row(int index) {
+        return index / cols + 1;
+    }
+
+    /** Vrací sloupec (1-based) políčka s daným indexem. */
+    public int col(int index) {
+        return index % cols + 1;
+    }
+
+    /**
+     * Vrací index sousedního políčka v daném směru.
+     *
+     * @param index index políčka
+     * @param side směr
+     * @return index souseda nebo -1, pokud leží mimo desku
+     */
+    public int neighbor(int index, Side side) {
+        int r = index / cols;
+        int c = index % cols;
+        return switch (side) {
+            case NORTH -> r > 0 ? index - cols : -1;
+            case SOUTH -> r < rows - 1 ? index + cols : -1;
+            case WEST -> c > 0 ? index - 1 : -1;
+            case EAST -> c < cols - 1 ? index + 1 : -1;
+        };
+    }
+
+    /**
+     * Nastaví typ a masku konektorů políčka. Napájení je potřeba přepočítat
+     * metodou {@link #propagate()}.
+     *
+     * @param index index políčka
+     * @param type typ (EMPTY, LINK, BULB, POWER)
+     * @param mask maska konektorů
+     * @throws IllegalArgumentException pokud by na desce vznikl druhý zdroj
+     *         nebo maska neodpovídá typu (prázdné políčko bez konektorů,
+     *         vodič aspoň dva, žárovka právě jeden, zdroj aspoň jeden), tj.
+     *         políčko, které by {@link #toGame()} nemohlo vytvořit
+     */
+    public void set(int index, byte type, int mask) {
+        if (type == POWER && powerIndex >= 0 && powerIndex != index) {
+            throw new IllegalArgumentException("Power source already exists.");
+        }
+        int connectors = Connectors.count(mask & Connectors.ALL);
+        switch (type) {
+            case EMPTY -> {
+                if (connectors != 0) throw new IllegalArgumentException("Empty cell cannot have connectors.");
+            }
+            case LINK -> {
+                if (connectors < 2) throw new IllegalArgumentException("Link needs at least two connectors.");
+            }
+            case BULB -> {
+                if (connectors != 1) throw new IllegalArgumentException("Bulb needs exactly one connector.");
+            }
+            case POWER -> {
+                if (connectors < 1) throw new IllegalArgumentException("Power source needs a connector.");
+            }
+            default -> throw new IllegalArgumentException("Unknown cell type " + type + ".");
+        }
+        if (types[index] == BULB) bulbCount--;
+        if (types[index] == POWER) powerIndex = -1;
+        types[index] = type;
+        masks[index] = (byte) (mask & Connectors.ALL);
+        rotations[index] = 0;
+        if (type == BULB) bulbCount++;
+        if (type == POWER) powerIndex = index;
+    }
+
+    /** Vrací typ políčka. */
+    public byte type(int index) {
+        return types[index];
+    }
+
+    /** Ověří, zda je políčko součástí hry (vodič, žárovka nebo zdroj). */
+    public boolean isPlayable(int index) {
+        return types[index] != EMPTY;
+    }
+
+    /** Vrací masku konektorů políčka. */
+    public int mask(int index) {
+        return masks[index];
+    }
+
+    /** Ověří, zda je políčko napájeno (podle posledního {@link #propagate()}). */
+    public boolean powered(int index) {
+        return powered[index] != 0;
+    }
+
+    /** Vrací počet otočení políčka modulo 4. */
+    public int rotation(int index) {
+        return rotations[index];
+    }
+
+    /**
+     * Otočí políčko o 90° po směru hodinových ručiček.
+     * Napájení se nepřepočítává.
+     *
+     * @param index index políčka
+     */
+    public void rotate(int index) {
+        rotate(index, 1);
+    }
+
+    /**
+     * Otočí políčko {@code times}-krát o 90° po směru hodinových ručiček.
+     * Napájení se nepřepočítává.
+     *
+     * @param index index políčka
+     * @param times počet otočení
+     */
+    public void rotate(int index, int times) {
+        int k = times & 3;
+        if (k == 0 || types[index] == EMPTY) return;
+        masks[index] = (byte) Connectors.rotate(masks[index], k);
+        rotations[index] = (byte) ((rotations[index] + k) & 3);
+    }
+
+    /**
+     * Ověří, zda jsou políčko a jeho soused v daném směru propojeny
+     * proti sobě směřujícími konektory.
+     *
+     * @param index index políčka
+     * @param side směr
+     * @return index propojeného souseda nebo -1
+     */
+    public int connectedNeighbor(int index, Side side) {
+        if ((masks[index] & side.mask()) == 0) return -1;
+        int n = neighbor(index, side);
+        if (n < 0 || (masks[n] & side.opposite().mask()) == 0) return -1;
+        return n;
+    }
+
+    /**
+     * Přepočítá napájení celé desky šířením od zdroje (stejný výsledek jako {@link Game#init()}).
+     *
+     * @return počet rozsvícených žárovek
+     */
+    public int propagate() {
+        Arrays.fill(powered, (byte) 0);
+        litBulbCount = 0;
+        if (powerIndex < 0) return 0;
+
+        int[] queue = new int[types.length];
+        int head = 0;
+        int tail = 0;
+        powered[powerIndex] = 1;
+        queue[tail++] = powerIndex;
+        while (head < tail) {
+            int current = queue[head++];
+            if (types[current] == BULB) litBulbCount++;
+            for (Side side : Side.values()) {
+                int n = connectedNeighbor(current, side);
+                if (n >= 0 && powered[n] == 0) {
+                    powered[n] = 1;
+                    queue[tail++] = n;
+                }
+            }
+        }
+        return litBulbCount;
+    }
+
+    /** Vrací index zdroje nebo -1. */
+    public int powerIndex() {
+        return powerIndex;
+    }
+
+    /** Vrací počet žárovek na desce. */
+    public int bulbCount() {
+        return bulbCount;
+    }
+
+    /** Vrací počet rozsvícených žárovek (podle posledního {@link #propagate()}). */
+    public int litBulbCount() {
+        return litBulbCount;
+    }
+
+    /** Zjistí, zda alespoň jedna žárovka svítí. */
+    public boolean anyBulbLit() {
+        return litBulbCount > 0;
+    }
+
+    /** Zjistí, zda svítí všechny žárovky (a alespoň jedna existuje). */
+    public boolean allBulbsLit() {
+        return bulbCount > 0 && litBulbCount == bulbCount;
+    }
+}
@@ -29,6 +29,7 @@ import visualization.common.ToolField;
 
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /** Prostředí hry.
  * Prostředí je tvořeno políčky GameNode
@@ -46,8 +47,20 @@ public class Game implements ToolEnvironment {
     private final int cols;
     private final ToolField[][] grid;
     private boolean powerExists = false;
-    private Runnable completionListener;
+    private final List<Runnable> completionListeners = new CopyOnWriteArrayList<>();
     private final Map<Position, GameNode> nodes;
+    private GameNode powerNode;
+    private boolean bulbExists = false;
+    private boolean propagated = false;
+    private final List<GameNode> poweredNodes = new ArrayList<>();
+    private final int[] visitMarks;
+    private int visitEpoch = 0;
+    private int revision = 0;
+    private int bulbCount = 0;
+    private int litBulbCount = 0;
+    private boolean completed = false;
+    /** uzly ke společné notifikaci během dávky, jinak null */
+    private Set<GameNode> batchNotifications = null;
 
     /**
      * Konstruktor, vytvoří prázdnou mřížku s danými rozměry.
@@ -61,6 +74,7 @@ public class Game implements ToolEnvironment {
         this.cols = cols;
         this.nodes = new HashMap<>();
         this.grid = new ToolField[rows][cols];
+        this.visitMarks = new int[rows * cols];
 
         for (int r = 0; r < rows; r++) {
             for (int c = 0; c < cols; c++) {
@@ -106,7 +120,7 @@ public class Game implements ToolEnvironment {
     private void lightConnectedNodes(GameNode powerNode) {
         resetPowerStates();
 
-        Queue<GameNode> queue = new LinkedList<>();
+        Queue<GameNode> queue = new ArrayDeque<>();
         powerNode.setConnectedToPower(true);
         queue.add(powerNode);
 
@@ -185,9 +199,60 @@ public class Game implements ToolEnvironment {
      * @return {@code true} pokud existuje svítící žárovka
      */
     public boolean anyBulbLit() {
-        return nodes.values().stream()
-                .filter(GameNode::isBulb)
-                .anyMatch(GameNode::light);
+        return litBulbCount > 0;
+    }
+
+    /**
+     * Vrací počet žárovek ve hře.
+     *
+     * @return počet žárovek
+     */
+    public int getBulbCount() {
+        return bulbCount;
+    }
+
+    /**
+     * Vrací počet rozsvícených žárovek. Hodnota se průběžně aktualizuje
+     * při šíření proudu, není třeba procházet mřížku.
+     *
+     * @return počet rozsvícených žárovek
+     */
+    public int getLitBulbCount() {
+        return litBulbCount;
+    }
+
+    /**
+     * Zjistí, zda svítí všechny žárovky (úroveň je dokončena).
+     *
+     * @return {@code true} pokud hra obsahuje žárovky a všechny svítí
+     */
+    public boolean isCompleted() {
+        return bulbCount > 0 && litBulbCount == bulbCount;
+    }
+
+    /**
+     * Zaregistruje posluchače dokončení úrovně. Posluchač je zavolán
+     * jednou pokaždé, když se rozsvítí poslední žárovka, a to ve vlákně,
+     * které provedlo tah. Je-li úroveň už dokončena, zavolá se ihned.
+     *
+     * @param listener posluchač dokončení
+     */
+    @Override
+    public void addCompletionListener(Runnable listener) {
+        completionListeners.add(listener);
+        if (isCompleted()) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Odebere posluchače dokončení úrovně.
+     *
+     * @param listener dříve zaregistrovaný posluchač
+     */
+    @Override
+    public void removeCompletionListener(Runnable listener) {
+        completionListeners.remove(listener);
     }
 
     /**
@@ -211,8 +276,11 @@ public class Game implements ToolEnvironment {
     public GameNode createBulbNode(Position p, Side side) {
         GameNode node = getGameNode(p.row(), p.col());
         if (node == null) return null;
+        if (!node.isBulb()) bulbCount++;
         node.setBulb(side);
         nodes.put(p, node);
+        bulbExists = true;
+        propagated = false;
         return node;
     }
 
@@ -225,6 +293,7 @@ public class Game implements ToolEnvironment {
         if (node == null) return null;
         node.setLink(sides);
         nodes.put(p, node);
+        propagated = false;
         return node;
     }
 
@@ -238,7 +307,9 @@ public class Game implements ToolEnvironment {
         if (node == null) return null;
         node.setPower(sides);
         powerExists = true;
+        powerNode = node;
         nodes.put(p, node);
+        propagated = false;
         return node;
     }
 
@@ -316,6 +387,338 @@ public class Game implements ToolEnvironment {
                 }
             }
         }
+
+        revision++;
+        poweredNodes.clear();
+        litBulbCount = 0;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                GameNode node = (GameNode) grid[r][c];
+                if (node.light()) {
+                    poweredNodes.add(node);
+                    if (node.isBulb()) litBulbCount++;
+                }
+            }
+        }
+        propagated = true;
+        checkCompletion();
+    }
+
+    /**
+     * Vrací číslo revize stavu hry. Zvyšuje se při každém otočení uzlu
+     * a při inicializaci, lze jej tedy použít pro zneplatnění odvozených dat.
+     *
+     * @return aktuální revize
+     */
+    public int getRevision() {
+        return revision;
+    }
+
+    /**
+     * Inkrementálně přepočítá napájení po otočení jednoho uzlu.
+     * Výsledek je shodný s {@link #init()}, ale prochází se pouze
+     * komponenta, které se uzel dotýkal před otočením a po něm.
+     * Pozorovatelé jsou notifikováni jen u uzlů, jejichž stav se skutečně změnil.
+     *
+     * @param turned právě otočený uzel
+     * @throws IllegalStateException pokud chybí zdroj nebo žárovka
+     */
+    public void updatePower(GameNode turned) {
+        revision++;
+        if (!propagated || !powerExists || !bulbExists) {
+            init();
+            return;
+        }
+
+        if (!turned.light()) {
+            if (touchesPowered(turned)) {
+                setPowered(turned, true);
+                poweredNodes.add(turned);
+                spreadPower(turned);
+            }
+        } else {
+            recomputePower();
+        }
+        checkCompletion();
+    }
+
+    /**
+     * Atomicky otočí uzly podle pole otočení indexovaného
+     * (row - 1) * cols + (col - 1). Tahy se nezapisují, napájení se
+     * přepočítá jednou a každý otočený uzel je notifikován jednou.
+     *
+     * @param rotations počet otočení o 90° pro každé políčko
+     * @throws IllegalStateException pokud chybí zdroj nebo žárovka
+     */
+    public void applyRotations(byte[] rotations) {
+        Batch batch = beginBatch();
+        for (int i = 0; i < rotations.length && i < rows * cols; i++) {
+            batch.turns[i] = rotations[i] & 3;
+        }
+        batch.commit();
+    }
+
+    /**
+     * Začne dávku otočení. Otočení se sčítají v dávce a na hru se
+     * projeví až voláním {@link Batch#commit()}.
+     *
+     * @return prázdná dávka
+     */
+    public Batch beginBatch() {
+        return new Batch();
+    }
+
+    /**
+     * Otočí uzly podle seznamu (pozice, počet otočení o 90°) jednou dávkou.
+     *
+     * @param positions pozice uzlů
+     * @param turns     počet otočení pro odpovídající pozici
+     * @throws IllegalArgumentException pokud seznamy nemají stejnou délku
+     */
+    public void applyBatch(List<Position> positions, List<Integer> turns) {
+        if (positions.size() != turns.size()) {
+            throw new IllegalArgumentException("Positions and turns differ in length.");
+        }
+        Batch batch = beginBatch();
+        for (int i = 0; i < positions.size(); i++) {
+            batch.rotate(positions.get(i), turns.get(i));
+        }
+        batch.commit();
+    }
+
+    /**
+     * Dávka otočení uzlů (transakce). Otočení jednoho políčka se sčítají,
+     * konektory se otočí o součet modulo 4, napájení se přepočítá jednou
+     * a každý dotčený uzel (otočený nebo se změněným napájením) je
+     * notifikován právě jednou. Tahy se nezapisují do záznamu hry.
+     */
+    public final class Batch {
+        private final int[] turns = new int[rows * cols];
+        private boolean committed = false;
+
+        private Batch() {
+        }
+
+        /**
+         * Přidá otočení uzlu.
+         *
+         * @param p            pozice uzlu
+         * @param quarterTurns počet otočení o 90° po směru hodinových ručiček (záporné proti směru)
+         * @return tato dávka
+         */
+        public Batch rotate(Position p, int quarterTurns) {
+            return rotate(p.row(), p.col(), quarterTurns);
+        }
+
+        /**
+         * Přidá otočení uzlu.
+         *
+         * @param row          řádek uzlu
+         * @param col          sloupec uzlu
+         * @param quarterTurns počet otočení o 90° po směru hodinových ručiček (záporné proti směru)
+         * @return tato dávka
+         */
+        public Batch rotate(int row, int col, int quarterTurns) {
+            if (row < 1 || row > rows || col < 1 || col > cols) return this;
+            int i = (row - 1) * cols + (col - 1);
+            turns[i] += quarterTurns < 0 ? Math.floorMod(quarterTurns, 4) : quarterTurns;
+            return this;
+        }
+
+        /**
+         * Provede dávku. Lze zavolat jen jednou.
+         *
+         * @throws IllegalStateException pokud už byla dávka provedena, nebo chybí zdroj či žárovka
+         */
+        public void commit() {
+            if (committed) {
+                throw new IllegalStateException("Batch already committed.");
+            }
+            committed = true;
+            commitBatch(turns);
+        }
+    }
+
+    /**
+     * Provede dávku otočení: otočí konektory, jednou přepočítá napájení
+     * a každý dotčený uzel notifikuje jednou.
+     *
+     * @param turns počet otočení pro každé políčko
+     */
+    private void commitBatch(int[] turns) {
+        Set<GameNode> touched = new LinkedHashSet<>();
+        Map<GameNode, int[]> before = new HashMap<>();
+        for (int i = 0; i < turns.length; i++) {
+            if (turns[i] == 0) continue;
+            GameNode node = (GameNode) grid[i / cols][i % cols];
+            if (!isPlayebleNode(node)) continue;
+            before.put(node, new int[]{node.getConnectorMask(), node.getRotationCount(), node.light() ? 1 : 0});
+            node.rotateConnectors(turns[i]);
+            touched.add(node);
+        }
+
+        revision++;
+        if (propagated) {
+            batchNotifications = touched;
+            try {
+                recomputePower();
+            } finally {
+                batchNotifications = null;
+            }
+        } else {
+            init();
+        }
+        for (GameNode node : touched) {
+            int[] old = before.get(node);
+            if (old != null) {
+                node.notifyChanged(old[0], old[2] == 1, old[1]);
+            } else {
+                // uzel jen změnil napájení (v dávce se mění nejvýše jednou)
+                node.notifyChanged(node.getConnectorMask(), !node.light(), node.getRotationCount());
+            }
+        }
+        checkCompletion();
+    }
+
+    /**
+     * Po dokončeném šíření proudu ověří, zda se právě rozsvítila poslední
+     * žárovka, a pokud ano, jednou zavolá posluchače dokončení.
+     */
+    private void checkCompletion() {
+        if (!isCompleted()) {
+            completed = false;
+            return;
+        }
+        if (completed) return;
+        completed = true;
+        for (Runnable listener : completionListeners) {
+            try {
+                listener.run();
+            } catch (Exception e) {
+                System.err.println("Error notifying completion listener: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Nastaví napájení uzlu a udržuje počet rozsvícených žárovek.
+     *
+     * @param node    uzel
+     * @param powered nový stav napájení
+     */
+    private void setPowered(GameNode node, boolean powered) {
+        if (node.isBulb() && node.light() != powered) {
+            litBulbCount += powered ? 1 : -1;
+        }
+        if (batchNotifications == null) {
+            node.setConnectedToPower(powered);
+        } else if (node.updateConnectedToPower(powered)) {
+            batchNotifications.add(node);
+        }
+    }
+
+    /**
+     * Přepočítá napájení šířením od zdroje a porovná výsledek s dosud
+     * napájenými uzly. Notifikovány jsou jen uzly, jejichž stav se změnil.
+     */
+    private void recomputePower() {
+        int epoch = ++visitEpoch;
+        List<GameNode> previous = new ArrayList<>(poweredNodes);
+        poweredNodes.clear();
+
+        Deque<GameNode> queue = new ArrayDeque<>();
+        mark(powerNode, epoch);
+        queue.add(powerNode);
+        while (!queue.isEmpty()) {
+            GameNode current = queue.poll();
+            poweredNodes.add(current);
+            for (Side side : Side.values()) {
+                GameNode neighbor = connectedNeighbor(current, side);
+                if (neighbor != null && visitMarks[index(neighbor)] != epoch) {
+                    mark(neighbor, epoch);
+                    queue.add(neighbor);
+                }
+            }
+        }
+
+        for (GameNode node : previous) {
+            if (visitMarks[index(node)] != epoch) {
+                setPowered(node, false);
+            }
+        }
+        for (GameNode node : poweredNodes) {
+            setPowered(node, true);
+        }
+    }
+
+    /**
+     * Rozšíří napájení z nově napájeného uzlu do všech dosud nenapájených
+     * propojených sousedů.
+     *
+     * @param start nově napájený uzel
+     */
+    private void spreadPower(GameNode start) {
+        Deque<GameNode> queue = new ArrayDeque<>();
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            GameNode current = queue.poll();
+            for (Side side : Side.values()) {
+                GameNode neighbor = connectedNeighbor(current, side);
+                if (neighbor != null && !neighbor.light()) {
+                    setPowered(neighbor, true);
+                    poweredNodes.add(neighbor);
+                    queue.add(neighbor);
+                }
+            }
+        }
+    }
+
+    /**
+     * Zjistí, zda je uzel propojen s alespoň jedním napájeným sousedem.
+     *
+     * @param node kontrolovaný uzel
+     * @return {@code true} pokud existuje napájený propojený soused
+     */
+    private boolean touchesPowered(GameNode node) {
+        for (Side side : Side.values()) {
+            GameNode neighbor = connectedNeighbor(node, side);
+            if (neighbor != null && neighbor.light()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Vrátí souseda ve směru {@code side}, pokud jsou oba uzly
+     * propojeny proti sobě směřujícími konektory.
+     *
+     * @param node výchozí uzel
+     * @param side směr od výchozího uzlu
+     * @return propojený soused nebo {@code null}
+     */
+    private GameNode connectedNeighbor(GameNode node, Side side) {
+        if (!node.containsConnector(side)) return null;
+        Position pos = node.getPosition();
+        GameNode neighbor = switch (side) {
+            case NORTH -> getGameNode(pos.row() - 1, pos.col());
+            case EAST -> getGameNode(pos.row(), pos.col() + 1);
+            case SOUTH -> getGameNode(pos.row() + 1, pos.col());
+            case WEST -> getGameNode(pos.row(), pos.col() - 1);
+        };
+        if (neighbor == null || !neighbor.containsConnector(side.opposite())) return null;
+        return neighbor;
+    }
+
+    /** Vrací index uzlu do plochého pole značek. */
+    private int index(GameNode node) {
+        Position pos = node.getPosition();
+        return (pos.row() - 1) * cols + (pos.col() - 1);
+    }
+
+    /** Označí uzel jako navštívený v daném průchodu. */
+    private void mark(GameNode node, int epoch) {
+        visitMarks[index(node)] = epoch;
     }
 
     /**
@@ -15,7 +15,9 @@ package ija.ijaProject.game.levels;
 import ija.ijaProject.common.GameNode;
 import ija.ijaProject.common.Position;
 import ija.ijaProject.common.Side;
+import ija.ijaProject.game.CompactBoard;
 import ija.ijaProject.game.Game;
+import ija.ijaProject.game.solver.SolutionHints;
 import javafx.animation.PauseTransition;
 import javafx.embed.swing.SwingNode;
 import javafx.application.Platform;
@@ -30,6 +32,7 @@ import javafx.scene.layout.StackPane;
 import javafx.stage.Stage;
 import javafx.util.Duration;
 import visualization.EnvPresenter;
+import visualization.common.ChangeEvent;
 import visualization.common.ToolField;
 import visualization.view.InfoPresenter;
 
@@ -40,6 +43,9 @@ import java.awt.*;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseMotionAdapter;
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
 import java.util.*;
 import java.util.List;
 import java.util.function.Function;
@@ -50,6 +56,17 @@ import java.util.stream.Collectors;
  * It provides methods to create and load specific levels based on level number and difficulty.
  */
 public class GameLevels {
+    /** Počet úrovní v jedné obtížnosti. */
+    public static final int LEVELS_PER_DIFFICULTY = 10;
+    /** Počet obtížností (0=Beginner, 1=Intermediate, 2=Advanced). */
+    public static final int DIFFICULTY_COUNT = 3;
+    /** System property s cestou k balíku úrovní ({@link LevelPack}), který má přednost před tabulkami. */
+    public static final String LEVEL_PACK_PROPERTY = "voltmaze.levelpack";
+    /** System property, při jejímž nastavení na true se vypisuje zamíchání úrovně (ladění). */
+    public static final String DEBUG_SCRAMBLE_PROPERTY = "voltmaze.debug.scramble";
+
+    private static LevelPack levelPack;
+    private static boolean levelPackResolved = false;
 
     private static final Object[][] LEVEL_1_BEGINNER = {
             {"P", 2, 2, Side.SOUTH},
@@ -1046,10 +1063,11 @@ public class GameLevels {
      *
      * @param levelNumber           číslo úrovně
      * @param difficulty            obtížnost
-     * @param levelCompletedCallback  Oznamení, ktere se vyvolá při dokončení úrovně
-     * @return SwingNode,            Swingový panel s hrou
+     * @param isSimulation          přehrávání uložené hry (bez zamíchání)
+     * @return SwingNode,            Swingový panel s hrou; dokončení úrovně hlásí
+     *                               Game posluchačům, viz {@link Game#addCompletionListener}
      */
-    public static SwingNode createGameLevel(int levelNumber, int difficulty, Runnable levelCompletedCallback, boolean isSimulation) {
+    public static SwingNode createGameLevel(int levelNumber, int difficulty, boolean isSimulation) {
         SwingNode swingNode = new SwingNode();
         boolean hasSaved = NodeStateManager.getInstance().hasSavedProgress(levelNumber, difficulty);
 
@@ -1058,30 +1076,9 @@ public class GameLevels {
         }
         else System.out.println("doesnt Exitst");
 
-        Object[][] levelDef = getLevelDefinition(levelNumber, difficulty);
-
         SwingUtilities.invokeLater(() -> {
             try {
-                int gridSize = getGridSizeForDifficulty(difficulty);
-                Game game = Game.create(gridSize, gridSize + 2);
-
-                for (Object[] n : levelDef) {
-                    String type = (String) n[0];
-                    int row = (Integer) n[1];
-                    int col = (Integer) n[2];
-                    Position p = new Position(row, col);
-                    Side[] sides = new Side[n.length - 3];
-                    for (int i = 3; i < n.length; i++) {
-                        sides[i - 3] = (Side) n[i];
-                    }
-                    switch (type) {
-                        case "L" -> game.createLinkNode(p, sides);
-                        case "B" -> game.createBulbNode(p, sides[0]);
-                        case "P" -> game.createPowerNode(p, sides);
-                    }
-                }
-
-                game.init();
+                Game game = loadLevelGame(levelNumber, difficulty);
                 Game solvedGame = game.deepCopy();
                 Platform.runLater(() -> swingNode.getProperties().put("solvedGame", solvedGame));
 
@@ -1155,17 +1152,15 @@ public class GameLevels {
                         PauseTransition pause = new PauseTransition(Duration.seconds(1));
                         pause.setOnFinished(evt -> SwingUtilities.invokeLater(() -> {
 
-                            List<Position> posList = game.getNodes().stream()
-                                    .map(GameNode::getPosition).toList();
-                            Random rnd = new Random();
                             int moves = 10 + difficulty * 5;
-                            do {
-                                for (int i = 0; i < moves; i++) {
-                                    game.rotateNode(posList.get(rnd.nextInt(posList.size())));
-                                }
-                            } while (game.anyBulbLit());
+                            ScrambleDescriptor scramble = ScrambleDescriptor.generate(
+                                    CompactBoard.fromGame(game), moves, ScrambleDescriptor.newSeed());
+                            scramble.applyTo(game);
+                            if (Boolean.getBoolean(DEBUG_SCRAMBLE_PROPERTY)) {
+                                System.out.println("[Scramble] " + scramble.encode());
+                            }
 
-                            NodeStateManager.getInstance().saveInitialState(levelNumber, difficulty, game);
+                            NodeStateManager.getInstance().saveScramble(levelNumber, difficulty, scramble);
 
                             for (GameNode node : game.getNodes()) {
                                 node.resetRotationCount();
@@ -1175,25 +1170,15 @@ public class GameLevels {
 
 
                             EnvPresenter playPr = new EnvPresenter(game);
-                            if (levelCompletedCallback != null) {
-                                final boolean[] initialCheckDone = {false};
-                                playPr.setLevelCompletedCallback(() -> {
-                                    if (!initialCheckDone[0]) {
-                                        initialCheckDone[0] = true;
-                                        System.out.println("Skipping initial completion check");
-                                        return;
-                                    }
-                                    levelCompletedCallback.run();
-                                });
-                            }
                             for (GameNode node : game.getNodes()) {
+                                // napájení se po načtení přepočítá, ukládat stačí otočení
                                 node.addObserver(observable -> {
 //                                    Position pos = node.getPosition();
 //                                    int rotation = node.getRotationCount();
 
-                                    NodeStateManager.getInstance().savePlayerProgress(levelNumber, difficulty, game);
+                                    NodeStateManager.getInstance().markProgressDirty(levelNumber, difficulty, game, node);
                                     //System.out.println("LOG MOVE: " + pos.row + ", " + pos.col + ", " + rotation);
-                                });
+                                }, EnumSet.of(ChangeEvent.Kind.CONNECTORS, ChangeEvent.Kind.ROTATION));
                             }
                             playPr.init();
 
@@ -1227,6 +1212,108 @@ public class GameLevels {
     }
 
 
+    /**
+     * Sestaví nezamíchanou (vyřešenou) hru dané úrovně bez UI.
+     *
+     * @param levelNumber číslo úrovně (1–10)
+     * @param difficulty  obtížnost (0–2)
+     * @return inicializovaná hra
+     */
+    public static Game createLevelGame(int levelNumber, int difficulty) {
+        return loadLevelGame(levelNumber, difficulty);
+    }
+
+    /**
+     * Sestaví hru úrovně vždy z vestavěných tabulek (bez balíku úrovní).
+     *
+     * @param levelNumber číslo úrovně (1–10)
+     * @param difficulty  obtížnost (0–2)
+     * @return inicializovaná hra
+     */
+    static Game createBuiltinLevelGame(int levelNumber, int difficulty) {
+        return buildGame(getLevelDefinition(levelNumber, difficulty), difficulty);
+    }
+
+    /**
+     * Nastaví balík úrovní, ze kterého se úrovně načítají přednostně.
+     * Úrovně, které balík neobsahuje, se berou z tabulek.
+     *
+     * @param pack balík nebo null pro návrat k tabulkám
+     */
+    public static synchronized void setLevelPack(LevelPack pack) {
+        levelPack = pack;
+        levelPackResolved = true;
+    }
+
+    /**
+     * Vrací balík úrovní; poprvé ho otevře podle {@link #LEVEL_PACK_PROPERTY}.
+     *
+     * @return balík nebo null
+     */
+    public static synchronized LevelPack getLevelPack() {
+        if (!levelPackResolved) {
+            levelPackResolved = true;
+            String path = System.getProperty(LEVEL_PACK_PROPERTY);
+            if (path != null && !path.isEmpty()) {
+                try {
+                    levelPack = LevelPack.open(Paths.get(path));
+                    System.out.println("[LevelPack] Loaded " + levelPack.size() + " levels from " + path);
+                } catch (IOException e) {
+                    System.err.println("[LevelPack] Cannot open " + path + ": " + e.getMessage());
+                }
+            }
+        }
+        return levelPack;
+    }
+
+    /**
+     * Sestaví hru úrovně z balíku úrovní, nebo z tabulek, pokud ji balík
+     * neobsahuje nebo je v něm úroveň poškozená.
+     */
+    private static Game loadLevelGame(int levelNumber, int difficulty) {
+        LevelPack pack = getLevelPack();
+        int entry = pack == null ? -1 : pack.find(levelNumber, difficulty);
+        if (entry >= 0) {
+            try {
+                return pack.game(entry);
+            } catch (UncheckedIOException e) {
+                System.err.println("[LevelPack] " + e.getCause().getMessage());
+            }
+        }
+        return createBuiltinLevelGame(levelNumber, difficulty);
+    }
+
+    /**
+     * Vytvoří hru z definice úrovně a inicializuje ji.
+     *
+     * @param levelDef   definice úrovně
+     * @param difficulty obtížnost (určuje rozměr herního pole)
+     * @return inicializovaná hra
+     */
+    private static Game buildGame(Object[][] levelDef, int difficulty) {
+        int gridSize = getGridSizeForDifficulty(difficulty);
+        Game game = Game.create(gridSize, gridSize + 2);
+
+        for (Object[] n : levelDef) {
+            String type = (String) n[0];
+            int row = (Integer) n[1];
+            int col = (Integer) n[2];
+            Position p = new Position(row, col);
+            Side[] sides = new Side[n.length - 3];
+            for (int i = 3; i < n.length; i++) {
+                sides[i - 3] = (Side) n[i];
+            }
+            switch (type) {
+                case "L" -> game.createLinkNode(p, sides);
+                case "B" -> game.createBulbNode(p, sides[0]);
+                case "P" -> game.createPowerNode(p, sides);
+            }
+        }
+
+        game.init();
+        return game;
+    }
+
     private static void setupTooltipWithRotationInfo(SwingNode swingNode, Game game, Game solvedGame) {
         Tooltip tip = new Tooltip();
         tip.setShowDelay(Duration.seconds(1));
@@ -1234,24 +1321,37 @@ public class GameLevels {
 
         final int cols = game.cols();
         final int rows = game.rows();
+        final SolutionHints hints = new SolutionHints(game, solvedGame);
+        // okno nápovědy (InfoPresenter) bere cíle ze stejné instance
+        swingNode.getProperties().put("hints", hints);
+        // poslední políčko pod myší; text se obnoví i po doběhnutí řešiče na pozadí
+        final int[] hovered = new int[2];
+
+        Runnable showHint = () -> {
+            int row = hovered[0], col = hovered[1];
+            if (row == 0) return;
+
+            int remaining = hints.rotationsNeeded(row, col);
+            int actual = game.getGameNode(row, col).getRotationCount();
+
+            long solutions = hints.solutionCount();
+
+            tip.setText("GameNode " + row + "," + col +
+                    "\n Need Rotations: " + (remaining < 0 ? "?" : remaining) +
+                    "\n Actual Rotations: " + actual +
+                    "\n Valid Solutions: " + (solutions < 0 ? "..."
+                            : solutions + (solutions >= SolutionHints.COUNT_LIMIT ? "+" : "")));
+        };
+        hints.addUpdateListener(() -> Platform.runLater(showHint));
 
         swingNode.setOnMouseMoved(ev -> {
             Bounds b = swingNode.getLayoutBounds();
             double w = b.getWidth(), h = b.getHeight();
             double cellW = w / cols, cellH = h / rows;
 
-            int col = Math.min(cols, Math.max(1, (int) (ev.getX() / cellW) + 1));
-            int row = Math.min(rows, Math.max(1, (int) (ev.getY() / cellH) + 1));
-
-            Set<Side> cur = game.getGameNode(row, col).getConnectors();
-            Set<Side> tgt = solvedGame.getGameNode(row, col).getConnectors();
-
-            int remaining = rotationsNeeded(cur, tgt);
-            int actual = game.getGameNode(row, col).getRotationCount();
-
-            tip.setText("GameNode " + row + "," + col +
-                    "\n Need Rotations: " + remaining +
-                    "\n Actual Rotations: " + actual);
+            hovered[1] = Math.min(cols, Math.max(1, (int) (ev.getX() / cellW) + 1));
+            hovered[0] = Math.min(rows, Math.max(1, (int) (ev.getY() / cellH) + 1));
+            showHint.run();
         });
 
         swingNode.setOnMouseExited(ev -> tip.hide());
@@ -1259,44 +1359,6 @@ public class GameLevels {
 
 
 
-    /**
-     * Vrátí Side otočeny o 90°
-     *
-     * @param cur aktuální množina connectorů (ke kterým Side ma connektery)
-     * @param tgt cílová množina connectorů (ke kterým Side ma connektery)
-     * @return počet otočení
-     */
-    private static int rotationsNeeded(Set<Side> cur, Set<Side> tgt) {
-        for (int k = 0; k < 4; k++) {
-            final int kk = k;
-            Set<Side> rot = cur.stream()
-                    .map(s -> rotateCW(s, kk))
-                    .collect(Collectors.toSet());
-            if (rot.equals(tgt)) return kk;
-        }
-        return 0;
-    }
-
-    /**
-     * Otočí stranu o 90°
-     *
-     * @param s     vstupní strana
-     * @param times počet otočení
-     * @return  strana po otočení
-     */
-    private static Side rotateCW(Side s, int times) {
-        Side r = s;
-        for (int i = 0; i < times; i++) {
-            r = switch(r) {
-                case NORTH -> Side.EAST;
-                case EAST  -> Side.SOUTH;
-                case SOUTH -> Side.WEST;
-                case WEST  -> Side.NORTH;
-            };
-        }
-        return r;
-    }
-
 
     /**
      * Vrati Level defintion.
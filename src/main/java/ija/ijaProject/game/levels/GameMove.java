@@ -3,20 +3,24 @@ package ija.ijaProject.game.levels;
 import ija.ijaProject.common.Position;
 
 import java.io.*;
-import java.util.ArrayList;
-import java.util.List;
 
 public class GameMove implements Serializable {
+    /** Keeps old serialized move logs readable. */
+    private static final long serialVersionUID = -9050402547923207641L;
+
     public final int x, y;
     public final int rotation;
     public final long timestamp;
-    private final List<GameMove> currentGameMoves = new ArrayList<>();
 
     public GameMove(int x, int y, int rotation) {
+        this(x, y, rotation, System.currentTimeMillis());
+    }
+
+    public GameMove(int x, int y, int rotation, long timestamp) {
         this.x = x;
         this.y = y;
         this.rotation = rotation;
-        this.timestamp = System.currentTimeMillis();
+        this.timestamp = timestamp;
     }
     public Position getPosition() {
         return new Position(x, y);
@@ -1,35 +1,103 @@
 package ija.ijaProject.game.levels;
 
-import ija.ijaProject.common.GameNode;
 import ija.ijaProject.game.Game;
 
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Replays a recorded move list on a game. The position after every
+ * {@link #DEFAULT_CHECKPOINT_INTERVAL K}-th move is kept as a checkpoint
+ * (quarter turns per cell relative to the starting board), so {@link #seek(int)}
+ * restores the nearest checkpoint, applies at most K moves on the raw
+ * rotation array and then updates the board with one
+ * {@link Game#applyRotations(byte[])} call, i.e. one power propagation.
+ */
 public class GameReplay {
+    /** Default number of moves between two checkpoints. */
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 64;
+
     private final List<GameMove> moves;
     private int currentMoveIndex = -1;
     private boolean isPlayMode = false;
     private final Runnable refreshCallback;
     private final Game game;
+    private final int checkpointInterval;
+    /** checkpoints[i] = rotations after move i * checkpointInterval - 1 */
+    private final List<byte[]> checkpoints = new ArrayList<>();
+    /** rotations the board currently has, relative to the starting board */
+    private final byte[] applied;
 
     public GameReplay(List<GameMove> moves, Game game, Runnable refreshCallback) {
+        this(moves, game, refreshCallback, DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    /**
+     * Creates a replay starting at the current board of the game.
+     *
+     * @param moves              recorded moves
+     * @param game               game to replay on
+     * @param refreshCallback    called after every step or seek
+     * @param checkpointInterval number of moves between two checkpoints
+     */
+    public GameReplay(List<GameMove> moves, Game game, Runnable refreshCallback, int checkpointInterval) {
         this.moves = moves;
         this.game = game;
         this.refreshCallback = refreshCallback;
+        this.checkpointInterval = Math.max(1, checkpointInterval);
+        this.applied = new byte[game.rows() * game.cols()];
+        buildCheckpoints();
         System.out.println("[Replay] Created with " + moves.size() + " moves.");
     }
 
+    /**
+     * Returns the number of recorded moves.
+     */
+    public int getMoveCount() {
+        return moves.size();
+    }
+
+    /**
+     * Returns the index of the last applied move, -1 at the start.
+     */
+    public int getCurrentMoveIndex() {
+        return currentMoveIndex;
+    }
+
+    /**
+     * Moves the board to the position after the given move (-1 is the start).
+     * Every changed node is turned and notified once and power is propagated once.
+     *
+     * @param moveIndex index of the last move to apply, clamped to the recorded range
+     */
+    public void seek(int moveIndex) {
+        if (isPlayMode) return;
+        int target = Math.max(-1, Math.min(moveIndex, moves.size() - 1));
+        if (target == currentMoveIndex) return;
+
+        byte[] wanted = rotationsAt(target);
+        byte[] delta = new byte[applied.length];
+        boolean changed = false;
+        for (int i = 0; i < applied.length; i++) {
+            delta[i] = (byte) ((wanted[i] - applied[i]) & 3);
+            changed |= delta[i] != 0;
+        }
+        System.arraycopy(wanted, 0, applied, 0, applied.length);
+        currentMoveIndex = target;
+        if (changed) {
+            game.applyRotations(delta);
+        }
+        refreshCallback.run();
+    }
+
     public void stepForward() {
         System.out.println("[Replay] stepForward called. isPlayMode=" + isPlayMode + ", currentMoveIndex=" + currentMoveIndex);
         if (isPlayMode || currentMoveIndex >= moves.size() - 1) {
             System.out.println("[Replay] Skipping stepForward: either in play mode or at end.");
             return;
         }
-        currentMoveIndex++;
-        System.out.println("[Replay] Applying move at index: " + currentMoveIndex);
-        applyMove(moves.get(currentMoveIndex));
-        refreshCallback.run();
+        System.out.println("[Replay] Applying move at index: " + (currentMoveIndex + 1));
+        seek(currentMoveIndex + 1);
     }
 
     public void stepBackward() {
@@ -39,9 +107,7 @@ public class GameReplay {
             return;
         }
         System.out.println("[Replay] Reverting move at index: " + currentMoveIndex);
-        revertMove(moves.get(currentMoveIndex));
-        currentMoveIndex--;
-        refreshCallback.run();
+        seek(currentMoveIndex - 1);
     }
 
     public void switchToPlayMode() {
@@ -58,25 +124,37 @@ public class GameReplay {
 
     }
 
-    private void applyMove(GameMove move) {
-        System.out.println("[Replay] Applying move: (" + move.x + ", " + move.y + ")");
-        GameNode node = game.getGameNode(move.x, move.y);
-        if (node != null) {
-            for (int i = 0; i < move.rotation; i++) {
-                node.turn();
+    /**
+     * Walks the moves once and stores the rotations after every checkpoint interval.
+     */
+    private void buildCheckpoints() {
+        byte[] rotations = new byte[applied.length];
+        checkpoints.add(rotations.clone());
+        for (int i = 0; i < moves.size(); i++) {
+            addMove(rotations, moves.get(i));
+            if ((i + 1) % checkpointInterval == 0) {
+                checkpoints.add(rotations.clone());
             }
-        } else {
-            System.out.println("[Replay] Warning: Node is null in applyMove");
         }
     }
 
-    private void revertMove(GameMove move) {
-        System.out.println("[Replay] Reverting move: (" + move.x + ", " + move.y + ")");
-        GameNode node = game.getGameNode(move.x, move.y);
-        if (node != null) {
-            for (int i = 0; i < 3; i++) node.turn();
-        } else {
-            System.out.println("[Replay] Warning: Node is null in revertMove");
+    /**
+     * Returns the rotations after the given move, starting from the nearest checkpoint.
+     */
+    private byte[] rotationsAt(int moveIndex) {
+        int count = moveIndex + 1;
+        int checkpoint = count / checkpointInterval;
+        byte[] rotations = checkpoints.get(checkpoint).clone();
+        for (int i = checkpoint * checkpointInterval; i < count; i++) {
+            addMove(rotations, moves.get(i));
         }
+        return rotations;
+    }
+
+    private void addMove(byte[] rotations, GameMove move) {
+        // moves outside the board were ignored by the original game as well
+        if (move.x < 1 || move.x > game.rows() || move.y < 1 || move.y > game.cols()) return;
+        int index = (move.x - 1) * game.cols() + (move.y - 1);
+        rotations[index] = (byte) ((rotations[index] + move.rotation) & 3);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,266 @@
+/**
+ * Soubor: src/main/java/ija.ijaProject/game/levels/LevelGenerator.java
+ *
+ * Popis:
+ *  Procedurální generátor řešitelných úrovní libovolné velikosti.
+ *  Vytvoří náhodnou kostru mřížky, ze zdroje vybere cesty k N listům
+ *  (žárovkám) a z nich sestaví uzly L/B/P ve vyřešeném natočení.
+ *
+ * @Author: Yaroslav Hryn (xhryny00),Oleksandr Musiichuk (xmusii00)
+ *
+ */
+
+package ija.ijaProject.game.levels;
+
+import ija.ijaProject.common.Connectors;
+import ija.ijaProject.common.Side;
+import ija.ijaProject.game.CompactBoard;
+import ija.ijaProject.game.solver.BoardSolver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * LevelGenerator builds solvable boards of arbitrary size.
+ * A random spanning tree of the whole grid is grown from the power cell;
+ * N leaves of that tree become bulbs and the union of their paths to the
+ * power cell becomes the wiring. Every link therefore has at least two
+ * connectors, every bulb exactly one, and no connector points off the board,
+ * which matches the {@link ija.ijaProject.game.Game} create*Node contract.
+ * The generated board is returned in its solved orientation.
+ */
+public class LevelGenerator {
+
+    /**
+     * Difficulty knob of the generator.
+     */
+    public static class Difficulty {
+        /** Bushy trees with many short dead ends, most cells forced. */
+        public static final Difficulty EASY = new Difficulty(0.9, 1.0, 1);
+        /** Mixed corridors and branches. */
+        public static final Difficulty MEDIUM = new Difficulty(0.5, 0.75, 4);
+        /** Long winding corridors with few forced cells. */
+        public static final Difficulty HARD = new Difficulty(0.1, 0.2, 4);
+
+        private final double branching;
+        private final double maxForcedRatio;
+        private final int attempts;
+
+        /**
+         * Creates a difficulty setting.
+         *
+         * @param branching      0..1, probability of growing the tree from a random
+         *                       cell instead of the newest one (higher = more branches
+         *                       and dead ends, which tend to force more cells)
+         * @param maxForcedRatio 0..1, accepted share of cells whose orientation is forced
+         *                       without search (lower = harder)
+         * @param attempts       how many boards to try to get below {@code maxForcedRatio}
+         */
+        public Difficulty(double branching, double maxForcedRatio, int attempts) {
+            this.branching = branching;
+            this.maxForcedRatio = maxForcedRatio;
+            this.attempts = Math.max(1, attempts);
+        }
+
+        /** Returns the branching factor (0..1). */
+        public double branching() {
+            return branching;
+        }
+
+        /** Returns the accepted share of forced cells (0..1). */
+        public double maxForcedRatio() {
+            return maxForcedRatio;
+        }
+
+        /** Returns the number of attempts. */
+        public int attempts() {
+            return attempts;
+        }
+    }
+
+    private static final Side[] SIDES = Side.values();
+
+    private final Random random;
+
+    /**
+     * Creates a generator.
+     *
+     * @param random source of randomness
+     */
+    public LevelGenerator(Random random) {
+        this.random = random;
+    }
+
+    /**
+     * Generates a solved board. When the tree has fewer leaves than
+     * {@code bulbs}, all leaves become bulbs.
+     *
+     * @param rows       board rows (>0)
+     * @param cols       board columns (>0)
+     * @param bulbs      requested number of bulbs (>0)
+     * @param difficulty difficulty knob
+     * @return solved board
+     * @throws IllegalArgumentException if the board is too small or {@code bulbs} is not positive
+     */
+    public CompactBoard generate(int rows, int cols, int bulbs, Difficulty difficulty) {
+        if (rows * cols < 2 || bulbs <= 0) {
+            throw new IllegalArgumentException("Invalid generator settings.");
+        }
+
+        CompactBoard best = null;
+        double bestRatio = Double.MAX_VALUE;
+        for (int attempt = 0; attempt < difficulty.attempts(); attempt++) {
+            CompactBoard board = generateOnce(rows, cols, bulbs, difficulty.branching());
+            if (difficulty.maxForcedRatio() >= 1.0) {
+                return board;
+            }
+            double ratio = forcedRatio(board);
+            if (ratio < bestRatio) {
+                best = board;
+                bestRatio = ratio;
+            }
+            if (ratio <= difficulty.maxForcedRatio()) {
+                break;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the share of playable cells whose orientation is forced
+     * by constraint propagation alone.
+     *
+     * @param board solved board
+     * @return ratio 0..1
+     */
+    public static double forcedRatio(CompactBoard board) {
+        int playable = 0;
+        for (int i = 0; i < board.size(); i++) {
+            if (board.isPlayable(i)) playable++;
+        }
+        int forced = new BoardSolver(board).countForcedCells();
+        return playable == 0 || forced < 0 ? 1.0 : (double) forced / playable;
+    }
+
+    /**
+     * Converts a board to the level table format used by {@link GameLevels}
+     * ({@code {"P"|"L"|"B", row, col, Side...}}).
+     *
+     * @param board board to convert
+     * @return level definition
+     */
+    public static Object[][] toDefinition(CompactBoard board) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < board.size(); i++) {
+            if (!board.isPlayable(i)) continue;
+            Side[] sides = Connectors.toSides(board.mask(i));
+            Object[] row = new Object[3 + sides.length];
+            row[0] = switch (board.type(i)) {
+                case CompactBoard.POWER -> "P";
+                case CompactBoard.BULB -> "B";
+                default -> "L";
+            };
+            row[1] = board.row(i);
+            row[2] = board.col(i);
+            System.arraycopy(sides, 0, row, 3, sides.length);
+            rows.add(row);
+        }
+        return rows.toArray(new Object[0][]);
+    }
+
+    /**
+     * Builds one board: spanning tree, bulb leaves and their paths to the power cell.
+     */
+    private CompactBoard generateOnce(int rows, int cols, int bulbs, double branching) {
+        CompactBoard board = new CompactBoard(rows, cols);
+        int size = board.size();
+        int root = random.nextInt(size);
+        byte[] parentSide = growSpanningTree(board, root, branching);
+
+        int[] leaves = new int[size];
+        int leafCount = 0;
+        int[] degree = new int[size];
+        for (int i = 0; i < size; i++) {
+            if (i == root) continue;
+            degree[i]++;
+            degree[board.neighbor(i, SIDES[parentSide[i]])]++;
+        }
+        for (int i = 0; i < size; i++) {
+            if (i != root && degree[i] == 1) leaves[leafCount++] = i;
+        }
+
+        int chosen = Math.min(bulbs, leafCount);
+        for (int k = 0; k < chosen; k++) {
+            int j = k + random.nextInt(leafCount - k);
+            int tmp = leaves[k];
+            leaves[k] = leaves[j];
+            leaves[j] = tmp;
+        }
+
+        int[] masks = new int[size];
+        boolean[] used = new boolean[size];
+        used[root] = true;
+        for (int k = 0; k < chosen; k++) {
+            int cell = leaves[k];
+            while (!used[cell]) {
+                used[cell] = true;
+                Side toParent = SIDES[parentSide[cell]];
+                int parent = board.neighbor(cell, toParent);
+                masks[cell] |= toParent.mask();
+                masks[parent] |= toParent.opposite().mask();
+                cell = parent;
+            }
+        }
+
+        board.set(root, CompactBoard.POWER, masks[root]);
+        for (int k = 0; k < chosen; k++) {
+            board.set(leaves[k], CompactBoard.BULB, masks[leaves[k]]);
+        }
+        for (int i = 0; i < size; i++) {
+            if (used[i] && board.type(i) == CompactBoard.EMPTY) {
+                board.set(i, CompactBoard.LINK, masks[i]);
+            }
+        }
+        board.propagate();
+        return board;
+    }
+
+    /**
+     * Grows a random spanning tree over the whole grid (growing tree algorithm).
+     *
+     * @return for every cell except the root the ordinal of the side pointing to its parent
+     */
+    private byte[] growSpanningTree(CompactBoard board, int root, double branching) {
+        int size = board.size();
+        byte[] parentSide = new byte[size];
+        boolean[] inTree = new boolean[size];
+        int[] active = new int[size];
+        int activeCount = 0;
+        int[] candidates = new int[4];
+
+        inTree[root] = true;
+        active[activeCount++] = root;
+        while (activeCount > 0) {
+            int slot = random.nextDouble() < branching ? random.nextInt(activeCount) : activeCount - 1;
+            int cell = active[slot];
+
+            int options = 0;
+            for (Side side : SIDES) {
+                int n = board.neighbor(cell, side);
+                if (n >= 0 && !inTree[n]) candidates[options++] = side.ordinal();
+            }
+            if (options == 0) {
+                active[slot] = active[--activeCount];
+                continue;
+            }
+
+            Side side = SIDES[candidates[random.nextInt(options)]];
+            int next = board.neighbor(cell, side);
+            inTree[next] = true;
+            parentSide[next] = (byte) side.opposite().ordinal();
+            active[activeCount++] = next;
+        }
+        return parentSide;
+    }
+}
@@ -19,7 +19,8 @@ import java.util.*;
  * It uses the Singleton pattern to ensure a single instance throughout the application.
  */
 public class LevelManager {
-    private static final String SAVE_FILE = "level_progress.dat";
+    private static final String SAVE_FILE = "level_progress" + SaveFormat.EXTENSION;
+    private static final String LEGACY_SAVE_FILE = "level_progress.dat";
     private Set<String> completedLevels = new HashSet<>();
     private static LevelManager instance;
 
@@ -90,8 +91,8 @@ public class LevelManager {
      * Saves progress to file.
      */
     private void saveProgress() {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(SAVE_FILE))) {
-            oos.writeObject(completedLevels);
+        try {
+            SaveFormat.write(new File(SAVE_FILE), SaveFormat.encodeLevelProgress(completedLevels));
             System.out.println("Progress saved: " + completedLevels.size() + " levels completed");
         } catch (IOException e) {
             System.err.println("Error saving progress: " + e.getMessage());
@@ -103,15 +104,16 @@ public class LevelManager {
      */
     private void loadProgress() {
         File file = new File(SAVE_FILE);
+        SaveMigrator.migrateLevelProgress(new File(LEGACY_SAVE_FILE), file);
         if (!file.exists()) {
             System.out.println("No saved progress found, starting fresh");
             return;
         }
 
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
-            completedLevels = (Set<String>) ois.readObject();
+        try {
+            completedLevels = SaveFormat.decodeLevelProgress(SaveFormat.read(file));
             System.out.println("Progress loaded: " + completedLevels.size() + " levels completed");
-        } catch (IOException | ClassNotFoundException e) {
+        } catch (IOException e) {
             System.err.println("Error loading progress: " + e.getMessage());
             completedLevels = new HashSet<>();
         }
@@ -0,0 +1,391 @@
+/**
+ * Soubor: src/main/java/ija.ijaProject/game/levels/LevelPack.java
+ *
+ * Popis:
+ *  Binární balík úrovní. Hlavička, adresář záznamů pevné délky
+ *  (úroveň, obtížnost, rozměry, posun) a pro každé políčko jeden bajt
+ *  (typ a maska konektorů). Soubor se při otevření namapuje do paměti
+ *  a zkontroluje se jen adresář; políčka úrovně se kontrolují až při jejím
+ *  načtení, takže hra se z libovolné úrovně sestaví v čase úměrném počtu
+ *  jejích políček.
+ *
+ * @Author: Yaroslav Hryn (xhryny00),Oleksandr Musiichuk (xmusii00)
+ *
+ */
+
+package ija.ijaProject.game.levels;
+
+import ija.ijaProject.common.Connectors;
+import ija.ijaProject.common.Position;
+import ija.ijaProject.common.Side;
+import ija.ijaProject.game.CompactBoard;
+import ija.ijaProject.game.Game;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * LevelPack is a read-only, memory-mapped pack of level definitions.
+ * <p>
+ * Layout: a 16 byte header ({@code "VMLP"}, version, directory entry size,
+ * level count, reserved) followed by one 16 byte directory entry per level:
+ * offset of the cells (long), level number (short), difficulty (byte),
+ * reserved (byte), rows (short) and columns (short). Entries are sorted by
+ * difficulty and level number, so a level is found by binary search. The cells
+ * of a level are {@code rows * cols} bytes in row-major order, each holding the
+ * {@link CompactBoard} type in the high nibble and the connector mask in the
+ * low nibble.
+ * <p>
+ * Opening a pack checks only the header and the directory, in time proportional
+ * to the number of levels. The cells of a level are checked when
+ * {@link #board(int)} or {@link #game(int)} loads it, and a corrupted level
+ * throws {@link UncheckedIOException} there without affecting the others.
+ * Packs are written by {@link Writer}; {@link LevelPackCompiler} compiles the
+ * built-in levels.
+ */
+public class LevelPack implements Closeable {
+    /** File extension of level packs. */
+    public static final String EXTENSION = ".vmlp";
+    /** Size of one directory entry in bytes. */
+    public static final int ENTRY_SIZE = 16;
+
+    private static final int MAGIC = 0x564D4C50; // "VMLP"
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final ByteBuffer data;
+    private final int count;
+
+    private LevelPack(Path path, FileChannel channel, ByteBuffer data, int count) {
+        this.path = path;
+        this.channel = channel;
+        this.data = data;
+        this.count = count;
+    }
+
+    /**
+     * Maps a pack into memory and validates its header and directory.
+     *
+     * @param path pack file
+     * @return open pack
+     * @throws IOException if the file cannot be read or is not a valid pack
+     */
+    public static LevelPack open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("Not a level pack: " + path);
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Level pack too large: " + path);
+            }
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (data.getInt(0) != MAGIC || data.getShort(4) != VERSION || data.getShort(6) != ENTRY_SIZE) {
+                throw new IOException("Not a level pack: " + path);
+            }
+            int count = data.getInt(8);
+            if (count < 0 || HEADER_SIZE + (long) count * ENTRY_SIZE > size) {
+                throw new IOException("Corrupted level pack directory: " + path);
+            }
+            LevelPack pack = new LevelPack(path, channel, data, count);
+            pack.checkDirectory(size);
+            return pack;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** Returns the pack file. */
+    public Path getPath() {
+        return path;
+    }
+
+    /** Returns the number of levels in the pack. */
+    public int size() {
+        return count;
+    }
+
+    /** Returns the level number of the entry. */
+    public int levelNumber(int entry) {
+        return data.getShort(entryOffset(entry) + 8);
+    }
+
+    /** Returns the difficulty of the entry. */
+    public int difficulty(int entry) {
+        return data.get(entryOffset(entry) + 10);
+    }
+
+    /** Returns the number of rows of the entry. */
+    public int rows(int entry) {
+        return data.getShort(entryOffset(entry) + 12);
+    }
+
+    /** Returns the number of columns of the entry. */
+    public int cols(int entry) {
+        return data.getShort(entryOffset(entry) + 14);
+    }
+
+    /**
+     * Finds a level by binary search over the directory.
+     *
+     * @param levelNumber level number
+     * @param difficulty  difficulty
+     * @return entry index, or -1 if the pack does not contain the level
+     */
+    public int find(int levelNumber, int difficulty) {
+        long key = key(difficulty, levelNumber);
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midKey = key(difficulty(mid), levelNumber(mid));
+            if (midKey < key) {
+                low = mid + 1;
+            } else if (midKey > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Decodes the cells of one level.
+     *
+     * @param entry entry index
+     * @return board in the defined (solved) orientation, power not propagated
+     * @throws UncheckedIOException if the cells of the level are corrupted
+     */
+    public CompactBoard board(int entry) {
+        checkCells(entry);
+        int rows = rows(entry);
+        int cols = cols(entry);
+        int offset = (int) data.getLong(entryOffset(entry));
+        CompactBoard board = new CompactBoard(rows, cols);
+        for (int i = 0; i < rows * cols; i++) {
+            int cell = data.get(offset + i);
+            byte type = (byte) ((cell >> 4) & 0x3);
+            if (type != CompactBoard.EMPTY) {
+                board.set(i, type, cell & Connectors.ALL);
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Builds an initialized game from one level, straight from the mapped cells.
+     *
+     * @param entry entry index
+     * @return game in the defined (solved) orientation
+     * @throws UncheckedIOException if the cells of the level are corrupted
+     */
+    public Game game(int entry) {
+        checkCells(entry);
+        int rows = rows(entry);
+        int cols = cols(entry);
+        int offset = (int) data.getLong(entryOffset(entry));
+        Game game = Game.create(rows, cols);
+        boolean hasPower = false;
+        boolean hasBulb = false;
+        for (int i = 0; i < rows * cols; i++) {
+            int cell = data.get(offset + i);
+            int type = (cell >> 4) & 0x3;
+            if (type == CompactBoard.EMPTY) continue;
+            Side[] sides = Connectors.toSides(cell & Connectors.ALL);
+            Position p = new Position(i / cols + 1, i % cols + 1);
+            switch (type) {
+                case CompactBoard.LINK -> game.createLinkNode(p, sides);
+                case CompactBoard.BULB -> {
+                    game.createBulbNode(p, sides[0]);
+                    hasBulb = true;
+                }
+                case CompactBoard.POWER -> {
+                    game.createPowerNode(p, sides);
+                    hasPower = true;
+                }
+                default -> { }
+            }
+        }
+        if (hasPower && hasBulb) {
+            game.init();
+        }
+        return game;
+    }
+
+    /**
+     * Closes the file. The mapping itself is released by the garbage collector.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private int entryOffset(int entry) {
+        if (entry < 0 || entry >= count) {
+            throw new IndexOutOfBoundsException("Level entry " + entry + " of " + count);
+        }
+        return HEADER_SIZE + entry * ENTRY_SIZE;
+    }
+
+    /** Checks that entries are sorted and that all cells lie inside the file. */
+    private void checkDirectory(long size) throws IOException {
+        long previous = Long.MIN_VALUE;
+        for (int entry = 0; entry < count; entry++) {
+            long key = key(difficulty(entry), levelNumber(entry));
+            int rows = rows(entry);
+            int cols = cols(entry);
+            long offset = data.getLong(entryOffset(entry));
+            if (key <= previous || rows <= 0 || cols <= 0
+                    || offset < HEADER_SIZE + (long) count * ENTRY_SIZE
+                    || offset + (long) rows * cols > size) {
+                throw new IOException("Corrupted level pack entry " + entry + ": " + path);
+            }
+            previous = key;
+        }
+    }
+
+    /**
+     * Checks the cells of one level: unused bits are zero, an empty cell has no
+     * connectors, a bulb has exactly one, a power source at least one, a link
+     * at least two, and the level has at most one power source.
+     */
+    private void checkCells(int entry) {
+        int offset = (int) data.getLong(entryOffset(entry));
+        int cols = cols(entry);
+        int cells = rows(entry) * cols;
+        boolean power = false;
+        for (int i = 0; i < cells; i++) {
+            int cell = data.get(offset + i) & 0xFF;
+            int type = cell >> 4;
+            int connectors = Connectors.count(cell & Connectors.ALL);
+            boolean valid = switch (type) {
+                case CompactBoard.EMPTY -> connectors == 0;
+                case CompactBoard.LINK -> connectors >= 2;
+                case CompactBoard.BULB -> connectors == 1;
+                case CompactBoard.POWER -> connectors >= 1 && !power;
+                default -> false;
+            };
+            if (!valid) {
+                throw new UncheckedIOException(new IOException("Corrupted level pack cell " + (i / cols + 1) + ","
+                        + (i % cols + 1) + " of entry " + entry + ": " + path));
+            }
+            if (type == CompactBoard.POWER) power = true;
+        }
+    }
+
+    private static long key(int difficulty, int levelNumber) {
+        return ((long) difficulty << 32) | (levelNumber & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Collects levels and writes them as a pack.
+     */
+    public static class Writer {
+        private final List<Level> levels = new ArrayList<>();
+        private final Set<Long> keys = new HashSet<>();
+
+        /**
+         * Adds a level.
+         *
+         * @param levelNumber level number (0..32767)
+         * @param difficulty  difficulty (0..127)
+         * @param board       level in its defined orientation
+         * @return this writer
+         * @throws IllegalArgumentException if the level is out of range or already added
+         */
+        public Writer add(int levelNumber, int difficulty, CompactBoard board) {
+            if (levelNumber < 0 || levelNumber > Short.MAX_VALUE || difficulty < 0 || difficulty > Byte.MAX_VALUE
+                    || board.rows() > Short.MAX_VALUE || board.cols() > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Level out of range: " + levelNumber + "/" + difficulty);
+            }
+            if (!keys.add(key(difficulty, levelNumber))) {
+                throw new IllegalArgumentException("Duplicate level: " + levelNumber + "/" + difficulty);
+            }
+            byte[] cells = new byte[board.size()];
+            for (int i = 0; i < cells.length; i++) {
+                cells[i] = (byte) ((board.type(i) << 4) | board.mask(i));
+            }
+            levels.add(new Level(levelNumber, difficulty, board.rows(), board.cols(), cells));
+            return this;
+        }
+
+        /** Returns the number of added levels. */
+        public int size() {
+            return levels.size();
+        }
+
+        /**
+         * Writes the pack atomically (temporary file and rename).
+         *
+         * @param path target file
+         * @throws IOException on write failure
+         */
+        public void write(Path path) throws IOException {
+            levels.sort(Comparator.<Level>comparingInt(l -> l.difficulty).thenComparingInt(l -> l.number));
+
+            long cellBytes = 0;
+            for (Level level : levels) {
+                cellBytes += level.cells.length;
+            }
+            long directoryEnd = HEADER_SIZE + (long) levels.size() * ENTRY_SIZE;
+            if (directoryEnd + cellBytes > Integer.MAX_VALUE) {
+                throw new IOException("Level pack too large");
+            }
+
+            ByteBuffer out = ByteBuffer.allocate((int) (directoryEnd + cellBytes));
+            out.putInt(MAGIC).putShort(VERSION).putShort((short) ENTRY_SIZE).putInt(levels.size()).putInt(0);
+            long offset = directoryEnd;
+            for (Level level : levels) {
+                out.putLong(offset)
+                        .putShort((short) level.number)
+                        .put((byte) level.difficulty)
+                        .put((byte) 0)
+                        .putShort((short) level.rows)
+                        .putShort((short) level.cols);
+                offset += level.cells.length;
+            }
+            for (Level level : levels) {
+                out.put(level.cells);
+            }
+
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            ProgressSnapshotWriter.writeAtomically(path.toFile(), out.array());
+        }
+
+        private static final class Level {
+            private final int number;
+            private final int difficulty;
+            private final int rows;
+            private final int cols;
+            private final byte[] cells;
+
+            private Level(int number, int difficulty, int rows, int cols, byte[] cells) {
+                this.number = number;
+                this.difficulty = difficulty;
+                this.rows = rows;
+                this.cols = cols;
+                this.cells = cells;
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * Soubor: src/main/java/ija.ijaProject/game/levels/LevelPackCompiler.java
+ *
+ * Popis:
+ *  Bezhlavý (bez UI) překladač vestavěných úrovní. Převede všech 30
+ *  tabulek z GameLevels do binárního balíku úrovní (LevelPack),
+ *  balík znovu otevře a ověří, že každá úroveň odpovídá tabulce.
+ *
+ *  Spuštění: java ija.ijaProject.game.levels.LevelPackCompiler [výstup.vmlp]
+ *
+ * @Author: Yaroslav Hryn (xhryny00),Oleksandr Musiichuk (xmusii00)
+ *
+ */
+
+package ija.ijaProject.game.levels;
+
+import ija.ijaProject.game.CompactBoard;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Compiles the built-in level tables of {@link GameLevels} into a {@link LevelPack}
+ * and verifies the written pack cell by cell.
+ */
+public class LevelPackCompiler {
+    /** Default output file. */
+    public static final String DEFAULT_OUTPUT = "levels/builtin" + LevelPack.EXTENSION;
+
+    /**
+     * Entry point.
+     *
+     * @param args optionally the output file
+     */
+    public static void main(String[] args) {
+        Path output = Paths.get(args.length > 0 ? args[0] : DEFAULT_OUTPUT);
+        try {
+            int count = compile(output);
+            System.out.println("[LevelPack] Compiled " + count + " levels to " + output
+                    + " (" + Files.size(output) + " bytes)");
+        } catch (IOException | UncheckedIOException | IllegalStateException e) {
+            System.err.println("[LevelPack] Compilation failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Compiles the built-in levels and verifies the result.
+     *
+     * @param output output file
+     * @return number of compiled levels
+     * @throws IOException           on write or read failure
+     * @throws UncheckedIOException  if a written level cannot be read back
+     * @throws IllegalStateException if the written pack differs from the tables
+     */
+    public static int compile(Path output) throws IOException {
+        LevelPack.Writer writer = new LevelPack.Writer();
+        for (int difficulty = 0; difficulty < GameLevels.DIFFICULTY_COUNT; difficulty++) {
+            for (int level = 1; level <= GameLevels.LEVELS_PER_DIFFICULTY; level++) {
+                writer.add(level, difficulty, builtin(level, difficulty));
+            }
+        }
+        writer.write(output);
+
+        try (LevelPack pack = LevelPack.open(output)) {
+            for (int difficulty = 0; difficulty < GameLevels.DIFFICULTY_COUNT; difficulty++) {
+                for (int level = 1; level <= GameLevels.LEVELS_PER_DIFFICULTY; level++) {
+                    int entry = pack.find(level, difficulty);
+                    if (entry < 0 || !sameCells(builtin(level, difficulty), pack.board(entry))) {
+                        throw new IllegalStateException("Level " + level + "/" + difficulty + " differs in " + output);
+                    }
+                }
+            }
+            return pack.size();
+        }
+    }
+
+    private static CompactBoard builtin(int level, int difficulty) {
+        return CompactBoard.fromGame(GameLevels.createBuiltinLevelGame(level, difficulty));
+    }
+
+    private static boolean sameCells(CompactBoard a, CompactBoard b) {
+        if (a.rows() != b.rows() || a.cols() != b.cols()) return false;
+        for (int i = 0; i < a.size(); i++) {
+            if (a.type(i) != b.type(i) || a.mask(i) != b.mask(i)) return false;
+        }
+        return true;
+    }
+}
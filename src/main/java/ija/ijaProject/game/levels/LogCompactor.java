@@ -0,0 +1,208 @@
+/**
+ * Soubor: src/main/java/ija.ijaProject/game/levels/LogCompactor.java
+ *
+ * Popis:
+ *  Údržba záznamů tahů na pozadí. Pro každou úroveň a obtížnost ponechá
+ *  posledních N logů, starší přesune do komprimovaného archivu a archiv
+ *  omezí na pevný počet her, takže adresář game_states neroste bez omezení.
+ *
+ * @Author: Yaroslav Hryn (xhryny00),Oleksandr Musiichuk (xmusii00)
+ *
+ */
+
+package ija.ijaProject.game.levels;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * LogCompactor keeps the newest {@link #getKeepLatest() N} move journals of each
+ * level and difficulty and folds the older ones into one Deflate-compressed
+ * {@code archive_L_D.sav} segment ({@link SaveFormat#KIND_LOG_ARCHIVE}). The
+ * archive itself holds at most {@link #getMaxArchived()} logs; the oldest are
+ * dropped first. Compaction runs on a single daemon thread, and the archive is
+ * read back before any journal is deleted, so an interrupted run never loses a
+ * log. The latest log of a level (the one that may be open for writing) is
+ * never compacted.
+ */
+public class LogCompactor {
+    /** Default number of journals kept per level and difficulty. */
+    public static final int DEFAULT_KEEP_LATEST = 5;
+    /** Default number of logs kept in an archive. */
+    public static final int DEFAULT_MAX_ARCHIVED = 100;
+
+    private final File saveDir;
+    private final SaveIndex saveIndex;
+    private final ExecutorService executor;
+    private volatile int keepLatest = DEFAULT_KEEP_LATEST;
+    private volatile int maxArchived = DEFAULT_MAX_ARCHIVED;
+
+    /**
+     * Creates a compactor with its own daemon thread.
+     *
+     * @param saveDir   directory with the move journals
+     * @param saveIndex index of the journals, updated after each compaction
+     */
+    public LogCompactor(File saveDir, SaveIndex saveIndex) {
+        this.saveDir = saveDir;
+        this.saveIndex = saveIndex;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "log-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /** Returns the number of journals kept per level and difficulty. */
+    public int getKeepLatest() {
+        return keepLatest;
+    }
+
+    /**
+     * Sets the number of journals kept per level and difficulty (at least 1).
+     */
+    public void setKeepLatest(int keepLatest) {
+        this.keepLatest = Math.max(1, keepLatest);
+    }
+
+    /** Returns the number of logs kept in an archive. */
+    public int getMaxArchived() {
+        return maxArchived;
+    }
+
+    /**
+     * Sets the number of logs kept in an archive; 0 disables archiving (old logs are deleted).
+     */
+    public void setMaxArchived(int maxArchived) {
+        this.maxArchived = Math.max(0, maxArchived);
+    }
+
+    /**
+     * Schedules compaction of one level on the background thread.
+     */
+    public void compactAsync(int level, int difficulty) {
+        try {
+            executor.execute(() -> compact(level, difficulty));
+        } catch (RuntimeException e) {
+            System.err.println("Error scheduling log compaction: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Schedules compaction of every level whose index entry exceeds the retention limit.
+     */
+    public void compactAllAsync() {
+        try {
+            executor.execute(() -> {
+                for (SaveIndex.Entry entry : saveIndex.entries()) {
+                    compact(entry.level(), entry.difficulty());
+                }
+            });
+        } catch (RuntimeException e) {
+            System.err.println("Error scheduling log compaction: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Compacts one level on the calling thread.
+     *
+     * @return number of journals moved to the archive or deleted
+     */
+    public synchronized int compact(int level, int difficulty) {
+        SaveIndex.Entry entry = saveIndex.entry(level, difficulty);
+        if (entry == null || entry.logCount() <= keepLatest) return 0;
+
+        String prefix = "moves_" + level + "_" + difficulty + "_";
+        File[] logs = saveDir.listFiles((dir, name) -> name.startsWith(prefix) && name.endsWith(MoveJournal.EXTENSION));
+        if (logs == null || logs.length <= keepLatest) return 0;
+
+        List<File> ordered = new ArrayList<>(List.of(logs));
+        ordered.sort(Comparator.comparingLong(File::lastModified).thenComparing(File::getName));
+        List<File> old = new ArrayList<>(ordered.subList(0, ordered.size() - keepLatest));
+        old.removeIf(log -> log.getName().equals(entry.latestLog()));
+        if (old.isEmpty()) return 0;
+
+        try {
+            if (maxArchived > 0) {
+                archive(level, difficulty, old);
+            }
+        } catch (IOException e) {
+            System.err.println("Error archiving move logs: " + e.getMessage());
+            return 0;
+        }
+
+        int removed = 0;
+        long removedBytes = 0;
+        for (File log : old) {
+            long size = log.length();
+            if (log.delete()) {
+                removed++;
+                removedBytes += size;
+            }
+        }
+        saveIndex.logsRemoved(level, difficulty, removed, removedBytes);
+        return removed;
+    }
+
+    /**
+     * Reads the archived logs of a level.
+     *
+     * @return log names mapped to their moves, oldest first; empty if there is no archive
+     */
+    public Map<String, List<GameMove>> readArchive(int level, int difficulty) {
+        File file = archiveFile(level, difficulty);
+        if (!file.exists()) return Collections.emptyMap();
+        try {
+            return SaveFormat.decodeLogArchive(SaveFormat.read(file));
+        } catch (IOException e) {
+            System.err.println("Error loading move archive: " + e.getMessage());
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Stops the background thread; compactions already scheduled still run.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private void archive(int level, int difficulty, List<File> logs) throws IOException {
+        File file = archiveFile(level, difficulty);
+        Map<String, List<GameMove>> archived = new LinkedHashMap<>();
+        if (file.exists()) {
+            try {
+                archived.putAll(SaveFormat.decodeLogArchive(SaveFormat.read(file)));
+            } catch (IOException e) {
+                // a damaged archive is replaced, the journals are still intact
+                System.err.println("Replacing unreadable move archive: " + e.getMessage());
+            }
+        }
+        for (File log : logs) {
+            archived.put(log.getName(), MoveJournal.readAll(log.toPath()));
+        }
+        Iterator<String> oldest = archived.keySet().iterator();
+        while (archived.size() > maxArchived && oldest.hasNext()) {
+            oldest.next();
+            oldest.remove();
+        }
+
+        SaveFormat.write(file, SaveFormat.encodeLogArchive(archived));
+        if (SaveFormat.decodeLogArchive(SaveFormat.read(file)).size() != archived.size()) {
+            throw new IOException("Written archive does not match.");
+        }
+    }
+
+    private File archiveFile(int level, int difficulty) {
+        return new File(saveDir, "archive_" + level + "_" + difficulty + SaveFormat.EXTENSION);
+    }
+}
@@ -0,0 +1,470 @@
+/**
+ * Soubor: src/main/java/ija.ijaProject/game/levels/MoveJournal.java
+ *
+ * Popis:
+ *  Binární žurnál tahů, do kterého se tahy pouze připisují na konec.
+ *  Každý tah je záznam pevné délky (řádek, sloupec, otočení, čas, CRC),
+ *  takže jeden tah stojí jeden zápis konstantní velikosti. Po pádu
+ *  aplikace se neúplný nebo poškozený konec souboru při otevření odřízne.
+ *
+ * @Author: Yaroslav Hryn (xhryny00),Oleksandr Musiichuk (xmusii00)
+ *
+ */
+
+package ija.ijaProject.game.levels;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * MoveJournal is an append-only log of moves with fixed-size binary records,
+ * written through a {@link FileChannel}.
+ * <p>
+ * Layout: an 8 byte header ({@code "VMJ1"}, version, record size) followed by
+ * 20 byte records: row (short), column (short), rotation (int), timestamp (long)
+ * and a CRC32 of the preceding 16 bytes (int). When a journal is opened, a torn
+ * or corrupted tail left by a crash is truncated back to the last valid record.
+ * Records are flushed to disk according to a {@link SyncPolicy}. The record
+ * limit is checked on append; the time limit is enforced by a background sync,
+ * so records are not left unsynced when the player stops making moves.
+ */
+public class MoveJournal implements Closeable {
+    /** File extension of move journals. */
+    public static final String EXTENSION = ".vmj";
+    /** Size of one record in bytes. */
+    public static final int RECORD_SIZE = 20;
+
+    private static final int MAGIC = 0x564D4A31; // "VMJ1"
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int READ_BATCH = 256;
+
+    /** Background thread that forces journals whose time limit ran out. */
+    private static final ScheduledExecutorService SYNCER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "journal-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * When appended records are forced to disk: after a number of records
+     * (checked on append) or when the oldest unsynced record reaches an age
+     * (checked on append and by a background sync), and always on close.
+     */
+    public static class SyncPolicy {
+        /** Force every record (safest, slowest). */
+        public static final SyncPolicy ALWAYS = new SyncPolicy(1, 0);
+        /** Force after 32 records or one second, whichever comes first. */
+        public static final SyncPolicy BATCHED = new SyncPolicy(32, 1000);
+        /** Leave flushing to the operating system; force only on close. */
+        public static final SyncPolicy ON_CLOSE = new SyncPolicy(Integer.MAX_VALUE, Long.MAX_VALUE);
+
+        private final int maxRecords;
+        private final long maxMillis;
+
+        /**
+         * Creates a policy.
+         *
+         * @param maxRecords force after this many unsynced records
+         * @param maxMillis  force when the oldest unsynced record is older than this
+         */
+        public SyncPolicy(int maxRecords, long maxMillis) {
+            this.maxRecords = Math.max(1, maxRecords);
+            this.maxMillis = Math.max(0, maxMillis);
+        }
+
+        boolean shouldSync(int unsynced, long unsyncedSinceMillis, long now) {
+            return unsynced >= maxRecords || now - unsyncedSinceMillis >= maxMillis;
+        }
+
+        /** Whether the time limit needs a background sync. */
+        boolean hasTimeLimit() {
+            return maxMillis > 0 && maxMillis < Long.MAX_VALUE;
+        }
+    }
+
+    private final Path path;
+    private final FileChannel channel;
+    private final SyncPolicy policy;
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+    private final CRC32 crc = new CRC32();
+    private long count;
+    private int unsynced = 0;
+    private long unsyncedSince = 0;
+    private ScheduledFuture<?> pendingSync;
+
+    private MoveJournal(Path path, FileChannel channel, SyncPolicy policy, long count) {
+        this.path = path;
+        this.channel = channel;
+        this.policy = policy;
+        this.count = count;
+    }
+
+    /**
+     * Creates a new, empty journal. Fails if the file already exists, so a new
+     * session can never append to the records of an older one.
+     *
+     * @param path   journal file
+     * @param policy sync policy
+     * @return open journal
+     * @throws java.nio.file.FileAlreadyExistsException if the file exists
+     * @throws IOException if the file cannot be created
+     */
+    public static MoveJournal create(Path path, SyncPolicy policy) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            writeHeader(channel);
+            return new MoveJournal(path, channel, policy, 0);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens a journal for appending, creating it if it does not exist.
+     * A torn or corrupted tail is truncated.
+     *
+     * @param path   journal file
+     * @param policy sync policy
+     * @return open journal
+     * @throws IOException if the file cannot be opened or is not a journal
+     */
+    public static MoveJournal open(Path path, SyncPolicy policy) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long count;
+            if (channel.size() < HEADER_SIZE) {
+                writeHeader(channel);
+                count = 0;
+            } else {
+                checkHeader(channel);
+                count = recoverTail(channel);
+            }
+            return new MoveJournal(path, channel, policy, count);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Appends one move.
+     *
+     * @param row      row of the rotated node
+     * @param col      column of the rotated node
+     * @param rotation rotation of the move
+     * @param timestamp time of the move in milliseconds
+     * @throws IOException on write failure
+     */
+    public synchronized void append(int row, int col, int rotation, long timestamp) throws IOException {
+        record.clear();
+        record.putShort((short) row).putShort((short) col).putInt(rotation).putLong(timestamp);
+        crc.reset();
+        crc.update(record.array(), 0, RECORD_SIZE - 4);
+        record.putInt((int) crc.getValue()).flip();
+        writeFully(channel, record, HEADER_SIZE + count * RECORD_SIZE);
+        count++;
+
+        long now = System.currentTimeMillis();
+        if (unsynced++ == 0) {
+            unsyncedSince = now;
+        }
+        if (policy.shouldSync(unsynced, unsyncedSince, now)) {
+            sync();
+        } else if (pendingSync == null && policy.hasTimeLimit()) {
+            scheduleSync(policy.maxMillis - (now - unsyncedSince));
+        }
+    }
+
+    /**
+     * Appends one move.
+     *
+     * @param move move to append
+     * @throws IOException on write failure
+     */
+    public void append(GameMove move) throws IOException {
+        append(move.x, move.y, move.rotation, move.timestamp);
+    }
+
+    /**
+     * Drops all records after the first {@code records} ones.
+     *
+     * @param records number of records to keep
+     * @throws IOException on write failure
+     */
+    public synchronized void truncate(long records) throws IOException {
+        if (records >= count) return;
+        count = Math.max(0, records);
+        channel.truncate(HEADER_SIZE + count * RECORD_SIZE);
+        sync();
+    }
+
+    /**
+     * Forces all appended records to disk.
+     *
+     * @throws IOException on failure
+     */
+    public synchronized void sync() throws IOException {
+        channel.force(false);
+        unsynced = 0;
+        if (pendingSync != null) {
+            pendingSync.cancel(false);
+            pendingSync = null;
+        }
+    }
+
+    /** Returns the number of records in the journal. */
+    public synchronized long size() {
+        return count;
+    }
+
+    /** Returns the journal file. */
+    public Path path() {
+        return path;
+    }
+
+    /**
+     * Syncs outstanding records and closes the journal.
+     *
+     * @throws IOException on failure
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            if (unsynced > 0) sync();
+        } finally {
+            if (pendingSync != null) {
+                pendingSync.cancel(false);
+                pendingSync = null;
+            }
+            channel.close();
+        }
+    }
+
+    /**
+     * Schedules a background sync for when the time limit of the oldest
+     * unsynced record runs out.
+     */
+    private void scheduleSync(long delayMillis) {
+        try {
+            pendingSync = SYNCER.schedule(this::syncIfDue, Math.max(0, delayMillis), TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            // plánovač není k dispozici, zbývá synchronizace při dalším zápisu nebo zavření
+            pendingSync = null;
+        }
+    }
+
+    /** Background sync: forces the records if the time limit ran out. */
+    private synchronized void syncIfDue() {
+        pendingSync = null;
+        if (unsynced == 0 || !channel.isOpen()) return;
+        long age = System.currentTimeMillis() - unsyncedSince;
+        if (age < policy.maxMillis) {
+            scheduleSync(policy.maxMillis - age);
+            return;
+        }
+        try {
+            sync();
+        } catch (IOException e) {
+            System.err.println("Error syncing move journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Opens a lazy reader over a journal. Records are read in small batches
+     * as the iteration advances, a torn tail is ignored.
+     *
+     * @param path journal file
+     * @return reader, must be closed
+     * @throws IOException if the file cannot be opened or is not a journal
+     */
+    public static Reader reader(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            checkHeader(channel);
+            return new Reader(channel, (channel.size() - HEADER_SIZE) / RECORD_SIZE);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads all valid moves of a journal.
+     *
+     * @param path journal file
+     * @return list of moves
+     * @throws IOException on read failure
+     */
+    public static List<GameMove> readAll(Path path) throws IOException {
+        try (Reader reader = reader(path)) {
+            List<GameMove> moves = new ArrayList<>((int) Math.min(reader.records, Integer.MAX_VALUE));
+            while (reader.hasNext()) {
+                moves.add(reader.next());
+            }
+            return moves;
+        }
+    }
+
+    /**
+     * Lazy, forward-only reader over journal records. Stops at the first
+     * record whose checksum does not match and closes itself once exhausted.
+     */
+    public static class Reader implements Iterator<GameMove>, Closeable {
+        private final FileChannel channel;
+        private final long records;
+        private final ByteBuffer buffer = ByteBuffer.allocate(READ_BATCH * RECORD_SIZE);
+        private final CRC32 crc = new CRC32();
+        private long index = 0;
+        private GameMove next;
+
+        private Reader(FileChannel channel, long records) {
+            this.channel = channel;
+            this.records = records;
+            buffer.limit(0);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                next = readNext();
+            }
+            return next != null;
+        }
+
+        @Override
+        public GameMove next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            GameMove move = next;
+            next = null;
+            return move;
+        }
+
+        private GameMove readNext() {
+            if (index >= records) {
+                closeQuietly();
+                return null;
+            }
+            try {
+                if (buffer.remaining() < RECORD_SIZE) {
+                    int batch = (int) Math.min(READ_BATCH, records - index);
+                    buffer.clear().limit(batch * RECORD_SIZE);
+                    readFully(channel, buffer, HEADER_SIZE + index * RECORD_SIZE);
+                    buffer.flip();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            int start = buffer.position();
+            if (!validRecord(buffer.array(), start, crc)) {
+                index = records;
+                closeQuietly();
+                return null;
+            }
+            GameMove move = new GameMove(buffer.getShort(), buffer.getShort(), buffer.getInt(), buffer.getLong());
+            buffer.getInt();
+            index++;
+            return move;
+        }
+
+        private void closeQuietly() {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Truncates the file and writes an empty journal header.
+     */
+    private static void writeHeader(FileChannel channel) throws IOException {
+        channel.truncate(0);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putShort(VERSION).putShort((short) RECORD_SIZE).flip();
+        writeFully(channel, header, 0);
+        channel.force(true);
+    }
+
+    /**
+     * Validates the header of a journal.
+     */
+    private static void checkHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        readFully(channel, header, 0);
+        header.flip();
+        if (header.getInt() != MAGIC || header.getShort() != VERSION || header.getShort() != RECORD_SIZE) {
+            throw new IOException("Not a move journal.");
+        }
+    }
+
+    /**
+     * Cuts off an incomplete last record and trailing records with a bad checksum.
+     *
+     * @return number of valid records
+     */
+    private static long recoverTail(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long count = (size - HEADER_SIZE) / RECORD_SIZE;
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+        CRC32 crc = new CRC32();
+        while (count > 0) {
+            buffer.clear();
+            readFully(channel, buffer, HEADER_SIZE + (count - 1) * RECORD_SIZE);
+            if (validRecord(buffer.array(), 0, crc)) break;
+            count--;
+        }
+        long validSize = HEADER_SIZE + count * RECORD_SIZE;
+        if (validSize != size) {
+            System.err.println("[Journal] Recovered torn tail: " + (size - validSize) + " bytes dropped");
+            channel.truncate(validSize);
+            channel.force(true);
+        }
+        return count;
+    }
+
+    private static boolean validRecord(byte[] data, int offset, CRC32 crc) {
+        crc.reset();
+        crc.update(data, offset, RECORD_SIZE - 4);
+        int stored = ByteBuffer.wrap(data, offset + RECORD_SIZE - 4, 4).getInt();
+        return stored == (int) crc.getValue();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) throw new IOException("Unexpected end of journal.");
+            position += read;
+        }
+    }
+}
@@ -18,6 +18,7 @@ import ija.ijaProject.common.Position;
 import ija.ijaProject.game.Game;
 
 import java.io.*;
+import java.nio.file.FileAlreadyExistsException;
 import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.function.Function;
@@ -33,15 +34,42 @@ public class NodeStateManager {
     private final String saveDir = "game_states";
     private List<GameMove> currentGameMoves;
     private String currentGameLogPath;
+    private MoveJournal currentJournal;
+    private int currentLogLevel;
+    private int currentLogDifficulty;
+    private final SaveIndex saveIndex;
+    private final LogCompactor logCompactor;
+    private MoveJournal.SyncPolicy journalSyncPolicy = MoveJournal.SyncPolicy.BATCHED;
     private boolean isReplayMode = false;
+    private final ProgressSnapshotWriter progressWriter =
+            new ProgressSnapshotWriter(ProgressSnapshotWriter.DEFAULT_INTERVAL_MILLIS);
+    private ProgressSnapshot progressSnapshot;
 
 
     public void setReplayMode(boolean replayMode) {
         this.isReplayMode = replayMode;
     }
 
+    public boolean isReplayMode() {
+        return isReplayMode;
+    }
+
+    /**
+     * Sets when logged moves are forced to disk (applies to journals opened afterwards).
+     */
+    public void setJournalSyncPolicy(MoveJournal.SyncPolicy policy) {
+        this.journalSyncPolicy = policy;
+    }
+
     private NodeStateManager() {
         new File(saveDir).mkdirs();
+        int migrated = SaveMigrator.migrateSaveDir(new File(saveDir));
+        saveIndex = SaveIndex.load(new File(saveDir));
+        if (migrated > 0) {
+            saveIndex.rebuild();
+        }
+        logCompactor = new LogCompactor(new File(saveDir), saveIndex);
+        logCompactor.compactAllAsync();
     }
 
     public static synchronized NodeStateManager getInstance() {
@@ -52,12 +80,19 @@ public class NodeStateManager {
     }
 
     public boolean hasSavedProgress(int levelNumber, int difficulty) {
-        return initialStateExists(levelNumber, difficulty);
+        return scrambleExists(levelNumber, difficulty) || initialStateExists(levelNumber, difficulty);
+    }
+
+    private boolean scrambleExists(int levelNumber, int difficulty) {
+        return scrambleFile(levelNumber, difficulty).exists();
+    }
+
+    private File scrambleFile(int levelNumber, int difficulty) {
+        return new File(saveDir + "/scramble_" + levelNumber + "_" + difficulty + SaveFormat.EXTENSION);
     }
 
     private boolean initialStateExists(int levelNumber, int difficulty) {
-        File file = new File(saveDir + "/initial_" + levelNumber + "_" + difficulty + ".dat");
-        return file.exists();
+        return stateFile("initial_", levelNumber, difficulty).exists();
     }
 
 
@@ -66,19 +101,111 @@ public class NodeStateManager {
     }
 
 
+    /**
+     * Saves the scramble (seed and per-cell rotations) a level was started from.
+     */
+    public void saveScramble(int level, int difficulty, ScrambleDescriptor scramble) {
+        try {
+            SaveFormat.write(scrambleFile(level, difficulty), SaveFormat.encodeScramble(scramble));
+        } catch (IOException e) {
+            System.err.println("Error saving scramble: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Loads the scramble a level was started from.
+     *
+     * @return the descriptor, or null if none was saved or it cannot be read
+     */
+    public ScrambleDescriptor loadScramble(int level, int difficulty) {
+        File file = scrambleFile(level, difficulty);
+        if (!file.exists()) return null;
+
+        try {
+            return SaveFormat.decodeScramble(SaveFormat.read(file));
+        } catch (IOException e) {
+            System.err.println("Error loading scramble: " + e.getMessage());
+            return null;
+        }
+    }
+
     public void savePlayerProgress(int level, int difficulty, Game game) {
         saveState("progress_", level, difficulty, game);
     }
 
+    /**
+     * Notes that the player's progress changed. The rotation counts of all
+     * nodes are copied on the calling thread; the snapshot is written
+     * asynchronously, at most once per snapshot interval.
+     */
+    public void markProgressDirty(int level, int difficulty, Game game) {
+        markProgressDirty(level, difficulty, game, null);
+    }
+
+    /**
+     * Notes that one node of the player's game changed. Its rotation count is
+     * copied on the calling thread (the EDT or the replay thread), so the writer
+     * thread never reads the live game; only the first call for a game copies
+     * all nodes. The snapshot is written asynchronously, at most once per
+     * snapshot interval.
+     *
+     * @param changed the changed node, or null to copy all nodes
+     */
+    public void markProgressDirty(int level, int difficulty, Game game, GameNode changed) {
+        File file = stateFile("progress_", level, difficulty);
+        ProgressSnapshot snapshot;
+        synchronized (this) {
+            if (progressSnapshot == null || !progressSnapshot.isFor(file, game) || changed == null) {
+                progressSnapshot = new ProgressSnapshot(file, game);
+            } else {
+                progressSnapshot.update(changed);
+            }
+            snapshot = progressSnapshot;
+        }
+        progressWriter.markDirty(file, snapshot::encode);
+    }
+
+    /**
+     * Writes pending progress snapshots now (level exit, application shutdown).
+     */
+    public void flushProgress() {
+        progressWriter.flush();
+    }
+
+    /**
+     * Sets the minimum delay between two progress snapshots of a level.
+     */
+    public void setProgressSnapshotInterval(long millis) {
+        progressWriter.setIntervalMillis(millis);
+    }
+
 
     public void loadSimulationState(int level, int difficulty, Game game) {
+        ScrambleDescriptor scramble = loadScramble(level, difficulty);
+        if (scramble != null && scramble.rows() == game.rows() && scramble.cols() == game.cols()) {
+            for (GameNode node : game.getNodes()) {
+                node.resetRotationCount();
+            }
+            scramble.applyTo(game);
+            return;
+        }
 
         loadState("initial_", level, difficulty, game);
-
     }
 
     private void saveState(String prefix, int level, int difficulty, Game game) {
-        String filename = prefix + level + "_" + difficulty + ".dat";
+        try {
+            ProgressSnapshotWriter.writeAtomically(stateFile(prefix, level, difficulty), serializeState(game));
+        } catch (IOException e) {
+            System.err.println("Error saving " + prefix + " state: " + e.getMessage());
+        }
+    }
+
+    private File stateFile(String prefix, int level, int difficulty) {
+        return new File(saveDir + "/" + prefix + level + "_" + difficulty + SaveFormat.EXTENSION);
+    }
+
+    private byte[] serializeState(Game game) {
         List<NodeState> states = new ArrayList<>();
 
         for (GameNode node : game.getNodes()) {
@@ -86,44 +213,110 @@ public class NodeStateManager {
             states.add(new NodeState(pos.row(), pos.col(), node.getRotationCount()));
         }
 
-        try (ObjectOutputStream oos = new ObjectOutputStream(
-                new FileOutputStream(saveDir + "/" + filename))) {
-            oos.writeObject(states);
-        } catch (IOException e) {
-            System.err.println("Error saving " + prefix + " state: " + e.getMessage());
+        return SaveFormat.encodeNodeStates(states);
+    }
+
+    /**
+     * Copy of the rotation counts of a game's nodes, kept up to date by the
+     * thread that changes the game and encoded by the progress writer thread.
+     */
+    private static final class ProgressSnapshot {
+        private final File file;
+        private final Game game;
+        private final int cols;
+        private final boolean[] present;
+        private final int[] rotationCounts;
+
+        private ProgressSnapshot(File file, Game game) {
+            this.file = file;
+            this.game = game;
+            this.cols = game.cols();
+            this.present = new boolean[game.rows() * cols];
+            this.rotationCounts = new int[present.length];
+            for (GameNode node : game.getNodes()) {
+                int i = index(node.getPosition());
+                present[i] = true;
+                rotationCounts[i] = node.getRotationCount();
+            }
+        }
+
+        private boolean isFor(File file, Game game) {
+            return this.game == game && this.file.equals(file);
+        }
+
+        private synchronized void update(GameNode node) {
+            int i = index(node.getPosition());
+            present[i] = true;
+            rotationCounts[i] = node.getRotationCount();
+        }
+
+        private synchronized byte[] encode() {
+            List<NodeState> states = new ArrayList<>();
+            for (int i = 0; i < present.length; i++) {
+                if (present[i]) {
+                    states.add(new NodeState(i / cols + 1, i % cols + 1, rotationCounts[i]));
+                }
+            }
+            return SaveFormat.encodeNodeStates(states);
+        }
+
+        private int index(Position pos) {
+            return (pos.row() - 1) * cols + (pos.col() - 1);
         }
     }
 
     private void loadState(String prefix, int level, int difficulty, Game game) {
-        String filename = saveDir + "/" + prefix + level + "_" + difficulty + ".dat";
-        File file = new File(filename);
+        File file = stateFile(prefix, level, difficulty);
 
         if (!file.exists()) return;
 
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
-            List<NodeState> states = (List<NodeState>) ois.readObject();
+        try {
+            List<NodeState> states = SaveFormat.decodeNodeStates(SaveFormat.read(file));
             Map<Position, GameNode> nodeMap = game.getNodes().stream()
                     .collect(Collectors.toMap(GameNode::getPosition, Function.identity()));
 
+            Game.Batch batch = game.beginBatch();
             for (NodeState state : states) {
                 GameNode node = nodeMap.get(new Position(state.x, state.y));
                 if (node != null) {
                     node.resetRotationCount();
-                    for (int i = 0; i < state.rotationCount; i++) {
-                        node.turn();
-                    }
+                    batch.rotate(state.x, state.y, state.rotationCount);
                 }
             }
+            batch.commit();
         } catch (Exception e) {
             System.err.println("Error loading " + prefix + " state: " + e.getMessage());
         }
     }
 
 
+    /**
+     * Starts a new, empty move log for a level. The log name carries the time
+     * in milliseconds and, if a log of that name already exists (restart within
+     * the same millisecond), a counter, so a new session never appends to an
+     * older log.
+     */
     public void startNewGameLog(int levelNumber, int difficulty) {
-        String timestamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
-        currentGameLogPath = saveDir + "/moves_" + levelNumber + "_" + difficulty + "_" + timestamp + ".dat";
+        closeJournal();
+        String timestamp = new SimpleDateFormat("yyyyMMdd-HHmmss-SSS").format(new Date());
+        String base = saveDir + "/moves_" + levelNumber + "_" + difficulty + "_" + timestamp;
         currentGameMoves = new ArrayList<>();
+        currentLogLevel = levelNumber;
+        currentLogDifficulty = difficulty;
+        for (int attempt = 0; ; attempt++) {
+            currentGameLogPath = base + (attempt == 0 ? "" : "-" + attempt) + MoveJournal.EXTENSION;
+            try {
+                currentJournal = MoveJournal.create(new File(currentGameLogPath).toPath(), journalSyncPolicy);
+                break;
+            } catch (FileAlreadyExistsException e) {
+                // stejný název v téže milisekundě, zkusí se další
+            } catch (IOException e) {
+                System.err.println("Error creating move journal: " + e.getMessage());
+                return;
+            }
+        }
+        saveIndex.logCreated(levelNumber, difficulty, new File(currentGameLogPath));
+        logCompactor.compactAsync(levelNumber, difficulty);
     }
 
 
@@ -134,11 +327,28 @@ public class NodeStateManager {
         System.out.println("Move " + x + ", " + y + ", " + rotation);
         if (isReplayMode || currentGameMoves == null) return;
 
-        currentGameMoves.add(new GameMove(x, y, rotation));
-        saveMovesToFile();
+        GameMove move = new GameMove(x, y, rotation);
+        currentGameMoves.add(move);
+        appendToJournal(move);
     }
 
 
+    /**
+     * Opens a lazy reader over the latest move log of a level.
+     *
+     * @return iterator over the moves, empty if there is no log
+     */
+    public Iterator<GameMove> openMoveReader(int levelNumber, int difficulty) {
+        File latestLog = findLatestLogFile(levelNumber, difficulty);
+        if (latestLog == null) return Collections.emptyIterator();
+        try {
+            return MoveJournal.reader(latestLog.toPath());
+        } catch (IOException e) {
+            System.err.println("Error opening move journal: " + e.getMessage());
+            return Collections.emptyIterator();
+        }
+    }
+
     public List<GameMove> loadGameMoves(int levelNumber, int difficulty) {
         File latestLog = findLatestLogFile(levelNumber, difficulty);
         if (latestLog == null) return Collections.emptyList();
@@ -146,32 +356,71 @@ public class NodeStateManager {
 
 
 
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(latestLog))) {
-            return (List<GameMove>) ois.readObject();
-        } catch (Exception e) {
+        try {
+            return MoveJournal.readAll(latestLog.toPath());
+        } catch (IOException e) {
             System.err.println("Error loading game moves: " + e.getMessage());
             return Collections.emptyList();
         }
     }
 
     private File findLatestLogFile(int levelNumber, int difficulty) {
-        File dir = new File(saveDir);
-        String prefix = "moves_" + levelNumber + "_" + difficulty + "_";
+        return saveIndex.latestLog(levelNumber, difficulty);
+    }
+
+    /**
+     * Returns the index of move logs in the save directory.
+     */
+    public SaveIndex getSaveIndex() {
+        return saveIndex;
+    }
 
-        return Arrays.stream(Objects.requireNonNull(dir.listFiles()))
-                .filter(f -> f.getName().startsWith(prefix))
-                .max(Comparator.comparingLong(File::lastModified))
-                .orElse(null);
+    /**
+     * Returns the background compactor of old move logs.
+     */
+    public LogCompactor getLogCompactor() {
+        return logCompactor;
     }
 
-    private void saveMovesToFile() {
-        try (ObjectOutputStream oos = new ObjectOutputStream(
-                new FileOutputStream(currentGameLogPath))) {
-            oos.writeObject(currentGameMoves);
+    /**
+     * Sets how many move logs are kept per level and difficulty before older ones are archived.
+     */
+    public void setLogRetention(int keepLatest) {
+        logCompactor.setKeepLatest(keepLatest);
+    }
+
+    private void openJournal(String path) {
+        closeJournal();
+        try {
+            currentJournal = MoveJournal.open(new File(path).toPath(), journalSyncPolicy);
+        } catch (IOException e) {
+            System.err.println("Error opening move journal: " + e.getMessage());
+        }
+    }
+
+    private void appendToJournal(GameMove move) {
+        if (currentJournal == null) return;
+        try {
+            currentJournal.append(move);
         } catch (IOException e) {
             System.err.println("Error saving moves: " + e.getMessage());
         }
     }
+
+    /**
+     * Flushes and closes the current move journal.
+     */
+    public void closeJournal() {
+        if (currentJournal == null) return;
+        try {
+            currentJournal.close();
+        } catch (IOException e) {
+            System.err.println("Error closing move journal: " + e.getMessage());
+        }
+        saveIndex.logUpdated(currentLogLevel, currentLogDifficulty, currentJournal.path().toFile());
+        currentJournal = null;
+    }
+
     public void loadExistingHistory(int levelNumber, int difficulty) {
         List<GameMove> savedMoves = loadGameMoves(levelNumber, difficulty);
         if (savedMoves == null) {
@@ -182,6 +431,9 @@ public class NodeStateManager {
         setReplayMode(true);
 
         File latestLog = findLatestLogFile(levelNumber, difficulty);
+        closeJournal();
+        currentLogLevel = levelNumber;
+        currentLogDifficulty = difficulty;
         if (latestLog != null) {
 
             currentGameLogPath = latestLog.getAbsolutePath();
@@ -195,7 +447,15 @@ public class NodeStateManager {
         }
 
         currentGameMoves = new ArrayList<>(trimmedMoves);
-        saveMovesToFile();
+        openJournal(currentGameLogPath);
+        try {
+            if (currentJournal != null) {
+                currentJournal.truncate(trimmedMoves.size());
+                saveIndex.logUpdated(currentLogLevel, currentLogDifficulty, currentJournal.path().toFile());
+            }
+        } catch (IOException e) {
+            System.err.println("Error trimming move journal: " + e.getMessage());
+        }
     }
 
 }
@@ -0,0 +1,150 @@
+/**
+ * Soubor: src/main/java/ija.ijaProject/game/levels/ProgressSnapshotWriter.java
+ *
+ * Popis:
+ *  Asynchronní zapisovač průběžného stavu hráče. Změny označené jako
+ *  "dirty" slučuje a zapisuje nejvýše jednou za nastavený interval na
+ *  pozadí, vždy přes dočasný soubor a atomické přejmenování.
+ *
+ * @Author: Yaroslav Hryn (xhryny00),Oleksandr Musiichuk (xmusii00)
+ *
+ */
+
+package ija.ijaProject.game.levels;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * ProgressSnapshotWriter coalesces "progress changed" notifications into at most
+ * one write per target file and interval. The snapshot is encoded on the writer
+ * thread when the write runs, so marking a file dirty is O(1) no matter how many
+ * notifications a single move produces; the supplier must therefore only read
+ * data it owns or guards by a lock, never live game state changed by the UI
+ * threads. Files are written to a temporary sibling and atomically renamed over
+ * the target. Pending snapshots are flushed by {@link #flush()} (level exit) and
+ * by a JVM shutdown hook.
+ */
+public class ProgressSnapshotWriter {
+    /** Default minimum delay between two writes of the same file. */
+    public static final long DEFAULT_INTERVAL_MILLIS = 500;
+
+    private static final long FLUSH_TIMEOUT_SECONDS = 5;
+
+    private final ScheduledExecutorService executor;
+    private final Map<File, Supplier<byte[]>> pending = new LinkedHashMap<>();
+    private volatile long intervalMillis;
+    private boolean scheduled = false;
+
+    /**
+     * Creates a writer with its own daemon thread and registers a shutdown hook that flushes it.
+     *
+     * @param intervalMillis minimum delay between two writes
+     */
+    public ProgressSnapshotWriter(long intervalMillis) {
+        this.intervalMillis = Math.max(0, intervalMillis);
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "progress-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "progress-writer-shutdown"));
+    }
+
+    /**
+     * Sets the minimum delay between two writes (applies to the next scheduled write).
+     *
+     * @param intervalMillis delay in milliseconds
+     */
+    public void setIntervalMillis(long intervalMillis) {
+        this.intervalMillis = Math.max(0, intervalMillis);
+    }
+
+    /**
+     * Marks a file as changed. The snapshot supplier is called later on the
+     * writer thread and must be safe to call from it; a newer supplier for the
+     * same file replaces the older one.
+     *
+     * @param target   file to write
+     * @param snapshot produces the file content
+     */
+    public void markDirty(File target, Supplier<byte[]> snapshot) {
+        synchronized (pending) {
+            pending.put(target, snapshot);
+            if (scheduled) return;
+            scheduled = true;
+        }
+        try {
+            executor.schedule(this::writePending, intervalMillis, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            // executor already shut down, write on the caller thread
+            writePending();
+        }
+    }
+
+    /**
+     * Writes all pending snapshots now and waits for the write to finish.
+     */
+    public void flush() {
+        try {
+            executor.submit(this::writePending).get(FLUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException | RuntimeException e) {
+            System.err.println("Error flushing progress: " + e.getMessage());
+            writePending();
+        }
+    }
+
+    /**
+     * Takes and writes all pending snapshots.
+     */
+    private void writePending() {
+        List<Map.Entry<File, Supplier<byte[]>>> batch;
+        synchronized (pending) {
+            scheduled = false;
+            if (pending.isEmpty()) return;
+            batch = new ArrayList<>(pending.entrySet());
+            pending.clear();
+        }
+        for (Map.Entry<File, Supplier<byte[]>> entry : batch) {
+            try {
+                writeAtomically(entry.getKey(), entry.getValue().get());
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Error saving progress " + entry.getKey().getName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Writes data to a temporary file next to the target and renames it over the target.
+     *
+     * @param target target file
+     * @param data   file content
+     * @throws IOException on write failure
+     */
+    public static void writeAtomically(File target, byte[] data) throws IOException {
+        Path path = target.toPath();
+        Path temp = path.resolveSibling(target.getName() + ".tmp");
+        Files.write(temp, data);
+        try {
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
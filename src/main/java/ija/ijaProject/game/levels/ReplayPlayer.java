@@ -0,0 +1,123 @@
+/**
+ * Soubor: src/main/java/ija.ijaProject/game/levels/ReplayPlayer.java
+ *
+ * Popis:
+ *  Automatické přehrávání záznamu hry s nastavitelnou rychlostí.
+ *  Plánovač snímků spojí všechny tahy, které připadnou na jeden
+ *  vykreslený snímek, do jednoho skoku v GameReplay.
+ *
+ * @Author: Yaroslav Hryn (xhryny00),Oleksandr Musiichuk (xmusii00)
+ *
+ */
+
+package ija.ijaProject.game.levels;
+
+/**
+ * ReplayPlayer drives a {@link GameReplay} from a per-frame pulse (e.g. a
+ * JavaFX {@code AnimationTimer}). At 1x it plays {@link #BASE_MOVES_PER_SECOND}
+ * moves per second; on each {@link #frame(long)} it computes how many moves are
+ * due since the previous frame and applies them with a single
+ * {@link GameReplay#seek(int)}, so the board is propagated and repainted once
+ * per frame no matter how fast the replay runs.
+ */
+public class ReplayPlayer {
+    /** Moves per second at speed 1x. */
+    public static final double BASE_MOVES_PER_SECOND = 4;
+    /** Selectable speed multipliers. */
+    public static final double[] SPEEDS = {0.25, 0.5, 1, 2, 4, 8, 16, 32, 64};
+
+    private final GameReplay replay;
+    private double speed = 1;
+    private boolean playing = false;
+    private long lastFrameNanos = -1;
+    private double pendingMoves = 0;
+
+    /**
+     * Creates a paused player.
+     *
+     * @param replay replay to drive
+     */
+    public ReplayPlayer(GameReplay replay) {
+        this.replay = replay;
+    }
+
+    /** Returns the driven replay. */
+    public GameReplay getReplay() {
+        return replay;
+    }
+
+    /** Returns the speed multiplier. */
+    public double getSpeed() {
+        return speed;
+    }
+
+    /**
+     * Sets the speed multiplier, clamped to the range of {@link #SPEEDS}.
+     */
+    public void setSpeed(double speed) {
+        this.speed = Math.max(SPEEDS[0], Math.min(speed, SPEEDS[SPEEDS.length - 1]));
+    }
+
+    /** Returns whether the player is running. */
+    public boolean isPlaying() {
+        return playing;
+    }
+
+    /**
+     * Starts playing; at the end of the replay it starts again from the beginning.
+     */
+    public void play() {
+        if (replay.getCurrentMoveIndex() >= replay.getMoveCount() - 1) {
+            replay.seek(-1);
+        }
+        playing = true;
+        lastFrameNanos = -1;
+        pendingMoves = 0;
+    }
+
+    /**
+     * Stops playing at the current move.
+     */
+    public void pause() {
+        playing = false;
+    }
+
+    /**
+     * Jumps to a move; playback continues from there if the player is running.
+     *
+     * @param moveIndex index of the last applied move, -1 is the start
+     */
+    public void seek(int moveIndex) {
+        replay.seek(moveIndex);
+        pendingMoves = 0;
+    }
+
+    /**
+     * Advances the replay by the moves due since the previous frame.
+     *
+     * @param nowNanos frame timestamp in nanoseconds
+     * @return {@code true} if the board changed
+     */
+    public boolean frame(long nowNanos) {
+        if (!playing) return false;
+        if (lastFrameNanos < 0) {
+            lastFrameNanos = nowNanos;
+            return false;
+        }
+        double seconds = (nowNanos - lastFrameNanos) / 1e9;
+        lastFrameNanos = nowNanos;
+        pendingMoves += seconds * BASE_MOVES_PER_SECOND * speed;
+
+        int due = (int) pendingMoves;
+        if (due == 0) return false;
+        pendingMoves -= due;
+
+        int last = replay.getMoveCount() - 1;
+        int target = (int) Math.min((long) replay.getCurrentMoveIndex() + due, last);
+        replay.seek(target);
+        if (target >= last) {
+            playing = false;
+        }
+        return true;
+    }
+}
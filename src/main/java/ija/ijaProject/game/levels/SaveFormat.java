@@ -0,0 +1,506 @@
+/**
+ * Soubor: src/main/java/ija.ijaProject/game/levels/SaveFormat.java
+ *
+ * Popis:
+ *  Jednotný verzovaný binární formát uložených dat (stav uzlů, tahy,
+ *  postup v úrovních, zamíchání). Nahrazuje Java serializaci:
+ *  hlavička s magickým číslem, verzí a druhem dat, záznamy kódované
+ *  jako varinty a kontrolní součet CRC32 na konci souboru.
+ *
+ * @Author: Yaroslav Hryn (xhryny00),Oleksandr Musiichuk (xmusii00)
+ *
+ */
+
+package ija.ijaProject.game.levels;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.BufferUnderflowException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * SaveFormat encodes all persistent game data in one versioned binary layout:
+ * <pre>
+ *   int    magic "VMZS"
+ *   byte   version
+ *   byte   kind (node states, moves, level progress, scramble, log index, log archive)
+ *   varint payload length
+ *   ...    payload (varint-packed records)
+ *   int    CRC32 of everything above
+ * </pre>
+ * Decoding rejects files with a wrong magic, an unknown version, a different
+ * kind or a checksum mismatch with an {@link IOException}.
+ */
+public final class SaveFormat {
+    /** File extension of save files. */
+    public static final String EXTENSION = ".sav";
+    /** Current format version. */
+    public static final int VERSION = 1;
+
+    /** Node rotation states ({@link NodeState}). */
+    public static final byte KIND_NODE_STATES = 1;
+    /** Move list ({@link GameMove}). */
+    public static final byte KIND_MOVES = 2;
+    /** Completed levels ({@link LevelManager}). */
+    public static final byte KIND_LEVEL_PROGRESS = 3;
+    /** Scramble of a level ({@link ScrambleDescriptor}). */
+    public static final byte KIND_SCRAMBLE = 4;
+    /** Index of move logs ({@link SaveIndex}). */
+    public static final byte KIND_LOG_INDEX = 5;
+    /** Deflate-compressed archive of old move logs ({@link LogCompactor}). */
+    public static final byte KIND_LOG_ARCHIVE = 6;
+
+    private static final int MAGIC = 0x564D5A53; // "VMZS"
+
+    private SaveFormat() {
+    }
+
+    /**
+     * Encodes node states: count, then row, column and rotation count per node.
+     *
+     * @param states node states
+     * @return file content
+     */
+    public static byte[] encodeNodeStates(Collection<NodeState> states) {
+        Output out = new Output();
+        out.varint(states.size());
+        for (NodeState state : states) {
+            out.varint(state.x);
+            out.varint(state.y);
+            out.varint(state.rotationCount);
+        }
+        return frame(KIND_NODE_STATES, out);
+    }
+
+    /**
+     * Decodes node states.
+     *
+     * @param data file content
+     * @return node states
+     * @throws IOException if the data is not a valid node state file
+     */
+    public static List<NodeState> decodeNodeStates(byte[] data) throws IOException {
+        Input in = unframe(data, KIND_NODE_STATES);
+        int count = in.count();
+        List<NodeState> states = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            states.add(new NodeState(in.varint(), in.varint(), in.varint()));
+        }
+        return states;
+    }
+
+    /**
+     * Encodes moves: count, then row, column, rotation and the zigzag
+     * delta of the timestamp to the previous move.
+     *
+     * @param moves moves in order
+     * @return file content
+     */
+    public static byte[] encodeMoves(Collection<GameMove> moves) {
+        Output out = new Output();
+        writeMoves(out, moves);
+        return frame(KIND_MOVES, out);
+    }
+
+    /**
+     * Decodes moves.
+     *
+     * @param data file content
+     * @return moves in order
+     * @throws IOException if the data is not a valid move file
+     */
+    public static List<GameMove> decodeMoves(byte[] data) throws IOException {
+        return readMoves(unframe(data, KIND_MOVES));
+    }
+
+    /**
+     * Encodes completed levels ({@code "difficulty-level"} keys) as pairs of varints.
+     *
+     * @param levelKeys completed level keys
+     * @return file content
+     */
+    public static byte[] encodeLevelProgress(Collection<String> levelKeys) {
+        List<int[]> entries = new ArrayList<>();
+        for (String key : levelKeys) {
+            String[] parts = key.split("-");
+            if (parts.length != 2) continue;
+            try {
+                entries.add(new int[]{Integer.parseInt(parts[0]), Integer.parseInt(parts[1])});
+            } catch (NumberFormatException e) {
+                System.err.println("Skipping invalid level key: " + key);
+            }
+        }
+        Output out = new Output();
+        out.varint(entries.size());
+        for (int[] entry : entries) {
+            out.varint(entry[0]);
+            out.varint(entry[1]);
+        }
+        return frame(KIND_LEVEL_PROGRESS, out);
+    }
+
+    /**
+     * Decodes completed levels.
+     *
+     * @param data file content
+     * @return completed level keys {@code "difficulty-level"}
+     * @throws IOException if the data is not a valid level progress file
+     */
+    public static Set<String> decodeLevelProgress(byte[] data) throws IOException {
+        Input in = unframe(data, KIND_LEVEL_PROGRESS);
+        int count = in.count();
+        Set<String> keys = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            keys.add(in.varint() + "-" + in.varint());
+        }
+        return keys;
+    }
+
+    /**
+     * Encodes a scramble descriptor.
+     *
+     * @param scramble scramble
+     * @return file content
+     */
+    public static byte[] encodeScramble(ScrambleDescriptor scramble) {
+        Output out = new Output();
+        try (DataOutputStream data = new DataOutputStream(out.bytes)) {
+            scramble.write(data);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return frame(KIND_SCRAMBLE, out);
+    }
+
+    /**
+     * Decodes a scramble descriptor.
+     *
+     * @param data file content
+     * @return scramble
+     * @throws IOException if the data is not a valid scramble file
+     */
+    public static ScrambleDescriptor decodeScramble(byte[] data) throws IOException {
+        Input in = unframe(data, KIND_SCRAMBLE);
+        ByteBuffer payload = in.buffer;
+        try (DataInputStream stream = new DataInputStream(new ByteArrayInputStream(
+                payload.array(), payload.position(), payload.remaining()))) {
+            return ScrambleDescriptor.read(stream);
+        }
+    }
+
+    /**
+     * Encodes the move log index: count, then per level and difficulty the
+     * name and size of the latest log, the number of logs and the size of the older logs.
+     *
+     * @param entries index entries
+     * @return file content
+     */
+    public static byte[] encodeLogIndex(Collection<SaveIndex.Entry> entries) {
+        Output out = new Output();
+        out.varint(entries.size());
+        for (SaveIndex.Entry entry : entries) {
+            out.varint(entry.level());
+            out.varint(entry.difficulty());
+            out.string(entry.latestLog());
+            out.varlong(entry.latestBytes());
+            out.varint(entry.logCount());
+            out.varlong(entry.olderBytes());
+        }
+        return frame(KIND_LOG_INDEX, out);
+    }
+
+    /**
+     * Decodes the move log index.
+     *
+     * @param data file content
+     * @return index entries
+     * @throws IOException if the data is not a valid index file
+     */
+    public static List<SaveIndex.Entry> decodeLogIndex(byte[] data) throws IOException {
+        Input in = unframe(data, KIND_LOG_INDEX);
+        int count = in.count();
+        List<SaveIndex.Entry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            entries.add(new SaveIndex.Entry(in.varint(), in.varint(), in.string(), in.varlong(),
+                    in.varint(), in.varlong()));
+        }
+        return entries;
+    }
+
+    /**
+     * Encodes archived move logs: the uncompressed payload length followed by
+     * the deflated payload (count, then per log its name and its moves as in
+     * {@link #encodeMoves}).
+     *
+     * @param logs log names mapped to their moves, oldest first
+     * @return file content
+     */
+    public static byte[] encodeLogArchive(Map<String, List<GameMove>> logs) {
+        Output plain = new Output();
+        plain.varint(logs.size());
+        for (Map.Entry<String, List<GameMove>> log : logs.entrySet()) {
+            plain.string(log.getKey());
+            writeMoves(plain, log.getValue());
+        }
+        byte[] raw = plain.bytes.toByteArray();
+
+        Output out = new Output();
+        out.varint(raw.length);
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            byte[] chunk = new byte[4096];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(chunk);
+                out.bytes.write(chunk, 0, n);
+            }
+        } finally {
+            deflater.end();
+        }
+        return frame(KIND_LOG_ARCHIVE, out);
+    }
+
+    /**
+     * Decodes archived move logs.
+     *
+     * @param data file content
+     * @return log names mapped to their moves, oldest first
+     * @throws IOException if the data is not a valid archive file
+     */
+    public static Map<String, List<GameMove>> decodeLogArchive(byte[] data) throws IOException {
+        Input packed = unframe(data, KIND_LOG_ARCHIVE);
+        int rawLength = packed.varint();
+        if (rawLength < 0) {
+            throw new IOException("Corrupted save file.");
+        }
+        byte[] raw = new byte[rawLength];
+        Inflater inflater = new Inflater();
+        try {
+            ByteBuffer buffer = packed.buffer;
+            inflater.setInput(buffer.array(), buffer.position(), buffer.remaining());
+            int total = 0;
+            while (total < rawLength) {
+                int n = inflater.inflate(raw, total, rawLength - total);
+                if (n == 0 && (inflater.finished() || inflater.needsInput())) break;
+                total += n;
+            }
+            if (total != rawLength || !inflater.finished()) {
+                throw new IOException("Corrupted save file.");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupted save file.", e);
+        } finally {
+            inflater.end();
+        }
+
+        Input in = new Input(ByteBuffer.wrap(raw));
+        int count = in.count();
+        Map<String, List<GameMove>> logs = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            String name = in.string();
+            logs.put(name, readMoves(in));
+        }
+        return logs;
+    }
+
+    /**
+     * Writes file content atomically (temporary file and rename).
+     *
+     * @param file target file
+     * @param data encoded content
+     * @throws IOException on write failure
+     */
+    public static void write(File file, byte[] data) throws IOException {
+        ProgressSnapshotWriter.writeAtomically(file, data);
+    }
+
+    /**
+     * Reads a whole file.
+     *
+     * @param file source file
+     * @return file content
+     * @throws IOException on read failure
+     */
+    public static byte[] read(File file) throws IOException {
+        return Files.readAllBytes(file.toPath());
+    }
+
+    /**
+     * Adds the header and the checksum to a payload.
+     */
+    private static byte[] frame(byte kind, Output payload) {
+        byte[] body = payload.bytes.toByteArray();
+        Output out = new Output();
+        out.int32(MAGIC);
+        out.bytes.write(VERSION);
+        out.bytes.write(kind);
+        out.varint(body.length);
+        out.bytes.write(body, 0, body.length);
+        CRC32 crc = new CRC32();
+        crc.update(out.bytes.toByteArray());
+        out.int32((int) crc.getValue());
+        return out.bytes.toByteArray();
+    }
+
+    /**
+     * Validates the header and the checksum and positions the input at the payload.
+     */
+    private static Input unframe(byte[] data, byte kind) throws IOException {
+        if (data.length < 10) {
+            throw new IOException("Save file too short.");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length - 4);
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        if (buffer.getInt(data.length - 4) != (int) crc.getValue()) {
+            throw new IOException("Save file checksum mismatch.");
+        }
+        buffer.limit(data.length - 4);
+        Input in = new Input(buffer);
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not a save file.");
+        }
+        int version = buffer.get();
+        if (version != VERSION) {
+            throw new IOException("Unsupported save file version " + version + ".");
+        }
+        int actualKind = buffer.get();
+        if (actualKind != kind) {
+            throw new IOException("Unexpected save file kind " + actualKind + ".");
+        }
+        int length = in.varint();
+        if (length != buffer.remaining()) {
+            throw new IOException("Save file length mismatch.");
+        }
+        return in;
+    }
+
+    private static void writeMoves(Output out, Collection<GameMove> moves) {
+        out.varint(moves.size());
+        long previous = 0;
+        for (GameMove move : moves) {
+            out.varint(move.x);
+            out.varint(move.y);
+            out.varint(move.rotation);
+            out.varlong(zigzag(move.timestamp - previous));
+            previous = move.timestamp;
+        }
+    }
+
+    private static List<GameMove> readMoves(Input in) throws IOException {
+        int count = in.count();
+        List<GameMove> moves = new ArrayList<>(count);
+        long timestamp = 0;
+        for (int i = 0; i < count; i++) {
+            int x = in.varint();
+            int y = in.varint();
+            int rotation = in.varint();
+            timestamp += unzigzag(in.varlong());
+            moves.add(new GameMove(x, y, rotation, timestamp));
+        }
+        return moves;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /** Growable output with varint encoding. */
+    private static final class Output {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        void varint(int value) {
+            varlong(value & 0xFFFFFFFFL);
+        }
+
+        void varlong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                bytes.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            bytes.write((int) value);
+        }
+
+        void string(String value) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            varint(utf8.length);
+            bytes.write(utf8, 0, utf8.length);
+        }
+
+        void int32(int value) {
+            bytes.write(value >>> 24);
+            bytes.write(value >>> 16);
+            bytes.write(value >>> 8);
+            bytes.write(value);
+        }
+    }
+
+    /** Bounded input with varint decoding. */
+    private static final class Input {
+        private final ByteBuffer buffer;
+
+        Input(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        int varint() throws IOException {
+            long value = varlong();
+            if (value > 0xFFFFFFFFL) {
+                throw new IOException("Corrupted save file.");
+            }
+            return (int) value;
+        }
+
+        /** Reads a record count and checks it against the remaining bytes. */
+        int count() throws IOException {
+            int count = varint();
+            if (count < 0 || count > buffer.remaining()) {
+                throw new IOException("Corrupted save file.");
+            }
+            return count;
+        }
+
+        String string() throws IOException {
+            int length = count();
+            byte[] utf8 = new byte[length];
+            buffer.get(utf8);
+            return new String(utf8, StandardCharsets.UTF_8);
+        }
+
+        long varlong() throws IOException {
+            try {
+                long value = 0;
+                for (int shift = 0; shift < 64; shift += 7) {
+                    byte b = buffer.get();
+                    value |= (long) (b & 0x7F) << shift;
+                    if ((b & 0x80) == 0) return value;
+                }
+            } catch (BufferUnderflowException e) {
+                throw new IOException("Truncated save file.");
+            }
+            throw new IOException("Corrupted save file.");
+        }
+    }
+}
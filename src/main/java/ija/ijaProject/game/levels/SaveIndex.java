@@ -0,0 +1,245 @@
+/**
+ * Soubor: src/main/java/ija.ijaProject/game/levels/SaveIndex.java
+ *
+ * Popis:
+ *  Perzistentní index záznamů tahů v adresáři game_states. Pro každou
+ *  úroveň a obtížnost drží poslední log, počet logů a jejich velikost,
+ *  takže vyhledání posledního logu nevyžaduje procházení adresáře.
+ *
+ * @Author: Yaroslav Hryn (xhryny00),Oleksandr Musiichuk (xmusii00)
+ *
+ */
+
+package ija.ijaProject.game.levels;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SaveIndex maps (level, difficulty) to the latest move log, the number of
+ * logs and their total size. It is kept in {@code index.sav} inside the save
+ * directory and updated whenever a log is created, resized or removed. The
+ * directory is scanned only when the index is missing, corrupt or points to
+ * a log that no longer exists.
+ */
+public class SaveIndex {
+    /** Name of the index file inside the save directory. */
+    public static final String FILE_NAME = "index" + SaveFormat.EXTENSION;
+
+    /**
+     * Index entry of one level and difficulty.
+     */
+    public static final class Entry {
+        private final int level;
+        private final int difficulty;
+        private final String latestLog;
+        private final long latestBytes;
+        private final int logCount;
+        private final long olderBytes;
+
+        /**
+         * Creates an entry.
+         *
+         * @param level       level number
+         * @param difficulty  difficulty
+         * @param latestLog   file name of the latest log
+         * @param latestBytes size of the latest log
+         * @param logCount    number of logs
+         * @param olderBytes  total size of all logs except the latest one
+         */
+        public Entry(int level, int difficulty, String latestLog, long latestBytes, int logCount, long olderBytes) {
+            this.level = level;
+            this.difficulty = difficulty;
+            this.latestLog = latestLog;
+            this.latestBytes = latestBytes;
+            this.logCount = logCount;
+            this.olderBytes = olderBytes;
+        }
+
+        /** Returns the level number. */
+        public int level() {
+            return level;
+        }
+
+        /** Returns the difficulty. */
+        public int difficulty() {
+            return difficulty;
+        }
+
+        /** Returns the file name of the latest log. */
+        public String latestLog() {
+            return latestLog;
+        }
+
+        /** Returns the size of the latest log. */
+        public long latestBytes() {
+            return latestBytes;
+        }
+
+        /** Returns the number of logs. */
+        public int logCount() {
+            return logCount;
+        }
+
+        /** Returns the total size of all logs except the latest one. */
+        public long olderBytes() {
+            return olderBytes;
+        }
+
+        /** Returns the total size of all logs. */
+        public long totalBytes() {
+            return olderBytes + latestBytes;
+        }
+    }
+
+    private final File saveDir;
+    private final File indexFile;
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    private SaveIndex(File saveDir) {
+        this.saveDir = saveDir;
+        this.indexFile = new File(saveDir, FILE_NAME);
+    }
+
+    /**
+     * Loads the index of a save directory, rebuilding it from a directory scan
+     * if it is missing or corrupt.
+     *
+     * @param saveDir save directory
+     * @return index
+     */
+    public static SaveIndex load(File saveDir) {
+        SaveIndex index = new SaveIndex(saveDir);
+        if (index.indexFile.exists()) {
+            try {
+                for (Entry entry : SaveFormat.decodeLogIndex(SaveFormat.read(index.indexFile))) {
+                    index.entries.put(key(entry.level(), entry.difficulty()), entry);
+                }
+                return index;
+            } catch (IOException e) {
+                System.err.println("Error loading save index, rebuilding: " + e.getMessage());
+            }
+        }
+        index.rebuild();
+        return index;
+    }
+
+    /**
+     * Returns the latest move log of a level.
+     *
+     * @return log file, or {@code null} if the level has no log
+     */
+    public synchronized File latestLog(int level, int difficulty) {
+        Entry entry = entries.get(key(level, difficulty));
+        if (entry == null) return null;
+
+        File log = new File(saveDir, entry.latestLog());
+        if (!log.exists()) {
+            System.err.println("Save index is stale, rebuilding");
+            rebuild();
+            entry = entries.get(key(level, difficulty));
+            return entry == null ? null : new File(saveDir, entry.latestLog());
+        }
+        return log;
+    }
+
+    /** Returns the index entry of a level, or {@code null}. */
+    public synchronized Entry entry(int level, int difficulty) {
+        return entries.get(key(level, difficulty));
+    }
+
+    /** Returns all entries. */
+    public synchronized List<Entry> entries() {
+        return new ArrayList<>(entries.values());
+    }
+
+    /**
+     * Records a newly created log, which becomes the latest one of its level.
+     */
+    public synchronized void logCreated(int level, int difficulty, File log) {
+        Entry old = entries.get(key(level, difficulty));
+        Entry entry = old == null
+                ? new Entry(level, difficulty, log.getName(), log.length(), 1, 0)
+                : new Entry(level, difficulty, log.getName(), log.length(), old.logCount() + 1, old.totalBytes());
+        entries.put(key(level, difficulty), entry);
+        save();
+    }
+
+    /**
+     * Records a size change of a log (appends, truncation).
+     */
+    public synchronized void logUpdated(int level, int difficulty, File log) {
+        Entry old = entries.get(key(level, difficulty));
+        if (old == null || !old.latestLog().equals(log.getName())) {
+            rebuild();
+            return;
+        }
+        entries.put(key(level, difficulty), new Entry(level, difficulty, old.latestLog(), log.length(),
+                old.logCount(), old.olderBytes()));
+        save();
+    }
+
+    /**
+     * Records that older logs of a level were removed or replaced.
+     *
+     * @param removedCount number of logs removed
+     * @param removedBytes their total size
+     */
+    public synchronized void logsRemoved(int level, int difficulty, int removedCount, long removedBytes) {
+        Entry old = entries.get(key(level, difficulty));
+        if (old == null) return;
+        entries.put(key(level, difficulty), new Entry(level, difficulty, old.latestLog(), old.latestBytes(),
+                Math.max(1, old.logCount() - removedCount), Math.max(0, old.olderBytes() - removedBytes)));
+        save();
+    }
+
+    /**
+     * Rebuilds the index from a scan of the save directory (newest log by modification time).
+     */
+    public synchronized void rebuild() {
+        entries.clear();
+        File[] logs = saveDir.listFiles((dir, name) -> name.startsWith("moves_") && name.endsWith(MoveJournal.EXTENSION));
+        if (logs != null) {
+            Map<String, List<File>> byLevel = new HashMap<>();
+            for (File log : logs) {
+                String[] parts = log.getName().split("_");
+                if (parts.length < 4) continue;
+                try {
+                    String key = key(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+                    byLevel.computeIfAbsent(key, k -> new ArrayList<>()).add(log);
+                } catch (NumberFormatException e) {
+                    System.err.println("Skipping unexpected log " + log.getName());
+                }
+            }
+            for (List<File> levelLogs : byLevel.values()) {
+                File latest = levelLogs.stream()
+                        .max(Comparator.comparingLong(File::lastModified).thenComparing(File::getName))
+                        .orElseThrow();
+                long total = levelLogs.stream().mapToLong(File::length).sum();
+                String[] parts = latest.getName().split("_");
+                int level = Integer.parseInt(parts[1]);
+                int difficulty = Integer.parseInt(parts[2]);
+                entries.put(key(level, difficulty), new Entry(level, difficulty, latest.getName(), latest.length(),
+                        levelLogs.size(), total - latest.length()));
+            }
+        }
+        save();
+    }
+
+    private void save() {
+        try {
+            SaveFormat.write(indexFile, SaveFormat.encodeLogIndex(entries.values()));
+        } catch (IOException e) {
+            System.err.println("Error saving save index: " + e.getMessage());
+        }
+    }
+
+    private static String key(int level, int difficulty) {
+        return level + "_" + difficulty;
+    }
+}
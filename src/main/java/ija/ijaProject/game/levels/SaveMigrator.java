@@ -0,0 +1,155 @@
+/**
+ * Soubor: src/main/java/ija.ijaProject/game/levels/SaveMigrator.java
+ *
+ * Popis:
+ *  Jednorázový převod starých uložených dat (.dat soubory zapsané Java
+ *  serializací) do formátu SaveFormat a žurnálů tahů. Původní soubory
+ *  po úspěšném převodu přejmenuje na .dat.bak.
+ *
+ * @Author: Yaroslav Hryn (xhryny00),Oleksandr Musiichuk (xmusii00)
+ *
+ */
+
+package ija.ijaProject.game.levels;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * SaveMigrator converts the legacy Java-serialized save files:
+ * <ul>
+ *   <li>{@code initial_L_D.dat}, {@code progress_L_D.dat} ({@code List<NodeState>}) to {@link SaveFormat} node states</li>
+ *   <li>{@code moves_L_D_time.dat} ({@code List<GameMove>}) to {@link MoveJournal} files</li>
+ *   <li>{@code scramble_L_D.dat} (raw {@link ScrambleDescriptor}) to {@link SaveFormat} scrambles</li>
+ *   <li>{@code level_progress.dat} ({@code Set<String>}) to {@link SaveFormat} level progress</li>
+ * </ul>
+ * Each converted file is read back before the original is renamed to {@code .dat.bak},
+ * so running the migration again is a no-op.
+ */
+public final class SaveMigrator {
+    private static final String LEGACY_EXTENSION = ".dat";
+    private static final String BACKUP_EXTENSION = ".dat.bak";
+
+    private SaveMigrator() {
+    }
+
+    /**
+     * Converts all legacy files in the save directory.
+     *
+     * @param saveDir directory with node states, scrambles and move logs
+     * @return number of converted files
+     */
+    public static int migrateSaveDir(File saveDir) {
+        File[] files = saveDir.listFiles((dir, name) -> name.endsWith(LEGACY_EXTENSION));
+        if (files == null) return 0;
+
+        int converted = 0;
+        for (File file : files) {
+            String name = file.getName();
+            try {
+                if (name.startsWith("moves_")) {
+                    migrateMoves(file);
+                } else if (name.startsWith("scramble_")) {
+                    migrateScramble(file);
+                } else if (name.startsWith("initial_") || name.startsWith("progress_")) {
+                    migrateNodeStates(file);
+                } else {
+                    continue;
+                }
+                converted++;
+            } catch (IOException | ClassNotFoundException | ClassCastException e) {
+                System.err.println("Error migrating " + name + ": " + e.getMessage());
+            }
+        }
+        if (converted > 0) {
+            System.out.println("[Migration] Converted " + converted + " save files in " + saveDir);
+        }
+        return converted;
+    }
+
+    /**
+     * Converts the legacy level progress file, if present.
+     *
+     * @param legacy legacy {@code level_progress.dat}
+     * @param target new level progress file
+     * @return {@code true} if the file was converted
+     */
+    public static boolean migrateLevelProgress(File legacy, File target) {
+        if (!legacy.exists() || target.exists()) return false;
+        try {
+            @SuppressWarnings("unchecked")
+            Set<String> keys = (Set<String>) readObject(legacy);
+            byte[] data = SaveFormat.encodeLevelProgress(keys);
+            SaveFormat.write(target, data);
+            SaveFormat.decodeLevelProgress(SaveFormat.read(target));
+            backup(legacy);
+            System.out.println("[Migration] Converted " + legacy.getName());
+            return true;
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            System.err.println("Error migrating " + legacy.getName() + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static void migrateNodeStates(File file) throws IOException, ClassNotFoundException {
+        @SuppressWarnings("unchecked")
+        List<NodeState> states = (List<NodeState>) readObject(file);
+        File target = sibling(file, SaveFormat.EXTENSION);
+        SaveFormat.write(target, SaveFormat.encodeNodeStates(states));
+        SaveFormat.decodeNodeStates(SaveFormat.read(target));
+        backup(file);
+    }
+
+    private static void migrateScramble(File file) throws IOException {
+        ScrambleDescriptor scramble;
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(file.toPath())))) {
+            scramble = ScrambleDescriptor.read(in);
+        }
+        File target = sibling(file, SaveFormat.EXTENSION);
+        SaveFormat.write(target, SaveFormat.encodeScramble(scramble));
+        SaveFormat.decodeScramble(SaveFormat.read(target));
+        backup(file);
+    }
+
+    private static void migrateMoves(File file) throws IOException, ClassNotFoundException {
+        @SuppressWarnings("unchecked")
+        List<GameMove> moves = (List<GameMove>) readObject(file);
+        Path target = sibling(file, MoveJournal.EXTENSION).toPath();
+        Files.deleteIfExists(target);
+        try (MoveJournal journal = MoveJournal.open(target, MoveJournal.SyncPolicy.ON_CLOSE)) {
+            for (GameMove move : moves) {
+                journal.append(move);
+            }
+        }
+        if (MoveJournal.readAll(target).size() != moves.size()) {
+            throw new IOException("Converted journal does not match.");
+        }
+        // keep the log order used by findLatestLogFile
+        target.toFile().setLastModified(file.lastModified());
+        backup(file);
+    }
+
+    private static Object readObject(File file) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(Files.readAllBytes(file.toPath())))) {
+            return in.readObject();
+        }
+    }
+
+    private static File sibling(File file, String extension) {
+        String name = file.getName();
+        return new File(file.getParentFile(), name.substring(0, name.length() - LEGACY_EXTENSION.length()) + extension);
+    }
+
+    private static void backup(File file) throws IOException {
+        File backup = new File(file.getParentFile(), file.getName().replace(LEGACY_EXTENSION, BACKUP_EXTENSION));
+        Files.move(file.toPath(), backup.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+}
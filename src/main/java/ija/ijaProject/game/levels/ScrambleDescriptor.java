@@ -0,0 +1,251 @@
+/**
+ * Soubor: src/main/java/ija.ijaProject/game/levels/ScrambleDescriptor.java
+ *
+ * Popis:
+ *  Kompaktní popis zamíchání úrovně: seed a počet otočení každého
+ *  políčka (2 bity na políčko). Ze seedu lze zamíchání deterministicky
+ *  zopakovat, z pole otočení lze počáteční stav obnovit bez deserializace.
+ *
+ * @Author: Yaroslav Hryn (xhryny00),Oleksandr Musiichuk (xmusii00)
+ *
+ */
+
+package ija.ijaProject.game.levels;
+
+import ija.ijaProject.game.CompactBoard;
+import ija.ijaProject.game.Game;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Random;
+
+/**
+ * ScrambleDescriptor records how a level was scrambled: the seed that drove
+ * the {@link Scrambler} and the resulting quarter turns per cell, packed four
+ * cells per byte. It can be printed into a bug report with {@link #encode()}
+ * and turned back into the exact same starting board with {@link #decode(String)}
+ * and {@link #applyTo(Game)}.
+ */
+public final class ScrambleDescriptor {
+    /** System property that forces the scramble seed (for benchmarks and bug reports). */
+    public static final String SEED_PROPERTY = "voltmaze.seed";
+    /** Largest board a descriptor may describe; guards decoding of corrupt input. */
+    public static final int MAX_CELLS = 1 << 20;
+
+    private final long seed;
+    private final int rows;
+    private final int cols;
+    private final byte[] packed;
+
+    /**
+     * Creates a descriptor from already packed rotations.
+     *
+     * @param seed   seed used for the scramble
+     * @param rows   board rows
+     * @param cols   board columns
+     * @param packed rotations, 2 bits per cell, cell i at bits (i % 4) * 2 of byte i / 4
+     */
+    private ScrambleDescriptor(long seed, int rows, int cols, byte[] packed) {
+        this.seed = seed;
+        this.rows = rows;
+        this.cols = cols;
+        this.packed = packed;
+    }
+
+    /**
+     * Scrambles a solved board with the given seed.
+     *
+     * @param solved solved board (not modified)
+     * @param moves  number of random quarter turns per scramble batch
+     * @param seed   seed for the random generator
+     * @return descriptor of the scramble
+     */
+    public static ScrambleDescriptor generate(CompactBoard solved, int moves, long seed) {
+        byte[] rotations = new Scrambler(new Random(seed)).scramble(solved, moves);
+        return of(seed, solved.rows(), solved.cols(), rotations);
+    }
+
+    /**
+     * Picks a seed for a new scramble: the {@value #SEED_PROPERTY} system
+     * property if set, a random one otherwise.
+     *
+     * @return seed
+     */
+    public static long newSeed() {
+        Long forced = Long.getLong(SEED_PROPERTY);
+        return forced != null ? forced : new Random().nextLong();
+    }
+
+    /**
+     * Creates a descriptor from unpacked rotations.
+     *
+     * @param seed      seed used for the scramble
+     * @param rows      board rows
+     * @param cols      board columns
+     * @param rotations rotations (0..3) per cell, indexed (row - 1) * cols + (col - 1)
+     * @return descriptor
+     * @throws IllegalArgumentException if the board size is out of range
+     */
+    public static ScrambleDescriptor of(long seed, int rows, int cols, byte[] rotations) {
+        if (!validSize(rows, cols)) {
+            throw new IllegalArgumentException("Invalid scramble size " + rows + "x" + cols + ".");
+        }
+        byte[] packed = new byte[(rows * cols + 3) / 4];
+        for (int i = 0; i < rows * cols && i < rotations.length; i++) {
+            packed[i >> 2] |= (byte) ((rotations[i] & 3) << ((i & 3) * 2));
+        }
+        return new ScrambleDescriptor(seed, rows, cols, packed);
+    }
+
+    /** Returns the seed of the scramble. */
+    public long seed() {
+        return seed;
+    }
+
+    /** Returns the number of board rows. */
+    public int rows() {
+        return rows;
+    }
+
+    /** Returns the number of board columns. */
+    public int cols() {
+        return cols;
+    }
+
+    /**
+     * Returns the rotation of one cell.
+     *
+     * @param index cell index (row - 1) * cols + (col - 1)
+     * @return quarter turns 0..3
+     */
+    public int rotation(int index) {
+        return (packed[index >> 2] >> ((index & 3) * 2)) & 3;
+    }
+
+    /**
+     * Unpacks the rotations into one byte per cell.
+     *
+     * @return rotations indexed (row - 1) * cols + (col - 1)
+     */
+    public byte[] rotations() {
+        byte[] rotations = new byte[rows * cols];
+        for (int i = 0; i < rotations.length; i++) {
+            rotations[i] = (byte) rotation(i);
+        }
+        return rotations;
+    }
+
+    /**
+     * Applies the scramble to a solved game in one atomic step.
+     *
+     * @param game solved game of matching size
+     * @throws IllegalArgumentException if the board size does not match
+     */
+    public void applyTo(Game game) {
+        if (game.rows() != rows || game.cols() != cols) {
+            throw new IllegalArgumentException("Scramble is for a " + rows + "x" + cols + " board.");
+        }
+        game.applyRotations(rotations());
+    }
+
+    /**
+     * Encodes the descriptor as a short text, e.g. for a bug report:
+     * {@code seed:rowsxcols:hex}.
+     *
+     * @return text form
+     */
+    public String encode() {
+        return seed + ":" + rows + "x" + cols + ":" + HexFormat.of().formatHex(packed);
+    }
+
+    /**
+     * Parses the text form produced by {@link #encode()}.
+     *
+     * @param text encoded descriptor
+     * @return descriptor
+     * @throws IllegalArgumentException if the text is malformed
+     */
+    public static ScrambleDescriptor decode(String text) {
+        String[] parts = text.trim().split(":");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Invalid scramble descriptor: " + text);
+        }
+        String[] size = parts[1].split("x");
+        if (size.length != 2) {
+            throw new IllegalArgumentException("Invalid scramble descriptor size: " + text);
+        }
+        try {
+            long seed = Long.parseLong(parts[0]);
+            int rows = Integer.parseInt(size[0]);
+            int cols = Integer.parseInt(size[1]);
+            if (!validSize(rows, cols)) {
+                throw new IllegalArgumentException("Invalid scramble descriptor size: " + text);
+            }
+            byte[] packed = HexFormat.of().parseHex(parts[2]);
+            if (packed.length != (rows * cols + 3) / 4) {
+                throw new IllegalArgumentException("Invalid scramble descriptor length: " + text);
+            }
+            return new ScrambleDescriptor(seed, rows, cols, packed);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid scramble descriptor: " + text, e);
+        }
+    }
+
+    /**
+     * Writes the descriptor to a stream.
+     *
+     * @param out target stream
+     * @throws IOException on write failure
+     */
+    public void write(DataOutputStream out) throws IOException {
+        out.writeLong(seed);
+        out.writeShort(rows);
+        out.writeShort(cols);
+        out.write(packed);
+    }
+
+    /**
+     * Reads a descriptor written by {@link #write(DataOutputStream)}.
+     *
+     * @param in source stream
+     * @return descriptor
+     * @throws IOException on read failure or if the board size is out of range
+     */
+    public static ScrambleDescriptor read(DataInputStream in) throws IOException {
+        long seed = in.readLong();
+        int rows = in.readUnsignedShort();
+        int cols = in.readUnsignedShort();
+        if (!validSize(rows, cols)) {
+            throw new IOException("Corrupted scramble descriptor size " + rows + "x" + cols + ".");
+        }
+        byte[] packed = new byte[(rows * cols + 3) / 4];
+        in.readFully(packed);
+        return new ScrambleDescriptor(seed, rows, cols, packed);
+    }
+
+    /** Checks that both dimensions are positive and the board has at most {@link #MAX_CELLS} cells. */
+    private static boolean validSize(int rows, int cols) {
+        return rows > 0 && cols > 0 && (long) rows * cols <= MAX_CELLS;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof ScrambleDescriptor other)) return false;
+        return seed == other.seed && rows == other.rows && cols == other.cols
+                && Arrays.equals(packed, other.packed);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(seed) + Arrays.hashCode(packed);
+    }
+
+    @Override
+    public String toString() {
+        return encode();
+    }
+}
@@ -0,0 +1,87 @@
+/**
+ * Soubor: src/main/java/ija.ijaProject/game/levels/Scrambler.java
+ *
+ * Popis:
+ *  Zamíchá vyřešenou úroveň tak, aby nesvítila žádná žárovka.
+ *  Pracuje nad CompactBoard, hru samotnou nemění.
+ *
+ * @Author: Yaroslav Hryn (xhryny00),Oleksandr Musiichuk (xmusii00)
+ *
+ */
+
+package ija.ijaProject.game.levels;
+
+import ija.ijaProject.game.CompactBoard;
+
+import java.util.Random;
+
+/**
+ * Scrambler picks the target rotations of a solved board in one go.
+ * Random quarter turns are accumulated on the raw connector state in
+ * batches; after every batch a single propagation pass checks that no
+ * bulb is lit. The result is a per-cell rotation array that the caller
+ * applies to the Game atomically (see {@link ija.ijaProject.game.Game#applyRotations(byte[])}).
+ */
+public class Scrambler {
+    /** Maximum number of batches before the last state is accepted as is. */
+    public static final int MAX_BATCHES = 256;
+
+    private final Random random;
+
+    /**
+     * Creates a scrambler.
+     *
+     * @param random source of randomness
+     */
+    public Scrambler(Random random) {
+        this.random = random;
+    }
+
+    /**
+     * Computes scramble rotations for a solved board.
+     *
+     * @param solved solved board (not modified)
+     * @param moves  number of random quarter turns per batch
+     * @return rotations (0..3) per cell, indexed like {@link CompactBoard}
+     */
+    public byte[] scramble(CompactBoard solved, int moves) {
+        CompactBoard work = solved.copy();
+        int[] playable = playableCells(work);
+        byte[] rotations = new byte[work.size()];
+        if (playable.length == 0) {
+            return rotations;
+        }
+
+        for (int batch = 0; batch < MAX_BATCHES; batch++) {
+            for (int m = 0; m < moves; m++) {
+                int i = playable[random.nextInt(playable.length)];
+                work.rotate(i);
+                rotations[i] = (byte) ((rotations[i] + 1) & 3);
+            }
+            work.propagate();
+            if (!work.anyBulbLit()) {
+                break;
+            }
+        }
+        return rotations;
+    }
+
+    /**
+     * Collects indices of all playable cells.
+     *
+     * @param board board to scan
+     * @return indices of cells with a node
+     */
+    private static int[] playableCells(CompactBoard board) {
+        int count = 0;
+        for (int i = 0; i < board.size(); i++) {
+            if (board.isPlayable(i)) count++;
+        }
+        int[] cells = new int[count];
+        int j = 0;
+        for (int i = 0; i < board.size(); i++) {
+            if (board.isPlayable(i)) cells[j++] = i;
+        }
+        return cells;
+    }
+}
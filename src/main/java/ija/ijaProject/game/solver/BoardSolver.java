@@ -0,0 +1,645 @@
+/**
+ * Soubor: src/main/java/ija.ijaProject/game/solver/BoardSolver.java
+ *
+ * Popis:
+ * Řešič herní desky pomocí propagace omezení a prohledávání s návratem.
+ * Pro každé políčko udržuje doménu přípustných otočení (0..3, symetrická
+ * natočení vodičů I a X jsou sloučena). Nejprve odstraní natočení,
+ * ve kterých konektor míří ven z desky, potom propaguje vynucená
+ * natočení (žárovka musí mířit na vodič nebo zdroj, který míří zpět,
+ * spoj, přes který vedou všechny možné cesty ze zdroje k některé
+ * žárovce, musí být zapojen) a zbytek větví. Větev je odříznuta,
+ * pokud už ani optimisticky nelze dosáhnout některé žárovky ze zdroje.
+ *
+ * @Author: Yaroslav Hryn (xhryny00),Oleksandr Musiichuk (xmusii00)
+ *
+ */
+
+package ija.ijaProject.game.solver;
+
+import ija.ijaProject.common.Connectors;
+import ija.ijaProject.common.Side;
+import ija.ijaProject.game.CompactBoard;
+import ija.ijaProject.game.Game;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** Řešič herní desky pomocí propagace omezení a prohledávání s návratem.
+ * Výsledkem je přiřazení otočení, při kterém svítí všechny žárovky,
+ * nejbližší takové přiřazení nebo počet všech platných přiřazení. */
+public class BoardSolver {
+    private static final Side[] SIDES = Side.values();
+    private static final int MODE_FIRST = 0;
+    private static final int MODE_COUNT = 1;
+    private static final int MODE_NEAREST = 2;
+
+    /** Počet tvarů desek, pro které se pamatuje počet řešení. */
+    private static final int COUNT_CACHE_SIZE = 64;
+
+    /** Zapamatované počty řešení podle tvaru desky (nezávisí na aktuálním natočení),
+     * nejdéle nepoužité tvary se vyřazují. */
+    private static final Map<String, long[]> COUNT_CACHE = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, long[]> eldest) {
+                    return size() > COUNT_CACHE_SIZE;
+                }
+            });
+
+    private final CompactBoard board;
+    private final int size;
+    private final int[] base;
+    private final int[] domain;
+    private final int[] union;
+    private final int[] inter;
+
+    private int[] trailIndex = new int[64];
+    private int[] trailValue = new int[64];
+    private int trailSize = 0;
+
+    private final int[] queue;
+    private final boolean[] queued;
+    private final int[] reachQueue;
+    private final int[] reachMarks;
+    private int reachEpoch = 0;
+    private final int[] dfsStack;
+    private final int[] discovery;
+    private final int[] low;
+    private final byte[] nextSide;
+    private final byte[] parentSide;
+    private final int[] subtreeBulbs;
+    private final int[] requiredEdges;
+    private final int[] certainMarks;
+    private int certainEpoch = 0;
+
+    private long searchNodes = 0;
+    private int mode;
+    private long limit;
+    private long count;
+    private int bestCost;
+    private byte[] best;
+
+    /**
+     * Vytvoří řešič pro danou desku. Deska se při řešení nemění.
+     *
+     * @param board řešená deska
+     */
+    public BoardSolver(CompactBoard board) {
+        this.board = board;
+        this.size = board.size();
+        this.base = new int[size];
+        this.domain = new int[size];
+        this.union = new int[size];
+        this.inter = new int[size];
+        this.queue = new int[size + 1];
+        this.queued = new boolean[size];
+        this.reachQueue = new int[size];
+        this.reachMarks = new int[size];
+        this.certainMarks = new int[size];
+        this.dfsStack = new int[size];
+        this.discovery = new int[size];
+        this.low = new int[size];
+        this.nextSide = new byte[size];
+        this.parentSide = new byte[size];
+        this.subtreeBulbs = new int[size];
+        this.requiredEdges = new int[size];
+
+        for (int i = 0; i < size; i++) {
+            base[i] = board.mask(i);
+        }
+    }
+
+    /**
+     * Vyřeší hru (v jejím aktuálním natočení).
+     *
+     * @param game řešená hra
+     * @return řešení nebo {@code null}, pokud neexistuje
+     */
+    public static Solution solve(Game game) {
+        return new BoardSolver(CompactBoard.fromGame(game)).solve();
+    }
+
+    /**
+     * Najde přiřazení otočení, při kterém svítí všechny žárovky.
+     *
+     * @return řešení nebo {@code null}, pokud neexistuje
+     */
+    public Solution solve() {
+        return run(MODE_FIRST, 1);
+    }
+
+    /**
+     * Najde platné přiřazení s nejmenším celkovým počtem otočení
+     * z aktuálního stavu desky (nejbližší řešení).
+     *
+     * @return nejbližší řešení nebo {@code null}, pokud neexistuje
+     */
+    public Solution solveNearest() {
+        return run(MODE_NEAREST, 1);
+    }
+
+    /**
+     * Spočítá platná přiřazení (různá natočení všech políček, při kterých
+     * svítí všechny žárovky). Počítání skončí, jakmile dosáhne {@code limit}.
+     * Výsledek je zapamatován podle tvaru desky, takže opakované dotazy
+     * pro stejnou úroveň jsou okamžité.
+     *
+     * @param limit horní mez počítání (>0)
+     * @return počet řešení, nejvýše {@code limit}
+     */
+    public long countSolutions(long limit) {
+        String key = shapeKey();
+        long[] cached = COUNT_CACHE.get(key);
+        if (cached != null && (cached[0] < cached[1] || limit <= cached[1])) {
+            return Math.min(cached[0], limit);
+        }
+        run(MODE_COUNT, limit);
+        COUNT_CACHE.put(key, new long[]{count, limit});
+        return count;
+    }
+
+    /**
+     * Spočítá hratelná políčka, jejichž natočení je určeno už propagací
+     * omezení bez větvení (měřítko obtížnosti desky: čím více vynucených
+     * políček, tím snazší deska).
+     *
+     * @return počet vynucených políček, nebo -1 pokud deska nemá řešení
+     */
+    public int countForcedCells() {
+        this.mode = MODE_FIRST;
+        if (board.powerIndex() < 0 || board.bulbCount() == 0 || !initDomains()) {
+            return -1;
+        }
+        while (true) {
+            int forced = forceRequiredEdges();
+            if (forced < 0) return -1;
+            if (forced == 0) break;
+            if (!propagate()) return -1;
+        }
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (Integer.bitCount(domain[i]) == 1) count++;
+        }
+        return count;
+    }
+
+    /** Vrací počet uzlů prohledávání posledního běhu. */
+    public long searchNodes() {
+        return searchNodes;
+    }
+
+    /**
+     * Spustí prohledávání v daném režimu.
+     *
+     * @return nalezené řešení (režimy FIRST a NEAREST) nebo {@code null}
+     */
+    private Solution run(int mode, long limit) {
+        this.mode = mode;
+        this.limit = limit;
+        this.count = 0;
+        this.bestCost = Integer.MAX_VALUE;
+        this.best = null;
+        this.searchNodes = 0;
+        if (board.powerIndex() < 0 || board.bulbCount() == 0) {
+            return null;
+        }
+        if (!initDomains()) {
+            return null;
+        }
+        search();
+        return best == null ? null : new Solution(board.rows(), board.cols(), best, searchNodes);
+    }
+
+    /** Klíč tvaru desky: typ a kanonická (nejmenší) maska každého políčka. */
+    private String shapeKey() {
+        StringBuilder sb = new StringBuilder(size * 2 + 8).append(board.cols()).append(':');
+        for (int i = 0; i < size; i++) {
+            int canonical = base[i];
+            for (int k = 1; k < 4; k++) {
+                canonical = Math.min(canonical, Connectors.rotate(base[i], k));
+            }
+            sb.append((char) ('a' + board.type(i))).append((char) ('a' + canonical));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Nastaví počáteční domény: odstraní symetrická natočení a natočení,
+     * ve kterých konektor míří ven z desky, a propaguje vynucená natočení.
+     *
+     * @return {@code false}, pokud některá doména zůstala prázdná
+     */
+    private boolean initDomains() {
+        trailSize = 0;
+        Arrays.fill(queued, false);
+        for (int i = 0; i < size; i++) {
+            domain[i] = 0;
+            if (!board.isPlayable(i)) continue;
+            int seen = 0;
+            for (int k = 0; k < 4; k++) {
+                int m = Connectors.rotate(base[i], k);
+                if ((seen & (1 << m)) != 0) continue;
+                seen |= 1 << m;
+                if (pointsOutside(i, m)) continue;
+                domain[i] |= 1 << k;
+            }
+            refreshMasks(i);
+            if (domain[i] == 0) return false;
+        }
+
+        for (int i = 0; i < size; i++) {
+            if (board.isPlayable(i)) enqueue(i);
+        }
+        return propagate();
+    }
+
+    /**
+     * Prohledávání s návratem.
+     *
+     * @return {@code true}, pokud má prohledávání skončit
+     */
+    private boolean search() {
+        searchNodes++;
+        while (true) {
+            int forced = forceRequiredEdges();
+            if (forced < 0) return false;
+            if (forced == 0) break;
+            if (!propagate()) return false;
+        }
+        if (mode == MODE_NEAREST && lowerBound() >= bestCost) {
+            return false;
+        }
+        if (allBulbsCertain()) {
+            return onSolution();
+        }
+
+        int cell = chooseCell();
+        int options = domain[cell];
+        for (int k = 0; k < 4; k++) {
+            if ((options & (1 << k)) == 0) continue;
+            int mark = trailSize;
+            setDomain(cell, 1 << k);
+            enqueueNeighbors(cell);
+            boolean stop = propagate() && search();
+            undo(mark);
+            if (stop) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Zpracuje uzel, ve kterém jistě svítí všechny žárovky. Každé zbývající
+     * natočení nerozhodnutých políček je pak také platné.
+     *
+     * @return {@code true}, pokud má prohledávání skončit
+     */
+    private boolean onSolution() {
+        switch (mode) {
+            case MODE_COUNT -> {
+                long product = 1;
+                for (int i = 0; i < size && product < limit; i++) {
+                    if (domain[i] != 0) product *= Integer.bitCount(domain[i]);
+                }
+                count = Math.min(limit, count + Math.min(product, limit));
+                return count >= limit;
+            }
+            case MODE_NEAREST -> {
+                int cost = lowerBound();
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    best = currentAssignment();
+                }
+                return bestCost == 0;
+            }
+            default -> {
+                best = currentAssignment();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Dolní odhad počtu otočení: součet nejmenších přípustných otočení
+     * jednotlivých políček. V uzlu řešení je roven skutečné ceně.
+     */
+    private int lowerBound() {
+        int cost = 0;
+        for (int i = 0; i < size; i++) {
+            if (domain[i] != 0) cost += Integer.numberOfTrailingZeros(domain[i]);
+        }
+        return cost;
+    }
+
+    /**
+     * Vybere políčko k větvení: nejmenší doména mezi nerozhodnutými
+     * políčky sousedícími s jistě napájenou částí, jinak mezi všemi
+     * optimisticky dosažitelnými.
+     */
+    private int chooseCell() {
+        int best = -1;
+        int bestSize = Integer.MAX_VALUE;
+        boolean bestOnBoundary = false;
+        for (int i = 0; i < size; i++) {
+            if (reachMarks[i] != reachEpoch || Integer.bitCount(domain[i]) < 2) continue;
+            boolean onBoundary = touchesCertain(i);
+            int s = Integer.bitCount(domain[i]);
+            if ((onBoundary && !bestOnBoundary) || (onBoundary == bestOnBoundary && s < bestSize)) {
+                best = i;
+                bestSize = s;
+                bestOnBoundary = onBoundary;
+            }
+        }
+        return best;
+    }
+
+    /** Ověří, zda políčko sousedí s jistě napájenou částí desky. */
+    private boolean touchesCertain(int i) {
+        for (Side side : SIDES) {
+            int n = board.neighbor(i, side);
+            if (n >= 0 && certainMarks[n] == certainEpoch) return true;
+        }
+        return false;
+    }
+
+    /** Sestaví výsledné přiřazení z aktuálních domén (nejmenší přípustné otočení). */
+    private byte[] currentAssignment() {
+        byte[] result = new byte[size];
+        for (int i = 0; i < size; i++) {
+            if (domain[i] != 0) {
+                result[i] = (byte) Integer.numberOfTrailingZeros(domain[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Propaguje omezení z fronty, dokud se domény mění.
+     *
+     * @return {@code false}, pokud některá doména zůstala prázdná
+     */
+    private boolean propagate() {
+        boolean ok = true;
+        int head = 0;
+        int tail = 0;
+        for (int i = 0; i < size; i++) {
+            if (queued[i]) queue[tail++] = i;
+        }
+        while (head != tail) {
+            int i = queue[head];
+            head = (head + 1) % queue.length;
+            queued[i] = false;
+            if (!ok) continue;
+
+            int filtered = 0;
+            for (int k = 0; k < 4; k++) {
+                if ((domain[i] & (1 << k)) != 0 && supported(i, Connectors.rotate(base[i], k))) {
+                    filtered |= 1 << k;
+                }
+            }
+            if (filtered == domain[i]) continue;
+            setDomain(i, filtered);
+            if (filtered == 0) {
+                ok = false;
+                continue;
+            }
+            for (Side side : SIDES) {
+                int n = board.neighbor(i, side);
+                if (n >= 0 && board.isPlayable(n) && !queued[n]) {
+                    queued[n] = true;
+                    queue[tail] = n;
+                    tail = (tail + 1) % queue.length;
+                }
+            }
+        }
+        return ok;
+    }
+
+    /**
+     * Ověří, zda je natočení {@code m} políčka {@code i} slučitelné
+     * s doménami sousedů.
+     */
+    private boolean supported(int i, int m) {
+        byte type = board.type(i);
+        if (type == CompactBoard.BULB) {
+            Side side = singleSide(m);
+            int n = board.neighbor(i, side);
+            if (n < 0) return false;
+            byte nt = board.type(n);
+            if (nt == CompactBoard.EMPTY || nt == CompactBoard.BULB) return false;
+            if ((union[n] & side.opposite().mask()) == 0) return false;
+        } else if (type == CompactBoard.POWER) {
+            boolean canConnect = false;
+            for (Side side : SIDES) {
+                if ((m & side.mask()) == 0) continue;
+                int n = board.neighbor(i, side);
+                if (n >= 0 && (union[n] & side.opposite().mask()) != 0) {
+                    canConnect = true;
+                    break;
+                }
+            }
+            if (!canConnect) return false;
+        }
+
+        for (Side side : SIDES) {
+            int n = board.neighbor(i, side);
+            if (n < 0 || board.type(n) != CompactBoard.BULB) continue;
+            boolean bulbFacesUs = (inter[n] & side.opposite().mask()) != 0;
+            if (bulbFacesUs && (m & side.mask()) == 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Optimistické šíření od zdroje (hrana existuje, pokud ji připouští
+     * alespoň jedno natočení obou políček) s hledáním mostů. Most, za kterým
+     * leží alespoň jedna žárovka, musí být zapojen, domény obou políček
+     * se proto omezí na natočení s tímto spojem.
+     *
+     * @return -1 pokud některá žárovka není dosažitelná nebo vznikla prázdná
+     *         doména, 1 pokud se některá doména zúžila, jinak 0
+     */
+    private int forceRequiredEdges() {
+        int epoch = ++reachEpoch;
+        int power = board.powerIndex();
+        int time = 0;
+        int top = 0;
+        int required = 0;
+
+        reachMarks[power] = epoch;
+        discovery[power] = low[power] = ++time;
+        nextSide[power] = 0;
+        parentSide[power] = -1;
+        subtreeBulbs[power] = 0;
+        dfsStack[top++] = power;
+
+        while (top > 0) {
+            int u = dfsStack[top - 1];
+            if (nextSide[u] < 4) {
+                Side side = SIDES[nextSide[u]++];
+                if ((union[u] & side.mask()) == 0 || side.ordinal() == parentSide[u]) continue;
+                int v = board.neighbor(u, side);
+                if (v < 0 || (union[v] & side.opposite().mask()) == 0) continue;
+                if (reachMarks[v] != epoch) {
+                    reachMarks[v] = epoch;
+                    discovery[v] = low[v] = ++time;
+                    nextSide[v] = 0;
+                    parentSide[v] = (byte) side.opposite().ordinal();
+                    subtreeBulbs[v] = board.type(v) == CompactBoard.BULB ? 1 : 0;
+                    dfsStack[top++] = v;
+                } else {
+                    low[u] = Math.min(low[u], discovery[v]);
+                }
+            } else {
+                top--;
+                if (top > 0) {
+                    int p = dfsStack[top - 1];
+                    low[p] = Math.min(low[p], low[u]);
+                    subtreeBulbs[p] += subtreeBulbs[u];
+                    if (low[u] > discovery[p] && subtreeBulbs[u] > 0) {
+                        requiredEdges[required++] = u;
+                    }
+                }
+            }
+        }
+
+        if (subtreeBulbs[power] != board.bulbCount()) {
+            return -1;
+        }
+
+        boolean changed = false;
+        for (int r = 0; r < required; r++) {
+            int child = requiredEdges[r];
+            Side toParent = SIDES[parentSide[child]];
+            int parent = board.neighbor(child, toParent);
+            int a = requireSide(child, toParent);
+            int b = requireSide(parent, toParent.opposite());
+            if (a < 0 || b < 0) return -1;
+            changed |= a > 0 || b > 0;
+        }
+        return changed ? 1 : 0;
+    }
+
+    /**
+     * Omezí doménu políčka na natočení s konektorem na dané straně.
+     *
+     * @return -1 pokud doména zůstala prázdná, 1 pokud se zúžila, jinak 0
+     */
+    private int requireSide(int i, Side side) {
+        if ((inter[i] & side.mask()) != 0) return 0;
+        int filtered = 0;
+        for (int k = 0; k < 4; k++) {
+            if ((domain[i] & (1 << k)) != 0 && (Connectors.rotate(base[i], k) & side.mask()) != 0) {
+                filtered |= 1 << k;
+            }
+        }
+        setDomain(i, filtered);
+        if (filtered == 0) return -1;
+        enqueueNeighbors(i);
+        return 1;
+    }
+
+    /**
+     * Jisté šíření od zdroje: hrana existuje, pokud ji obsahují
+     * všechna zbývající natočení obou políček.
+     *
+     * @return {@code true}, pokud jistě svítí všechny žárovky
+     */
+    private boolean allBulbsCertain() {
+        int epoch = ++certainEpoch;
+        int reached = flood(inter, certainMarks, epoch);
+        return reached == board.bulbCount();
+    }
+
+    /**
+     * Šíření od zdroje po hranách daných maskami.
+     *
+     * @return počet dosažených žárovek
+     */
+    private int flood(int[] masks, int[] marks, int epoch) {
+        int power = board.powerIndex();
+        int head = 0;
+        int tail = 0;
+        int bulbs = 0;
+        marks[power] = epoch;
+        reachQueue[tail++] = power;
+        while (head < tail) {
+            int current = reachQueue[head++];
+            if (board.type(current) == CompactBoard.BULB) bulbs++;
+            for (Side side : SIDES) {
+                if ((masks[current] & side.mask()) == 0) continue;
+                int n = board.neighbor(current, side);
+                if (n < 0 || marks[n] == epoch || (masks[n] & side.opposite().mask()) == 0) continue;
+                marks[n] = epoch;
+                reachQueue[tail++] = n;
+            }
+        }
+        return bulbs;
+    }
+
+    /** Ověří, zda některý konektor masky míří ven z desky. */
+    private boolean pointsOutside(int i, int m) {
+        for (Side side : SIDES) {
+            if ((m & side.mask()) != 0 && board.neighbor(i, side) < 0) return true;
+        }
+        return false;
+    }
+
+    /** Vrátí jedinou stranu masky žárovky. */
+    private static Side singleSide(int m) {
+        return SIDES[Integer.numberOfTrailingZeros(m)];
+    }
+
+    /** Zařadí políčko do fronty propagace. */
+    private void enqueue(int i) {
+        queued[i] = true;
+    }
+
+    /** Zařadí do fronty propagace políčko a jeho hratelné sousedy. */
+    private void enqueueNeighbors(int i) {
+        enqueue(i);
+        for (Side side : SIDES) {
+            int n = board.neighbor(i, side);
+            if (n >= 0 && board.isPlayable(n)) enqueue(n);
+        }
+    }
+
+    /** Změní doménu políčka a zapíše původní hodnotu do stopy. */
+    private void setDomain(int i, int value) {
+        if (trailSize == trailIndex.length) {
+            trailIndex = Arrays.copyOf(trailIndex, trailSize * 2);
+            trailValue = Arrays.copyOf(trailValue, trailSize * 2);
+        }
+        trailIndex[trailSize] = i;
+        trailValue[trailSize] = domain[i];
+        trailSize++;
+        domain[i] = value;
+        refreshMasks(i);
+    }
+
+    /** Vrátí domény do stavu odpovídajícího délce stopy {@code mark}. */
+    private void undo(int mark) {
+        while (trailSize > mark) {
+            trailSize--;
+            int i = trailIndex[trailSize];
+            domain[i] = trailValue[trailSize];
+            refreshMasks(i);
+        }
+    }
+
+    /** Přepočítá sjednocení a průnik masek přes doménu políčka. */
+    private void refreshMasks(int i) {
+        int u = Connectors.NONE;
+        int n = Connectors.ALL;
+        for (int k = 0; k < 4; k++) {
+            if ((domain[i] & (1 << k)) == 0) continue;
+            int m = Connectors.rotate(base[i], k);
+            u |= m;
+            n &= m;
+        }
+        union[i] = u;
+        inter[i] = domain[i] == 0 ? Connectors.NONE : n;
+    }
+}
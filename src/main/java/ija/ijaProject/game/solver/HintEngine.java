@@ -0,0 +1,116 @@
+/**
+ * Soubor: src/main/java/ija.ijaProject/game/solver/HintEngine.java
+ *
+ * Popis:
+ * Inkrementální nápověda počtu otočení. Cílové natočení každého
+ * políčka převezme z nejbližšího řešení, které na pozadí spočítá
+ * SolutionHints (stejný zdroj jako tooltip), a po otočení políčka
+ * přepočítá jen jeho hodnotu vyhledáním v tabulce otočení masek.
+ *
+ * @Author: Yaroslav Hryn (xhryny00),Oleksandr Musiichuk (xmusii00)
+ *
+ */
+
+package ija.ijaProject.game.solver;
+
+import ija.ijaProject.common.Connectors;
+import ija.ijaProject.common.GameNode;
+import ija.ijaProject.game.Game;
+
+import java.util.Arrays;
+
+/** Inkrementální nápověda počtu otočení nad {@link SolutionHints}.
+ * Sama nic neřeší: cílové masky políček převezme z posledního
+ * nejbližšího řešení při {@link #resync()} a po změně políčka přepočítá
+ * jen jeho zbývající počet otočení pomocí
+ * {@link Connectors#rotationsBetween(int, int)}. Zbývající počty
+ * se ukládají do pole, čtení je tedy bez výpočtu. Dokud řešič na pozadí
+ * nedoběhne, jsou všechny počty -1. */
+public class HintEngine {
+    private final Game game;
+    private final SolutionHints source;
+    private final int rows;
+    private final int cols;
+    private int[] targetMasks;
+    private final byte[] remaining;
+    private int totalRemaining = -1;
+
+    /**
+     * Vytvoří nápovědu a převezme cílové masky, pokud už jsou spočítané;
+     * jinak naplánuje jejich výpočet na pozadí.
+     *
+     * @param game   hraná hra
+     * @param source nejbližší řešení počítaná na pozadí pro tutéž hru
+     */
+    public HintEngine(Game game, SolutionHints source) {
+        this.game = game;
+        this.source = source;
+        this.rows = game.rows();
+        this.cols = game.cols();
+        this.remaining = new byte[rows * cols];
+        Arrays.fill(remaining, (byte) -1);
+        resync();
+    }
+
+    /**
+     * Převezme cílové masky posledního nejbližšího řešení a přepočítá
+     * všechna políčka podle jejich aktuálních masek. Volá se po
+     * aktualizaci {@link SolutionHints} na vlákně, které vlastní hru.
+     */
+    public synchronized void resync() {
+        int[] targets = source.targetMasks();
+        if (targets == null) {
+            source.requestNearest();
+            return;
+        }
+        targetMasks = targets;
+        totalRemaining = 0;
+        for (int i = 0; i < remaining.length; i++) {
+            GameNode node = game.getGameNode(i / cols + 1, i % cols + 1);
+            remaining[i] = (byte) needed(node == null ? targets[i] : node.getConnectorMask(), targets[i]);
+            totalRemaining += remaining[i];
+        }
+    }
+
+    /**
+     * Přepočítá políčko po změně jeho masky.
+     *
+     * @param row  řádek (1..rows)
+     * @param col  sloupec (1..cols)
+     * @param mask nová maska konektorů políčka
+     * @return nový počet otočení 0..3, nebo -1 pokud cíl ještě není znám
+     */
+    public synchronized int cellChanged(int row, int col, int mask) {
+        if (targetMasks == null) return -1;
+        int i = (row - 1) * cols + (col - 1);
+        int need = needed(mask, targetMasks[i]);
+        totalRemaining += need - remaining[i];
+        remaining[i] = (byte) need;
+        return need;
+    }
+
+    /**
+     * Vrací počet otočení políčka do převzatého řešení.
+     *
+     * @param row řádek (1..rows)
+     * @param col sloupec (1..cols)
+     * @return počet otočení 0..3, nebo -1 pokud cíl ještě není znám
+     */
+    public synchronized int rotationsNeeded(int row, int col) {
+        if (row < 1 || row > rows || col < 1 || col > cols) return 0;
+        return remaining[(row - 1) * cols + (col - 1)];
+    }
+
+    /**
+     * Vrací součet otočení všech políček do převzatého řešení.
+     *
+     * @return celkový počet otočení, nebo -1 pokud cíl ještě není znám
+     */
+    public synchronized int totalRemaining() {
+        return totalRemaining;
+    }
+
+    private static int needed(int mask, int target) {
+        return Math.max(0, Connectors.rotationsBetween(mask, target));
+    }
+}
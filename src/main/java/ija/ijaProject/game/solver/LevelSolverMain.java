@@ -0,0 +1,194 @@
+/**
+ * Soubor: src/main/java/ija.ijaProject/game/solver/LevelSolverMain.java
+ *
+ * Popis:
+ * Bezhlavý (bez UI) spouštěč řešiče. Vyřeší všech 30 úrovní z GameLevels,
+ * volitelně i všechny úrovně z balíků úrovní (LevelPack) a náhodně
+ * vygenerované desky, v definovaném i náhodně zamíchaném natočení
+ * a pro každou desku vypíše
+ * dobu řešení, počet uzlů prohledávání, počet otočení do nejbližšího
+ * řešení a počet platných řešení (nejvýše COUNT_LIMIT). Slouží jako referenční měření
+ * výkonu a k ověření řešitelnosti desek bez Swing UI.
+ *
+ * Spuštění: java ija.ijaProject.game.solver.LevelSolverMain [seed]
+ *           [--pack soubor.vmlp]... [--generate RxC[:žárovky]]...
+ *
+ * @Author: Yaroslav Hryn (xhryny00),Oleksandr Musiichuk (xmusii00)
+ *
+ */
+
+package ija.ijaProject.game.solver;
+
+import ija.ijaProject.game.CompactBoard;
+import ija.ijaProject.game.levels.GameLevels;
+import ija.ijaProject.game.levels.LevelGenerator;
+import ija.ijaProject.game.levels.LevelPack;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/** Bezhlavý spouštěč řešiče nad všemi úrovněmi z GameLevels a volitelně
+ * nad úrovněmi z balíků a vygenerovanými deskami. Vypisuje dobu řešení
+ * a počet uzlů prohledávání pro každou desku. */
+public class LevelSolverMain {
+    /** Mez počítání řešení. */
+    private static final long COUNT_LIMIT = 100_000;
+    private static final String USAGE =
+            "Usage: LevelSolverMain [seed] [--pack file.vmlp]... [--generate RxC[:bulbs]]...";
+
+    /**
+     * Vstupní bod.
+     *
+     * @param args volitelně seed pro zamíchání (a generování) desek, balíky
+     *             úrovní ({@code --pack}) a rozměry generovaných desek
+     *             ({@code --generate})
+     */
+    public static void main(String[] args) {
+        long seed = 42L;
+        List<Path> packs = new ArrayList<>();
+        List<int[]> generated = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--pack" -> packs.add(Paths.get(args[++i]));
+                    case "--generate" -> generated.add(parseSize(args[++i]));
+                    default -> seed = Long.parseLong(args[i]);
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        Random rnd = new Random(seed);
+        int failures = 0;
+
+        System.out.println("source;difficulty;level;cells;variant;solved;time_us;search_nodes;rotations;"
+                + "nearest_rotations;nearest_time_us;solutions;count_time_us");
+        for (int difficulty = 0; difficulty < GameLevels.DIFFICULTY_COUNT; difficulty++) {
+            for (int level = 1; level <= GameLevels.LEVELS_PER_DIFFICULTY; level++) {
+                CompactBoard defined = CompactBoard.fromGame(GameLevels.createLevelGame(level, difficulty));
+                failures += reportBoth("builtin", difficulty, level, defined, rnd);
+            }
+        }
+
+        for (Path path : packs) {
+            try (LevelPack pack = LevelPack.open(path)) {
+                String source = "pack:" + path.getFileName();
+                for (int entry = 0; entry < pack.size(); entry++) {
+                    try {
+                        CompactBoard defined = pack.board(entry);
+                        defined.propagate();
+                        failures += reportBoth(source, pack.difficulty(entry), pack.levelNumber(entry), defined, rnd);
+                    } catch (RuntimeException e) {
+                        System.err.println("Level " + pack.levelNumber(entry) + "/" + pack.difficulty(entry)
+                                + " of " + path + ": " + e.getMessage());
+                        failures++;
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Cannot read level pack " + path + ": " + e.getMessage());
+                failures++;
+            }
+        }
+
+        LevelGenerator generator = new LevelGenerator(rnd);
+        for (int i = 0; i < generated.size(); i++) {
+            int[] size = generated.get(i);
+            CompactBoard defined = generator.generate(size[0], size[1], size[2], LevelGenerator.Difficulty.MEDIUM);
+            failures += reportBoth("generated:" + size[0] + "x" + size[1], -1, i + 1, defined, rnd);
+        }
+
+        System.out.println("failures;" + failures);
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Vyřeší desku v definovaném a zamíchaném natočení.
+     *
+     * @return počet neúspěchů (0..2)
+     */
+    private static int reportBoth(String source, int difficulty, int level, CompactBoard defined, Random rnd) {
+        CompactBoard scrambled = scramble(defined, rnd);
+        int failures = 0;
+        if (!report(source, difficulty, level, "defined", defined)) failures++;
+        if (!report(source, difficulty, level, "scrambled", scrambled)) failures++;
+        return failures;
+    }
+
+    /**
+     * Vyřeší desku, ověří řešení a vypíše jeden řádek výsledků.
+     *
+     * @return {@code true}, pokud bylo nalezeno platné řešení
+     */
+    private static boolean report(String source, int difficulty, int level, String variant, CompactBoard board) {
+        long start = System.nanoTime();
+        Solution solution = new BoardSolver(board).solve();
+        long micros = (System.nanoTime() - start) / 1000;
+
+        boolean valid = solution != null && solution.applyTo(board.copy());
+
+        start = System.nanoTime();
+        Solution nearest = new BoardSolver(board).solveNearest();
+        long nearestMicros = (System.nanoTime() - start) / 1000;
+        valid &= nearest != null && nearest.applyTo(board.copy());
+
+        start = System.nanoTime();
+        long solutions = new BoardSolver(board).countSolutions(COUNT_LIMIT);
+        long countMicros = (System.nanoTime() - start) / 1000;
+
+        System.out.println(source + ";" + difficulty + ";" + level + ";" + countPlayable(board) + ";" + variant + ";"
+                + valid + ";" + micros + ";"
+                + (solution == null ? 0 : solution.searchNodes()) + ";"
+                + (solution == null ? 0 : solution.totalRotations()) + ";"
+                + (nearest == null ? 0 : nearest.totalRotations()) + ";" + nearestMicros + ";"
+                + solutions + ";" + countMicros);
+        return valid;
+    }
+
+    /**
+     * Přečte rozměr generované desky {@code RxC} nebo {@code RxC:žárovky}.
+     *
+     * @return řádky, sloupce a počet žárovek
+     * @throws IllegalArgumentException při chybném zápisu
+     */
+    private static int[] parseSize(String text) {
+        String[] parts = text.split(":", 2);
+        String[] size = parts[0].toLowerCase().split("x", 2);
+        if (size.length != 2) throw new IllegalArgumentException("Invalid board size: " + text);
+        int rows = Integer.parseInt(size[0]);
+        int cols = Integer.parseInt(size[1]);
+        int bulbs = parts.length > 1 ? Integer.parseInt(parts[1]) : Math.max(1, rows * cols / 20);
+        if (rows <= 0 || cols <= 0 || rows * cols < 2 || bulbs <= 0) {
+            throw new IllegalArgumentException("Invalid board size: " + text);
+        }
+        return new int[]{rows, cols, bulbs};
+    }
+
+    /** Vrátí kopii desky s náhodně otočenými políčky. */
+    private static CompactBoard scramble(CompactBoard board, Random rnd) {
+        CompactBoard copy = board.copy();
+        for (int i = 0; i < copy.size(); i++) {
+            if (copy.isPlayable(i)) {
+                copy.rotate(i, rnd.nextInt(4));
+            }
+        }
+        copy.propagate();
+        return copy;
+    }
+
+    /** Spočítá hratelná políčka desky. */
+    private static int countPlayable(CompactBoard board) {
+        int count = 0;
+        for (int i = 0; i < board.size(); i++) {
+            if (board.isPlayable(i)) count++;
+        }
+        return count;
+    }
+}
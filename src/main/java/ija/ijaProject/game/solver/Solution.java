@@ -0,0 +1,95 @@
+/**
+ * Soubor: src/main/java/ija.ijaProject/game/solver/Solution.java
+ *
+ * Popis:
+ * Řešení herní desky nalezené třídou BoardSolver.
+ * Pro každé políčko uchovává počet otočení o 90° po směru
+ * hodinových ručiček (0..3), které je třeba provést ze stavu
+ * desky předané řešiči, aby svítily všechny žárovky.
+ *
+ * @Author: Yaroslav Hryn (xhryny00),Oleksandr Musiichuk (xmusii00)
+ *
+ */
+
+package ija.ijaProject.game.solver;
+
+import ija.ijaProject.game.CompactBoard;
+
+/** Řešení herní desky nalezené třídou BoardSolver.
+ * Pro každé políčko uchovává počet otočení (0..3) ze stavu
+ * desky předané řešiči. */
+public final class Solution {
+    private final int rows;
+    private final int cols;
+    private final byte[] rotations;
+    private final long searchNodes;
+
+    /**
+     * Vytvoří řešení.
+     *
+     * @param rows        počet řádků desky
+     * @param cols        počet sloupců desky
+     * @param rotations   počet otočení pro každé políčko (index (row - 1) * cols + (col - 1))
+     * @param searchNodes počet uzlů prohledávání, které řešič navštívil
+     */
+    Solution(int rows, int cols, byte[] rotations, long searchNodes) {
+        this.rows = rows;
+        this.cols = cols;
+        this.rotations = rotations;
+        this.searchNodes = searchNodes;
+    }
+
+    /** Vrací počet řádků desky. */
+    public int rows() {
+        return rows;
+    }
+
+    /** Vrací počet sloupců desky. */
+    public int cols() {
+        return cols;
+    }
+
+    /** Vrací počet otočení políčka s daným indexem. */
+    public int rotations(int index) {
+        return rotations[index];
+    }
+
+    /**
+     * Vrací počet otočení políčka na zadané pozici.
+     *
+     * @param row řádek (1..rows)
+     * @param col sloupec (1..cols)
+     * @return počet otočení 0..3
+     */
+    public int rotationsAt(int row, int col) {
+        return rotations[(row - 1) * cols + (col - 1)];
+    }
+
+    /** Vrací celkový počet otočení potřebný k vyřešení. */
+    public int totalRotations() {
+        int total = 0;
+        for (byte r : rotations) {
+            total += r;
+        }
+        return total;
+    }
+
+    /** Vrací počet uzlů prohledávání, které řešič navštívil. */
+    public long searchNodes() {
+        return searchNodes;
+    }
+
+    /**
+     * Provede otočení řešení na kompaktní desce a přepočítá napájení.
+     *
+     * @param board deska ve stavu, pro který bylo řešení nalezeno
+     * @return {@code true}, pokud po aplikaci svítí všechny žárovky
+     */
+    public boolean applyTo(CompactBoard board) {
+        for (int i = 0; i < rotations.length; i++) {
+            board.rotate(i, rotations[i]);
+        }
+        board.propagate();
+        return board.allBulbsLit();
+    }
+}
@@ -0,0 +1,174 @@
+/**
+ * Soubor: src/main/java/ija.ijaProject/game/solver/SolutionHints.java
+ *
+ * Popis:
+ * Nápověda počtu otočení pro jednotlivá políčka. Místo porovnání
+ * s jednou uloženou vyřešenou kopií hry porovnává s nejbližším
+ * platným řešením aktuálního stavu (deska s vodiči I a X má často
+ * více správných řešení). Nejbližší řešení a počet řešení se počítají
+ * na pozadí; do té doby se porovnává s posledním nalezeným řešením.
+ * Jedna instance na hru slouží tooltipu i oknu nápovědy (přes
+ * HintEngine), takže oba ukazují stejné hodnoty.
+ *
+ * @Author: Yaroslav Hryn (xhryny00),Oleksandr Musiichuk (xmusii00)
+ *
+ */
+
+package ija.ijaProject.game.solver;
+
+import ija.ijaProject.common.Connectors;
+import ija.ijaProject.common.GameNode;
+import ija.ijaProject.game.CompactBoard;
+import ija.ijaProject.game.Game;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/** Nápověda počtu otočení vzhledem k nejbližšímu platnému řešení.
+ * Řešič běží na vlákně na pozadí, volající (vlákno UI) jen sejme stav
+ * desky a čte cílové masky posledního nalezeného řešení, takže
+ * {@link #rotationsNeeded(int, int)} je vždy O(1). Dokud první výpočet
+ * nedoběhne, cíl není znám; pokud řešič řešení nenajde, použije se
+ * uložená vyřešená kopie hry. */
+public class SolutionHints {
+    /** Mez počítání řešení. */
+    public static final long COUNT_LIMIT = 1000;
+
+    private static final ExecutorService SOLVER = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "solution-hints");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Game game;
+    private final Game solvedGame;
+    private final int cols;
+    private final AtomicBoolean solving = new AtomicBoolean(false);
+    private volatile int solvedRevision = -1;
+    private volatile int[] targetMasks;
+    private volatile long solutionCount = -1;
+    private final List<Runnable> updateListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Vytvoří nápovědu pro hru.
+     *
+     * @param game       hraná hra
+     * @param solvedGame uložená vyřešená kopie (záloha, pokud řešič nic nenajde)
+     */
+    public SolutionHints(Game game, Game solvedGame) {
+        this.game = game;
+        this.solvedGame = solvedGame;
+        this.cols = game.cols();
+    }
+
+    /**
+     * Přidá akci, která se zavolá (na vlákně řešiče) po nalezení
+     * nového nejbližšího řešení nebo počtu řešení.
+     *
+     * @param listener akce
+     */
+    public void addUpdateListener(Runnable listener) {
+        updateListeners.add(listener);
+    }
+
+    /**
+     * Odebere akci přidanou {@link #addUpdateListener(Runnable)}.
+     *
+     * @param listener akce
+     */
+    public void removeUpdateListener(Runnable listener) {
+        updateListeners.remove(listener);
+    }
+
+
+    /**
+     * Vrací počet otočení políčka do posledního nalezeného nejbližšího
+     * řešení. Pokud se hra od jeho výpočtu změnila, naplánuje nový výpočet.
+     *
+     * @param row řádek (1..rows)
+     * @param col sloupec (1..cols)
+     * @return počet otočení 0..3, nebo -1 pokud cíl ještě není spočítán
+     */
+    public int rotationsNeeded(int row, int col) {
+        requestNearest();
+        GameNode cur = game.getGameNode(row, col);
+        if (cur == null) return 0;
+        int[] targets = targetMasks;
+        if (targets == null) return -1;
+        return Math.max(0, Connectors.rotationsBetween(cur.getConnectorMask(), targets[(row - 1) * cols + (col - 1)]));
+    }
+
+    /**
+     * Vrací cílové masky posledního nalezeného nejbližšího řešení.
+     *
+     * @return kopie masek indexovaná (row - 1) * cols + (col - 1),
+     *         nebo null pokud ještě nejsou spočítány
+     */
+    public int[] targetMasks() {
+        int[] targets = targetMasks;
+        return targets == null ? null : targets.clone();
+    }
+
+    /**
+     * Vrací počet platných řešení úrovně (nejvýše {@link #COUNT_LIMIT}).
+     *
+     * @return počet řešení, nebo -1 pokud ještě není spočítán
+     */
+    public long solutionCount() {
+        requestNearest();
+        return solutionCount;
+    }
+
+    /** Vrací true, pokud poslední výpočet odpovídá aktuální revizi hry. */
+    boolean isCurrent() {
+        return solvedRevision == game.getRevision() && !solving.get();
+    }
+
+    /**
+     * Pokud se revize hry změnila a řešič neběží, sejme stav desky
+     * na volajícím vlákně a naplánuje hledání nejbližšího řešení.
+     */
+    public void requestNearest() {
+        int revision = game.getRevision();
+        if (revision == solvedRevision || !solving.compareAndSet(false, true)) return;
+        CompactBoard board = CompactBoard.fromGame(game);
+        try {
+            SOLVER.execute(() -> solve(board, revision));
+        } catch (RejectedExecutionException e) {
+            solving.set(false);
+        }
+    }
+
+    /** Najde nejbližší řešení (a poprvé počet řešení) pro snímek desky. */
+    private void solve(CompactBoard board, int revision) {
+        try {
+            Solution nearest = new BoardSolver(board).solveNearest();
+            int[] targets = new int[board.size()];
+            for (int i = 0; i < targets.length; i++) {
+                if (nearest != null) {
+                    targets[i] = Connectors.rotate(board.mask(i), nearest.rotations(i));
+                } else {
+                    GameNode sol = solvedGame == null ? null : solvedGame.getGameNode(i / cols + 1, i % cols + 1);
+                    targets[i] = sol == null ? board.mask(i) : sol.getConnectorMask();
+                }
+            }
+            targetMasks = targets;
+            if (solutionCount < 0) {
+                solutionCount = new BoardSolver(board).countSolutions(COUNT_LIMIT);
+            }
+            solvedRevision = revision;
+        } catch (RuntimeException e) {
+            System.err.println("Error solving board: " + e.getMessage());
+            solvedRevision = revision;
+        } finally {
+            solving.set(false);
+        }
+        for (Runnable listener : updateListeners) {
+            listener.run();
+        }
+    }
+}
@@ -14,7 +14,9 @@ package visualization;
 
 import visualization.common.ToolEnvironment;
 import visualization.common.ToolField;
+import visualization.view.BoardCanvas;
 import visualization.view.FieldView;
+import visualization.view.RepaintScheduler;
 
 import java.awt.*;
 import java.lang.reflect.InvocationTargetException;
@@ -24,21 +26,27 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.swing.JFrame;
 import javax.swing.JPanel;
+import javax.swing.JScrollPane;
 import javax.swing.SwingUtilities;
 import javax.swing.BorderFactory;
-import javax.swing.Timer;
 
 /**
- * EnvPresenter handles the visualization of the game environment and detects level completion.
+ * EnvPresenter handles the visualization of the game environment.
+ * Level completion is reported by the environment itself, see
+ * {@link ToolEnvironment#addCompletionListener(Runnable)}.
  */
 public class EnvPresenter {
+    /** System property forcing the renderer: "canvas" or "fields". */
+    public static final String RENDERER_PROPERTY = "voltmaze.renderer";
+    /** Boards with more cells than this are painted by a single {@link BoardCanvas}. */
+    public static final int CANVAS_THRESHOLD = 400;
+
     private final ToolEnvironment env;
     private List<FieldView> fields;
     private JFrame frame;
     private JPanel mainPanel;
-    private Runnable levelCompletedCallback;
-    private boolean levelCompletionDetected = false;
-    private final Timer levelCheckTimer;
+    private RepaintScheduler repaintScheduler;
+    private BoardCanvas boardCanvas;
     private ToolEnvironment environment;
     private boolean clicksEnabled = true;
     private boolean inReplayMode = false;
@@ -54,7 +62,6 @@ public class EnvPresenter {
 
         this.fields = new ArrayList<>();
        // initialize();
-        levelCheckTimer = new Timer(200, e -> checkLevelCompletion());
     }
 
     public void setReplayMode(boolean replay) {
@@ -77,7 +84,6 @@ public class EnvPresenter {
     public void init() {
         SwingUtilities.invokeLater(() -> {
             this.initialize();
-            levelCheckTimer.start();
             /*if (inReplayMode) {
                 disableUserClicks();
             }*/
@@ -87,6 +93,9 @@ public class EnvPresenter {
     public void disableUserClicks() {
         System.out.println("[EnvPresenter] disableUserClicks() called; fieldsCount = " + fields.size());
         clicksEnabled = false;
+        if (boardCanvas != null) {
+            boardCanvas.disableClicks();
+        }
         for (Component comp : mainPanel.getComponents()) {
             if (comp instanceof JPanel) {
                 JPanel maybeGrid = (JPanel) comp;
@@ -103,6 +112,9 @@ public class EnvPresenter {
 
     public void enableUserClicks() {
         this.clicksEnabled = true;
+        if (boardCanvas != null) {
+            boardCanvas.enableClicks();
+        }
         for (Component comp : mainPanel.getComponents()) {
             if (comp instanceof JPanel) {
                 JPanel maybeGrid = (JPanel) comp;
@@ -116,74 +128,47 @@ public class EnvPresenter {
         }
     }
 
-    public void refreshViews() {
-        for (Component comp : mainPanel.getComponents()) {
-            if (comp instanceof JPanel) {
-                JPanel maybeGrid = (JPanel) comp;
-                for (Component inner : maybeGrid.getComponents()) {
-                    if (inner instanceof FieldView) {
-                        ((FieldView) inner).repaint();
-                        //System.out.println("enabled clicks in Env,instance: " + inner);
-                    }
-                }
-            }
-        }
-    }
     /**
-     * Sets a callback to be called when the level is completed.
-     *
-     * @param callback The callback to run when level is completed
+     * Repaints all fields in the next frame (one coalesced repaint).
      */
-    public void setLevelCompletedCallback(Runnable callback) {
-        this.levelCompletedCallback = callback;
+    public void refreshViews() {
+        if (repaintScheduler != null) {
+            repaintScheduler.markAllDirty();
+        }
     }
 
     /**
-     * Checks if all bulbs in the game are lit, indicating level completion.
+     * Gets the scheduler that coalesces field repaints.
      *
-     * @return true if all bulbs are lit, false otherwise
+     * @return the scheduler, or null before the panel is initialized
      */
-    private boolean isLevelCompleted() {
-        boolean hasBulbs = false;
-        boolean allBulbsLit = true;
-
-        for (int row = 1; row <= env.rows(); row++) {
-            for (int col = 1; col <= env.cols(); col++) {
-                ToolField field = env.fieldAt(row, col);
-                if (field.isBulb()) {
-                    hasBulbs = true;
-                    if (!field.light()) {
-                        allBulbsLit = false;
-                        break;
-                    }
-                }
-            }
-            if (!allBulbsLit) {
-                break;
-            }
-        }
-        return hasBulbs && allBulbsLit;
+    public RepaintScheduler getRepaintScheduler() {
+        return repaintScheduler;
     }
 
     /**
-     * Checks if the level is completed and triggers the callback if needed.
+     * Returns whether the board is painted by a single {@link BoardCanvas}
+     * instead of one {@link FieldView} per cell.
+     *
+     * @return {@code true} for the canvas renderer
      */
-    private void checkLevelCompletion() {
-        if (!levelCompletionDetected && isLevelCompleted()) {
-            levelCompletionDetected = true;
-            levelCheckTimer.stop();
-            if (levelCompletedCallback != null) {
-                SwingUtilities.invokeLater(levelCompletedCallback);
-            }
-        }
+    public boolean usesCanvasRenderer() {
+        String forced = System.getProperty(RENDERER_PROPERTY);
+        if ("canvas".equals(forced)) return true;
+        if ("fields".equals(forced)) return false;
+        return env.rows() * env.cols() > CANVAS_THRESHOLD;
     }
 
     /**
      * Initializes the game UI components.
      */
     private void initialize() {
+        if (usesCanvasRenderer()) {
+            initializeCanvas();
+            return;
+        }
         System.out.println("[EnvPresenter] initialize() START; fields was: " + fields.size());
-        fields.clear();
+        disposeViews();
         this.frame = new JFrame("VoltMaze");
         this.frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
         this.frame.setSize(350, 400);
@@ -199,11 +184,13 @@ public class EnvPresenter {
         JPanel gridPanel = new JPanel(new GridLayout(rows, cols, 2, 2));
         gridPanel.setBackground(new Color(15, 23, 42)); // Dark blue background
         gridPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        repaintScheduler = new RepaintScheduler(gridPanel);
 
         for(int row = 1; row <= rows; ++row) {
             for(int col = 1; col <= cols; ++col) {
                 ToolField field = this.env.fieldAt(row, col);
                 FieldView fieldView = new FieldView(field);
+                fieldView.setRepaintScheduler(repaintScheduler);
                 gridPanel.add(fieldView);
                 this.fields.add(fieldView);
             }
@@ -221,8 +208,72 @@ public class EnvPresenter {
                 disableUserClicks();
             });
         }
+    }
+
+    /**
+     * Initializes the single-component board: no per-cell components and no frame.
+     */
+    private void initializeCanvas() {
+        System.out.println("[EnvPresenter] initialize() canvas renderer for "
+                + env.rows() + "x" + env.cols());
+        disposeViews();
+        boardCanvas = new BoardCanvas(env);
+        repaintScheduler = boardCanvas.getRepaintScheduler();
+
+        mainPanel = new JPanel(new BorderLayout());
+        mainPanel.setBackground(new Color(15, 23, 42));
+        mainPanel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
+        // desky, které se nevejdou ani s nejmenšími políčky, se posouvají
+        JScrollPane scrollPane = new JScrollPane(boardCanvas);
+        scrollPane.setBorder(BorderFactory.createEmptyBorder());
+        scrollPane.getViewport().setBackground(new Color(15, 23, 42));
+        mainPanel.add(scrollPane, BorderLayout.CENTER);
+
+        if (inReplayMode) {
+            disableUserClicks();
+        }
+    }
+
+    /**
+     * Releases the views: unregisters them from the fields and stops the
+     * repaint scheduler. Called when the presenter is replaced (level
+     * restart, leaving the game).
+     */
+    public void dispose() {
+        disposeViews();
+    }
+
+    /**
+     * Counts the observers still registered on the environment's fields,
+     * from this and any other presenter. A count that keeps growing across
+     * restarts means views are leaking.
+     *
+     * @return live observers over all fields
+     */
+    public int liveObserverCount() {
+        int count = 0;
+        for (int row = 1; row <= env.rows(); row++) {
+            for (int col = 1; col <= env.cols(); col++) {
+                count += env.fieldAt(row, col).observerCount();
+            }
+        }
+        return count;
+    }
 
-        levelCompletionDetected = false;
+    /** Unregisters the current field views or canvas from the fields. */
+    private void disposeViews() {
+        for (FieldView fieldView : fields) {
+            fieldView.dispose();
+        }
+        fields.clear();
+        if (boardCanvas != null) {
+            boardCanvas.dispose();
+            boardCanvas = null;
+        }
+        if (repaintScheduler != null) {
+            repaintScheduler.stop();
+            repaintScheduler = null;
+        }
     }
 
     /**
@@ -249,6 +300,7 @@ public class EnvPresenter {
         System.out.println("[EnvPresenter] this=" + this
                 + ", inReplayMode=" + inReplayMode
                 + ", panel=" + mainPanel
-                + ", fieldsCount=" + fields.size());
+                + ", fieldsCount=" + fields.size()
+                + ", liveObservers=" + liveObserverCount());
     }
 }
\ No newline at end of file
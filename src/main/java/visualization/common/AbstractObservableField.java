@@ -14,31 +14,154 @@
 
 package visualization.common;
 
-import java.util.HashSet;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.Set;
 
 /** Abstraktní třída reprezentující pole (ToolField),
  *  který je Observable. Implementuje metody z rozhraní Observable,
  *  tj. umožňuje vkládat a rušit observery a notifikovat registrované
- *  observery o změnách. */
+ *  observery o změnách. Registrace jsou v poli, které se při změně
+ *  kopíruje, takže observer se může během notifikace odregistrovat;
+ *  slabé registrace uvolněné GC se při notifikaci vyřadí. */
 public abstract class AbstractObservableField implements ToolField {
-    private final Set<Observable.Observer> observers = new HashSet();
+    private static final Registration[] NONE = new Registration[0];
+
+    private volatile Registration[] registrations = NONE;
 
     /** Konstruktor. */
     public AbstractObservableField() {
     }
 
     /** Registruje nový observer. */
-    public void addObserver(Observable.Observer var1) {
-        this.observers.add(var1);
+    public Subscription addObserver(Observable.Observer var1) {
+        return addObserver(var1, ChangeEvent.Kind.all());
+    }
+
+    /** Registruje observer jen pro dané druhy změn. */
+    public Subscription addObserver(Observable.Observer var1, Set<ChangeEvent.Kind> kinds) {
+        return register(var1, kinds, false);
     }
+
+    /** Registruje observer slabou referencí jen pro dané druhy změn. */
+    public Subscription addWeakObserver(Observable.Observer var1, Set<ChangeEvent.Kind> kinds) {
+        return register(var1, kinds, true);
+    }
+
     /** Odregistruje observer. */
-    public void removeObserver(Observable.Observer var1) {
-        this.observers.remove(var1);
+    public synchronized void removeObserver(Observable.Observer var1) {
+        for (Registration registration : registrations) {
+            if (registration.observer() == var1) {
+                remove(registration);
+                return;
+            }
+        }
+    }
+
+    /** Vrací počet živých observerů (slabé registrace uvolněné GC se nepočítají). */
+    public synchronized int observerCount() {
+        purge();
+        return registrations.length;
     }
 
     /** Notifikuje (informuje) registrované observery, že došlo ke změně stavu objektu.*/
     public void notifyObservers() {
-        this.observers.forEach((var1) -> var1.update(this));
+        boolean cleared = false;
+        for (Registration registration : registrations) {
+            Observable.Observer observer = registration.observer();
+            if (observer == null) {
+                cleared = true;
+            } else {
+                observer.update(this, null);
+            }
+        }
+        if (cleared) purge();
+    }
+
+    /** Notifikuje observery přihlášené k některému z druhů změny v události. */
+    public void notifyObservers(ChangeEvent event) {
+        if (event.isEmpty()) return;
+        boolean cleared = false;
+        for (Registration registration : registrations) {
+            if (!event.matches(registration.kinds)) continue;
+            Observable.Observer observer = registration.observer();
+            if (observer == null) {
+                cleared = true;
+            } else {
+                observer.update(this, event);
+            }
+        }
+        if (cleared) purge();
+    }
+
+    /** Přidá registraci; opakovaná registrace téhož observeru nahradí původní. */
+    private synchronized Subscription register(Observable.Observer observer, Set<ChangeEvent.Kind> kinds, boolean weak) {
+        Registration registration = new Registration(observer, kinds, weak);
+        for (int i = 0; i < registrations.length; i++) {
+            if (registrations[i].observer() == observer) {
+                Registration[] next = registrations.clone();
+                next[i] = registration;
+                registrations = next;
+                return registration;
+            }
+        }
+        Registration[] next = Arrays.copyOf(registrations, registrations.length + 1);
+        next[registrations.length] = registration;
+        registrations = next;
+        return registration;
+    }
+
+    private synchronized void remove(Registration registration) {
+        int index = Arrays.asList(registrations).indexOf(registration);
+        if (index < 0) return;
+        Registration[] next = new Registration[registrations.length - 1];
+        System.arraycopy(registrations, 0, next, 0, index);
+        System.arraycopy(registrations, index + 1, next, index, next.length - index);
+        registrations = next;
+    }
+
+    /** Vyřadí slabé registrace, jejichž observer uvolnil GC. */
+    private synchronized void purge() {
+        int live = 0;
+        for (Registration registration : registrations) {
+            if (registration.observer() != null) live++;
+        }
+        if (live == registrations.length) return;
+        Registration[] next = new Registration[live];
+        int i = 0;
+        for (Registration registration : registrations) {
+            if (registration.observer() != null) next[i++] = registration;
+        }
+        registrations = next;
+    }
+
+    /** Registrace jednoho observeru (silná nebo slabá). */
+    private final class Registration implements Subscription {
+        private final Observable.Observer strong;
+        private final WeakReference<Observable.Observer> weak;
+        private final Set<ChangeEvent.Kind> kinds;
+
+        private Registration(Observable.Observer observer, Set<ChangeEvent.Kind> kinds, boolean weak) {
+            this.strong = weak ? null : observer;
+            this.weak = weak ? new WeakReference<>(observer) : null;
+            this.kinds = kinds.isEmpty() ? EnumSet.noneOf(ChangeEvent.Kind.class) : EnumSet.copyOf(kinds);
+        }
+
+        private Observable.Observer observer() {
+            return strong != null ? strong : weak.get();
+        }
+
+        @Override
+        public void close() {
+            remove(this);
+        }
+
+        @Override
+        public boolean isActive() {
+            synchronized (AbstractObservableField.this) {
+                return observer() != null && Arrays.asList(registrations).contains(this);
+            }
+        }
     }
-}
\ No newline at end of file
+}
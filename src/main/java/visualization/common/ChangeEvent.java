@@ -0,0 +1,159 @@
+/**
+ * Soubor: src/main/java/visualization/common/ChangeEvent.java
+ *
+ * Popis:
+ *
+ *  Popis změny stavu políčka, který Observable předává observerům:
+ *  druhy změny a původní i nové hodnoty konektorů, napájení
+ *  a počtu otočení.
+ *
+ * @Author: Yaroslav Hryn (xhryny00),Oleksandr Musiichuk (xmusii00)
+ *
+ */
+
+package visualization.common;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/** Popis změny stavu políčka. Nese množinu druhů změny ({@link Kind})
+ *  a původní i nové hodnoty masky konektorů (N=1, E=2, S=4, W=8),
+ *  napájení a počtu otočení. Observer se podle druhů může přihlásit
+ *  jen k některým změnám, viz {@link Observable#addObserver(Observable.Observer, Set)}. */
+public final class ChangeEvent {
+    /** Druh změny. */
+    public enum Kind {
+        /** Změnil se typ políčka (vodič, žárovka, zdroj). */
+        TYPE,
+        /** Změnila se maska konektorů. */
+        CONNECTORS,
+        /** Změnilo se napájení. */
+        POWER,
+        /** Změnil se počet otočení políčka. */
+        ROTATION;
+
+        /** Všechny druhy změn. */
+        public static Set<Kind> all() {
+            return EnumSet.allOf(Kind.class);
+        }
+    }
+
+    private final Set<Kind> kinds;
+    private final int oldConnectors;
+    private final int newConnectors;
+    private final boolean oldPowered;
+    private final boolean newPowered;
+    private final int oldRotationCount;
+    private final int newRotationCount;
+
+    /**
+     * Vytvoří událost s explicitně zadanými druhy změny.
+     *
+     * @param kinds            druhy změny
+     * @param oldConnectors    původní maska konektorů
+     * @param newConnectors    nová maska konektorů
+     * @param oldPowered       původní napájení
+     * @param newPowered       nové napájení
+     * @param oldRotationCount původní počet otočení
+     * @param newRotationCount nový počet otočení
+     */
+    public ChangeEvent(Set<Kind> kinds, int oldConnectors, int newConnectors,
+                       boolean oldPowered, boolean newPowered,
+                       int oldRotationCount, int newRotationCount) {
+        this.kinds = kinds.isEmpty()
+                ? Collections.emptySet()
+                : Collections.unmodifiableSet(EnumSet.copyOf(kinds));
+        this.oldConnectors = oldConnectors;
+        this.newConnectors = newConnectors;
+        this.oldPowered = oldPowered;
+        this.newPowered = newPowered;
+        this.oldRotationCount = oldRotationCount;
+        this.newRotationCount = newRotationCount;
+    }
+
+    /**
+     * Vytvoří událost, jejíž druhy odpovídají hodnotám, které se liší.
+     *
+     * @param oldConnectors    původní maska konektorů
+     * @param newConnectors    nová maska konektorů
+     * @param oldPowered       původní napájení
+     * @param newPowered       nové napájení
+     * @param oldRotationCount původní počet otočení
+     * @param newRotationCount nový počet otočení
+     * @return událost (může mít prázdnou množinu druhů, pokud se nic nezměnilo)
+     */
+    public static ChangeEvent of(int oldConnectors, int newConnectors,
+                                 boolean oldPowered, boolean newPowered,
+                                 int oldRotationCount, int newRotationCount) {
+        Set<Kind> kinds = EnumSet.noneOf(Kind.class);
+        if (oldConnectors != newConnectors) kinds.add(Kind.CONNECTORS);
+        if (oldPowered != newPowered) kinds.add(Kind.POWER);
+        if (oldRotationCount != newRotationCount) kinds.add(Kind.ROTATION);
+        return new ChangeEvent(kinds, oldConnectors, newConnectors,
+                oldPowered, newPowered, oldRotationCount, newRotationCount);
+    }
+
+    /** Vrací neměnnou množinu druhů změny. */
+    public Set<Kind> kinds() {
+        return kinds;
+    }
+
+    /** Ověřuje, zda událost obsahuje daný druh změny. */
+    public boolean is(Kind kind) {
+        return kinds.contains(kind);
+    }
+
+    /**
+     * Ověřuje, zda událost obsahuje alespoň jeden z daných druhů změny.
+     *
+     * @param filter druhy, o které má observer zájem
+     * @return true pokud se množiny protínají
+     */
+    public boolean matches(Set<Kind> filter) {
+        return !Collections.disjoint(kinds, filter);
+    }
+
+    /** Ověřuje, zda se nic nezměnilo (prázdná množina druhů). */
+    public boolean isEmpty() {
+        return kinds.isEmpty();
+    }
+
+    /** Vrací původní masku konektorů. */
+    public int oldConnectors() {
+        return oldConnectors;
+    }
+
+    /** Vrací novou masku konektorů. */
+    public int newConnectors() {
+        return newConnectors;
+    }
+
+    /** Vrací původní napájení. */
+    public boolean oldPowered() {
+        return oldPowered;
+    }
+
+    /** Vrací nové napájení. */
+    public boolean newPowered() {
+        return newPowered;
+    }
+
+    /** Vrací původní počet otočení. */
+    public int oldRotationCount() {
+        return oldRotationCount;
+    }
+
+    /** Vrací nový počet otočení. */
+    public int newRotationCount() {
+        return newRotationCount;
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeEvent" + kinds
+                + "{connectors " + oldConnectors + "->" + newConnectors
+                + ", powered " + oldPowered + "->" + newPowered
+                + ", rotations " + oldRotationCount + "->" + newRotationCount + "}";
+    }
+}
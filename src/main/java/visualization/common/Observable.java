@@ -12,20 +12,70 @@
 
 package visualization.common;
 
+import java.util.Set;
+
 /** Rozhraní Observable reprezentující objekty,
  *  které mohou notifikovat závislé objekty (observers) o změnách. */
 public interface Observable {
-    /** Registruje nový observer. */
-    void addObserver(Observer var1);
+    /**
+     * Registruje nový observer pro všechny druhy změn. Objekt drží observer
+     * silnou referencí, dokud se neodregistruje.
+     *
+     * @param var1 observer
+     * @return registrace, jejímž zavřením se observer odregistruje
+     */
+    Subscription addObserver(Observer var1);
+
+    /**
+     * Registruje observer jen pro dané druhy změn. Notifikace bez popisu
+     * změny ({@link #notifyObservers()}) dostane observer vždy.
+     *
+     * @param var1  observer
+     * @param kinds druhy změn, o které má observer zájem
+     * @return registrace, jejímž zavřením se observer odregistruje
+     */
+    Subscription addObserver(Observer var1, Set<ChangeEvent.Kind> kinds);
+
+    /**
+     * Registruje observer slabou referencí: registrace nebrání uvolnění
+     * observeru a po jeho uvolnění GC zanikne sama. Observer musí držet
+     * jeho vlastník (komponenta, {@link SubscriptionScope}).
+     *
+     * @param var1  observer
+     * @param kinds druhy změn, o které má observer zájem
+     * @return registrace, jejímž zavřením se observer odregistruje
+     */
+    Subscription addWeakObserver(Observer var1, Set<ChangeEvent.Kind> kinds);
 
     /** Odregistruje observer.*/
     void removeObserver(Observer var1);
 
+    /** Vrací počet živých registrovaných observerů (diagnostika úniků). */
+    int observerCount();
+
     /** Notifikuje (informuje) registrované observery, že došlo ke změně stavu objektu */
     void notifyObservers();
 
+    /**
+     * Notifikuje observery přihlášené k některému z druhů změny v události.
+     *
+     * @param event popis změny
+     */
+    void notifyObservers(ChangeEvent event);
+
     /** Rozhraní Observer reprezentující objekty, které mohou registrovány u objektů Observable a přijímají notifikace o jejich změnách. */
     public interface Observer {
         void update(Observable var1);
+
+        /**
+         * Přijme notifikaci s popisem změny. Výchozí implementace popis
+         * ignoruje a volá {@link #update(Observable)}.
+         *
+         * @param var1  zdroj notifikace
+         * @param event popis změny, nebo null pokud není znám
+         */
+        default void update(Observable var1, ChangeEvent event) {
+            update(var1);
+        }
     }
 }
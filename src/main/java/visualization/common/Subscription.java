@@ -0,0 +1,24 @@
+/**
+ * Soubor: src/main/java/visualization/common/Subscription.java
+ *
+ * Popis:
+ *
+ *  Registrace observeru u objektu Observable, kterou lze zrušit.
+ *
+ * @Author: Yaroslav Hryn (xhryny00),Oleksandr Musiichuk (xmusii00)
+ *
+ */
+
+package visualization.common;
+
+/** Registrace observeru u objektu Observable. Vrací ji
+ *  {@link Observable#addObserver(Observable.Observer)} a jeho varianty;
+ *  {@link #close()} observer odregistruje. */
+public interface Subscription extends AutoCloseable {
+    /** Odregistruje observer. Opakované volání nic nedělá. */
+    @Override
+    void close();
+
+    /** Ověřuje, zda je observer stále registrován (nebyl odregistrován ani uvolněn GC). */
+    boolean isActive();
+}
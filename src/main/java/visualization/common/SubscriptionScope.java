@@ -0,0 +1,90 @@
+/**
+ * Soubor: src/main/java/visualization/common/SubscriptionScope.java
+ *
+ * Popis:
+ *
+ *  Skupina registrací observerů s jedním vlastníkem (prezentér, okno).
+ *  Při zavření vlastníka se všechny registrace zruší najednou.
+ *
+ * @Author: Yaroslav Hryn (xhryny00),Oleksandr Musiichuk (xmusii00)
+ *
+ */
+
+package visualization.common;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/** Skupina registrací observerů s jedním vlastníkem. Observery registruje
+ *  u políček slabě ({@link Observable#addWeakObserver}) a silné reference
+ *  drží sama, takže observer žije, dokud žije vlastník rozsahu.
+ *  {@link #close()} registrace zruší; když vlastník zavřít zapomene,
+ *  uvolní je po jeho zániku garbage collector. */
+public class SubscriptionScope implements AutoCloseable {
+    private final List<Subscription> subscriptions = new ArrayList<>();
+    private final Set<Observable.Observer> observers = Collections.newSetFromMap(new IdentityHashMap<>());
+    private boolean closed = false;
+
+    /**
+     * Registruje observer pro všechny druhy změn.
+     *
+     * @param source   pozorovaný objekt
+     * @param observer observer
+     * @return registrace
+     */
+    public Subscription observe(Observable source, Observable.Observer observer) {
+        return observe(source, observer, ChangeEvent.Kind.all());
+    }
+
+    /**
+     * Registruje observer jen pro dané druhy změn.
+     *
+     * @param source   pozorovaný objekt
+     * @param observer observer
+     * @param kinds    druhy změn, o které má observer zájem
+     * @return registrace
+     * @throws IllegalStateException pokud už byl rozsah zavřen
+     */
+    public Subscription observe(Observable source, Observable.Observer observer, Set<ChangeEvent.Kind> kinds) {
+        if (closed) {
+            throw new IllegalStateException("Subscription scope already closed.");
+        }
+        Subscription subscription = source.addWeakObserver(observer, kinds);
+        subscriptions.add(subscription);
+        observers.add(observer);
+        return subscription;
+    }
+
+    /**
+     * Vrací počet aktivních registrací v rozsahu.
+     *
+     * @return počet registrací
+     */
+    public int size() {
+        int active = 0;
+        for (Subscription subscription : subscriptions) {
+            if (subscription.isActive()) active++;
+        }
+        return active;
+    }
+
+    /** Ověřuje, zda byl rozsah zavřen. */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /** Zruší všechny registrace. Opakované volání nic nedělá. */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        for (Subscription subscription : subscriptions) {
+            subscription.close();
+        }
+        subscriptions.clear();
+        observers.clear();
+    }
+}
@@ -33,4 +33,13 @@ public interface ToolEnvironment {
 
     /** Zjišťuje konkrétní políčko na zadaných souřadnicích prostředí. */
     ToolField fieldAt(int var1, int var2);
+
+    /** Zaregistruje posluchače dokončení úrovně (rozsvícení všech žárovek).
+     *  Prostředí, které dokončení nesleduje, posluchače ignoruje. */
+    default void addCompletionListener(Runnable listener) {
+    }
+
+    /** Odebere posluchače dokončení úrovně. */
+    default void removeCompletionListener(Runnable listener) {
+    }
 }
@@ -0,0 +1,287 @@
+/**
+ * Soubor: src/main/java/visualization/view/BoardCanvas.java
+ *
+ * Popis:
+ *  Vykreslí celou herní desku na jedinou komponentu. Nahrazuje mřížku
+ *  komponent FieldView u velkých desek: políčko pod myší se určuje
+ *  výpočtem a změny modelu se překreslují jen v dotčené oblasti.
+ *  Desky, které se do okna nevejdou ani s nejmenšími políčky, se posouvají.
+ *
+ *
+ * @Author: Yaroslav Hryn (xhryny00), Oleksandr Musiichuk (xmusii00)
+ */
+
+package visualization.view;
+
+import ija.ijaProject.common.Position;
+import visualization.common.Observable;
+import visualization.common.SubscriptionScope;
+import visualization.common.ToolEnvironment;
+import visualization.common.ToolField;
+
+import javax.swing.JComponent;
+import javax.swing.JViewport;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+
+/**
+ * Deska vykreslená jednou komponentou. Vzhled políček odpovídá
+ * {@link FieldView} (stejné dlaždice z {@link TileSpriteCache}, rámeček,
+ * mezery 2 px a okraj 10 px jako u mřížky v {@code EnvPresenter}).
+ * Kliknutí a zvýraznění pod myší se řeší výpočtem řádku a sloupce,
+ * na modelu je zaregistrován jediný pozorovatel sdílený všemi políčky
+ * a překreslení jde přes {@link RepaintScheduler}.
+ * Ve {@link javax.swing.JScrollPane} se deska přizpůsobí velikosti okna,
+ * dokud políčka nejsou menší než {@link #MIN_CELL}; pak zůstane v této
+ * velikosti a posouvá se.
+ */
+public class BoardCanvas extends JComponent implements Scrollable {
+    /** Nejmenší velikost políčka v pixelech. */
+    public static final int MIN_CELL = 8;
+    private static final int MARGIN = 10;
+    private static final int GAP = 2;
+    private static final int PREFERRED_CELL = 50;
+    private static final Color BACKGROUND = new Color(15, 23, 42);
+
+    private final ToolEnvironment env;
+    private final int rows;
+    private final int cols;
+    private final RepaintScheduler repaintScheduler;
+    private final Observable.Observer modelObserver = this::fieldChanged;
+    private final SubscriptionScope subscriptions = new SubscriptionScope();
+    private boolean clicksEnabled = true;
+    private int hoverRow = 0;
+    private int hoverCol = 0;
+    private int updateCount = 0;
+
+    /**
+     * Vytvoří desku pro dané prostředí a zaregistruje se u jeho políček.
+     *
+     * @param env vizualizované prostředí
+     */
+    public BoardCanvas(ToolEnvironment env) {
+        this.env = env;
+        this.rows = env.rows();
+        this.cols = env.cols();
+        this.repaintScheduler = new RepaintScheduler(this);
+
+        setOpaque(true);
+        setBackground(BACKGROUND);
+        setMinimumSize(boardSize(MIN_CELL));
+
+        for (int row = 1; row <= rows; row++) {
+            for (int col = 1; col <= cols; col++) {
+                subscriptions.observe(env.fieldAt(row, col), modelObserver, FieldView.VISIBLE_CHANGES);
+            }
+        }
+
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                Position cell = cellAt(e.getX(), e.getY());
+                if (!clicksEnabled || cell == null) return;
+                env.fieldAt(cell.row(), cell.col()).turn();
+            }
+
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                Position cell = cellAt(e.getX(), e.getY());
+                setHover(cell == null ? 0 : cell.row(), cell == null ? 0 : cell.col());
+            }
+
+            @Override
+            public void mouseExited(MouseEvent e) {
+                setHover(0, 0);
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+    }
+
+    public void disableClicks() {
+        this.clicksEnabled = false;
+    }
+
+    public void enableClicks() {
+        this.clicksEnabled = true;
+    }
+
+    public boolean isClicksEnabled() {
+        return clicksEnabled;
+    }
+
+    /**
+     * Vrací plánovač, přes který se deska překresluje.
+     *
+     * @return plánovač překreslení
+     */
+    public RepaintScheduler getRepaintScheduler() {
+        return repaintScheduler;
+    }
+
+    /**
+     * Vrací počet obdržených notifikací modelu.
+     *
+     * @return počet notifikací
+     */
+    public int numberUpdates() {
+        return updateCount;
+    }
+
+    /**
+     * Odregistruje pozorovatele z políček a zastaví plánovač.
+     */
+    public void dispose() {
+        repaintScheduler.stop();
+        subscriptions.close();
+    }
+
+    /**
+     * Vrátí políčko na daných souřadnicích komponenty.
+     *
+     * @param x souřadnice x
+     * @param y souřadnice y
+     * @return pozice políčka, nebo null pokud bod leží v okraji či mezeře
+     */
+    public Position cellAt(int x, int y) {
+        int cell = cellSize();
+        int stride = cell + GAP;
+        int dx = x - originX(cell);
+        int dy = y - originY(cell);
+        if (dx < 0 || dy < 0) return null;
+        int col = dx / stride;
+        int row = dy / stride;
+        if (col >= cols || row >= rows || dx % stride >= cell || dy % stride >= cell) return null;
+        return new Position(row + 1, col + 1);
+    }
+
+    /**
+     * Vrátí oblast políčka v souřadnicích komponenty.
+     *
+     * @param row řádek (od 1)
+     * @param col sloupec (od 1)
+     * @return obdélník políčka
+     */
+    public Rectangle cellBounds(int row, int col) {
+        int cell = cellSize();
+        return new Rectangle(originX(cell) + (col - 1) * (cell + GAP), originY(cell) + (row - 1) * (cell + GAP),
+                cell, cell);
+    }
+
+    /**
+     * Velikost desky s políčky {@code PREFERRED_CELL}; ve viewportu, do kterého
+     * se deska nevejde ani s políčky {@link #MIN_CELL}, velikost s nejmenšími
+     * políčky (v té se pak posouvá).
+     */
+    @Override
+    public Dimension getPreferredSize() {
+        if (isPreferredSizeSet()) return super.getPreferredSize();
+        if (getParent() instanceof JViewport
+                && (!getScrollableTracksViewportWidth() || !getScrollableTracksViewportHeight())) {
+            return boardSize(MIN_CELL);
+        }
+        return boardSize(PREFERRED_CELL);
+    }
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return boardSize(PREFERRED_CELL);
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return cellSize() + GAP;
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        int extent = orientation == SwingConstants.HORIZONTAL ? visibleRect.width : visibleRect.height;
+        return Math.max(cellSize() + GAP, extent - (cellSize() + GAP));
+    }
+
+    /** Deska sleduje šířku viewportu, dokud se do ní vejde s nejmenšími políčky. */
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return !(getParent() instanceof JViewport viewport) || viewport.getWidth() >= boardSize(MIN_CELL).width;
+    }
+
+    /** Deska sleduje výšku viewportu, dokud se do ní vejde s nejmenšími políčky. */
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return !(getParent() instanceof JViewport viewport) || viewport.getHeight() >= boardSize(MIN_CELL).height;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2d = (Graphics2D) g;
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+        g2d.setColor(BACKGROUND);
+        g2d.fill(clip);
+
+        int cell = cellSize();
+        int stride = cell + GAP;
+        int x0 = originX(cell);
+        int y0 = originY(cell);
+        int firstCol = Math.max(0, (clip.x - x0) / stride);
+        int lastCol = Math.min(cols - 1, (clip.x + clip.width - x0) / stride);
+        int firstRow = Math.max(0, (clip.y - y0) / stride);
+        int lastRow = Math.min(rows - 1, (clip.y + clip.height - y0) / stride);
+
+        TileSpriteCache sprites = TileSpriteCache.shared();
+        for (int r = firstRow; r <= lastRow; r++) {
+            for (int c = firstCol; c <= lastCol; c++) {
+                int x = x0 + c * stride;
+                int y = y0 + r * stride;
+                g2d.translate(x, y);
+                sprites.paint(g2d, env.fieldAt(r + 1, c + 1), r + 1 == hoverRow && c + 1 == hoverCol, cell, cell);
+                g2d.setColor(Color.DARK_GRAY);
+                g2d.drawRect(0, 0, cell - 1, cell - 1);
+                g2d.translate(-x, -y);
+            }
+        }
+    }
+
+    /** Velikost políčka podle aktuální velikosti komponenty, nejméně {@link #MIN_CELL}. */
+    private int cellSize() {
+        int w = (getWidth() - 2 * MARGIN - (cols - 1) * GAP) / cols;
+        int h = (getHeight() - 2 * MARGIN - (rows - 1) * GAP) / rows;
+        return Math.max(MIN_CELL, Math.min(w, h));
+    }
+
+    /** Velikost celé desky (s okrajem) pro danou velikost políčka. */
+    private Dimension boardSize(int cell) {
+        return new Dimension(2 * MARGIN + cols * cell + (cols - 1) * GAP,
+                2 * MARGIN + rows * cell + (rows - 1) * GAP);
+    }
+
+    /** Levý okraj mřížky (mřížka je vystředěná). */
+    private int originX(int cell) {
+        return (getWidth() - cols * cell - (cols - 1) * GAP) / 2;
+    }
+
+    /** Horní okraj mřížky (mřížka je vystředěná). */
+    private int originY(int cell) {
+        return (getHeight() - rows * cell - (rows - 1) * GAP) / 2;
+    }
+
+    private void setHover(int row, int col) {
+        if (row == hoverRow && col == hoverCol) return;
+        if (hoverRow > 0) repaintScheduler.markDirty(cellBounds(hoverRow, hoverCol));
+        hoverRow = row;
+        hoverCol = col;
+        if (hoverRow > 0) repaintScheduler.markDirty(cellBounds(hoverRow, hoverCol));
+    }
+
+    /** Pozorovatel modelu: překreslí oblast změněného políčka. */
+    private void fieldChanged(Observable observable) {
+        updateCount++;
+        if (observable instanceof ToolField field) {
+            Position pos = field.getPosition();
+            repaintScheduler.markDirty(cellBounds(pos.row(), pos.col()));
+        }
+    }
+}
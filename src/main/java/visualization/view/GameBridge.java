@@ -3,8 +3,8 @@
  *
  * Popis:
  * Třída GameBridge slouží jako most mezi herní logikou (Game) a JavaFX UI.
- *  Pravidelně kontroluje stav hry a při zjištění, že jsou všechny žárovky rozsvíceny,
- * vyvolá zaregistrované posluchače dokončení hry.
+ *  Odebírá událost dokončení hry (rozsvícení všech žárovek) a předává ji
+ * zaregistrovaným posluchačům.
  *
  *
  * @Author: Yaroslav Hryn (xhryny00)
@@ -16,22 +16,20 @@
 package visualization.view;
 
 import ija.ijaProject.game.Game;
-import visualization.common.ToolField;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Timer;
-import java.util.TimerTask;
 
 /**
  * GameBridge connects the Game logic with the JavaFX UI.
- * It monitors the game state and notifies listeners when the game is completed.
+ * It subscribes to the completion event of the game and notifies listeners when the game is completed.
  */
 public class GameBridge {
     private final Game game;
     private final List<Runnable> completionListeners = new ArrayList<>();
     private boolean isCompleted = false;
-    private Timer completionTimer;
+    private final Runnable gameListener = this::onGameCompleted;
+    private boolean monitoring = false;
 
     /**
      * Creates a new GameBridge for the specified game.
@@ -60,17 +58,19 @@ public class GameBridge {
      * Starts monitoring the game state for completion.
      */
     private void startMonitoring() {
-        completionTimer = new Timer(true);
-        completionTimer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                if (isGameCompleted() && !isCompleted) {
-                    isCompleted = true;
-                    notifyCompletionListeners();
-                    completionTimer.cancel();
-                }
-            }
-        }, 1000, 1000);
+        monitoring = true;
+        game.addCompletionListener(gameListener);
+    }
+
+    /**
+     * Called by the game when all bulbs are lit.
+     */
+    private void onGameCompleted() {
+        if (!isCompleted) {
+            isCompleted = true;
+            notifyCompletionListeners();
+            stopMonitoring();
+        }
     }
 
     /**
@@ -86,32 +86,13 @@ public class GameBridge {
         }
     }
 
-    /**
-     * Checks if the game is completed by examining if all bulbs are lit.
-     *
-     * @return true if all bulbs are lit, false otherwise
-     */
-    private boolean isGameCompleted() {
-        for (int row = 1; row <= game.rows(); row++) {
-            for (int col = 1; col <= game.cols(); col++) {
-                ToolField field = game.fieldAt(row, col);
-
-                if (field != null && field.isBulb() && !field.light()) {
-                    return false;
-                }
-            }
-        }
-
-        return true;
-    }
-
     /**
      * Stops monitoring the game state.
      */
     public void stopMonitoring() {
-        if (completionTimer != null) {
-            completionTimer.cancel();
-            completionTimer = null;
+        if (monitoring) {
+            monitoring = false;
+            game.removeCompletionListener(gameListener);
         }
     }
 }
\ No newline at end of file
@@ -11,14 +11,13 @@
 
 package visualization.view;
 
-import ija.ijaProject.common.GameNode;
 import ija.ijaProject.game.levels.*;
 import ija.ijaProject.game.Game;
+import ija.ijaProject.game.solver.SolutionHints;
 import javafx.animation.FadeTransition;
 import javafx.animation.PauseTransition;
-import javafx.animation.Timeline;
-import javafx.animation.KeyFrame;
 import javafx.application.Platform;
+import javafx.collections.MapChangeListener;
 import javafx.embed.swing.SwingNode;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
@@ -68,12 +67,13 @@ public class GamePlayView {
     private GameBridge gameBridge;
     private Runnable onLevelCompleted;
     private boolean levelAlreadyCompleted = false;
-    private Timeline gameNodeCheckTimeline;
+    private MapChangeListener<Object, Object> gameReadyListener;
     //private final SwingNode swingNode;
     private Stage infoStage;
     private Button stepBackButton;
     private Button stepForwardButton;
     private Button playModeButton;
+    private ReplayControls replayControls;
     private boolean simulationMode;
 
 
@@ -100,7 +100,7 @@ public class GamePlayView {
         layout.setTop(header);
 
         System.out.println("Starting game with level: " + levelNumber + ", difficulty: " + difficulty);
-        gameNode = GameLevels.createGameLevel(levelNumber, difficulty, this::handleLevelCompleted, simulationMode);
+        gameNode = GameLevels.createGameLevel(levelNumber, difficulty, simulationMode);
         gameNode.setMouseTransparent(simulationMode); // blocks mouse events only
         System.out.println("GameNode: " + gameNode);
         StackPane gameContainer = new StackPane(gameNode);
@@ -315,7 +315,13 @@ public class GamePlayView {
             stepForwardButton.setDisable(!hasReplay);
 
             playModeButton.setVisible(hasReplay);
-            playModeButton.setDisable(!hasReplay);});
+            playModeButton.setDisable(!hasReplay);
+
+            removeReplayControls();
+            if (hasReplay) {
+                replayControls = new ReplayControls((GameReplay) rep);
+                layout.setBottom(replayControls.getRoot());
+            }});
 
         stepBackButton.setOnAction(e -> {
             System.out.println("[UI] Step Back button clicked");
@@ -326,7 +332,9 @@ public class GamePlayView {
                     System.out.println("  → Before stepBack: ");
                     playPr.debugPrintState();
                 }
+                if (replayControls != null) replayControls.stop();
                 replay.stepBackward();
+                if (replayControls != null) replayControls.updatePosition();
                 if (playPr != null) {
                     System.out.println("  → After stepBack: ");
                     playPr.debugPrintState();
@@ -345,7 +353,9 @@ public class GamePlayView {
                     System.out.println("  → Before stepForward: ");
                     playPr.debugPrintState();
                 }
+                if (replayControls != null) replayControls.stop();
                 replay.stepForward();
+                if (replayControls != null) replayControls.updatePosition();
                 if (playPr != null) {
                     System.out.println("  → After stepForward: ");
                     playPr.debugPrintState();
@@ -359,6 +369,7 @@ public class GamePlayView {
             System.out.println("[UI] Play Mode button clicked");
             GameReplay replay = (GameReplay) gameNode.getProperties().get("replay");
             EnvPresenter playPr = (EnvPresenter) gameNode.getUserData();
+            removeReplayControls();
             if (replay != null) {
                 System.out.println("  → Before switchToPlayMode: ");
                 playPr.debugPrintState();
@@ -379,6 +390,26 @@ public class GamePlayView {
         });
     }
 
+    /**
+     * Zastaví přehrávání záznamu a odebere jeho ovládací panel.
+     */
+    private void removeReplayControls() {
+        if (replayControls != null) {
+            replayControls.stop();
+            layout.setBottom(null);
+            replayControls = null;
+        }
+    }
+
+    /**
+     * Odregistruje políčka aktuálního presenteru od hry, než se zahodí.
+     */
+    private void disposePlayPresenter() {
+        if (gameNode != null && gameNode.getUserData() instanceof EnvPresenter presenter) {
+            SwingUtilities.invokeLater(presenter::dispose);
+        }
+    }
+
     /**
      * Otevře nové okno nápovědy s InfoPresenter.
      */
@@ -388,16 +419,21 @@ public class GamePlayView {
             return;
         }
         Game current = (Game) p.getEnvironment();
-        Game solved = (Game) gameNode.getProperties().get("solvedGame");
-        if (solved == null) {
-            solved = current.deepCopy();
-            solved.init();
+        // stejná nápověda jako tooltip hry, pokud už existuje
+        SolutionHints hints = (SolutionHints) gameNode.getProperties().get("hints");
+        if (hints == null) {
+            Game solved = (Game) gameNode.getProperties().get("solvedGame");
+            if (solved == null) {
+                solved = current.deepCopy();
+                solved.init();
+            }
+            hints = new SolutionHints(current, solved);
         }
 
-        InfoPresenter info = new InfoPresenter(current, solved);
-        for (GameNode node : current.getNodes()) {
-            node.addObserver(info);
+        if (infoStage != null) {
+            infoStage.close();
         }
+        InfoPresenter info = new InfoPresenter(current, hints);
 
         SwingNode infoSwing = new SwingNode();
         SwingUtilities.invokeLater(() -> infoSwing.setContent(info.getPanel()));
@@ -411,6 +447,8 @@ public class GamePlayView {
                 current.rows()*InfoPresenter.TILE_SIZE
         );
         infoStage.setScene(scene);
+        // close() i zavření okna uživatelem odregistrují presenter od uzlů
+        infoStage.setOnHidden(e -> info.dispose());
         infoStage.show();
     }
 
@@ -574,35 +612,25 @@ public class GamePlayView {
 
     /**
      * Sets up a listener to detect when the game is completed.
-     * Uses the GameBridge to monitor the game state.
+     * Waits until the game panel publishes its game (the "game" property
+     * of the SwingNode) and then subscribes through the GameBridge.
      */
     private void setupGameCompletionListener() {
-        if (gameNodeCheckTimeline != null) {
-            gameNodeCheckTimeline.stop();
+        removeGameReadyListener();
+
+        if (gameNode.getUserData() instanceof EnvPresenter presenter && gameNode.getProperties().containsKey("game")) {
+            setupGameCompletionListenerWithPresenter(presenter);
+        } else {
+            SwingNode watched = gameNode;
+            gameReadyListener = change -> {
+                if (change.wasAdded() && "game".equals(change.getKey())
+                        && watched.getUserData() instanceof EnvPresenter presenter) {
+                    removeGameReadyListener();
+                    setupGameCompletionListenerWithPresenter(presenter);
+                }
+            };
+            watched.getProperties().addListener(gameReadyListener);
         }
-
-        gameNodeCheckTimeline = new Timeline(
-                new KeyFrame(
-                        Duration.millis(150),
-                        event -> {
-                            try {
-                                if (gameNode != null && gameNode.getUserData() instanceof EnvPresenter) {
-                                    gameNodeCheckTimeline.stop();
-                                    EnvPresenter presenter = (EnvPresenter) gameNode.getUserData();
-                                    setupGameCompletionListenerWithPresenter(presenter);
-                                } else {
-                                    System.out.println("Waiting for gameNpde " +
-                                            (gameNode != null ? gameNode.getUserData() : "null"));
-                                }
-                            } catch (Exception e) {
-                                System.err.println("Error unvalid GameNode " + e.getMessage());
-                                e.printStackTrace();
-                            }
-                        }
-                )
-        );
-        gameNodeCheckTimeline.setCycleCount(Timeline.INDEFINITE);
-        gameNodeCheckTimeline.play();
         root.setOnKeyPressed(e -> {
             switch (e.getCode()) {
                 case F5 -> handleLevelCompleted();
@@ -610,6 +638,16 @@ public class GamePlayView {
         });
     }
 
+    /**
+     * Removes the listener waiting for the game panel, if any.
+     */
+    private void removeGameReadyListener() {
+        if (gameReadyListener != null) {
+            gameNode.getProperties().removeListener(gameReadyListener);
+            gameReadyListener = null;
+        }
+    }
+
     /**
      * Sets up the game completion listener using the provided EnvPresenter.
      *
@@ -695,11 +733,10 @@ public class GamePlayView {
             gameBridge.stopMonitoring();
             gameBridge = null;
         }
-        if (gameNodeCheckTimeline != null) {
-            gameNodeCheckTimeline.stop();
-            gameNodeCheckTimeline = null;
-        }
-        SwingNode newGameNode = GameLevels.createGameLevel(levelNumber, difficulty, this::handleLevelCompleted, simulationMode);
+        removeGameReadyListener();
+        removeReplayControls();
+        disposePlayPresenter();
+        SwingNode newGameNode = GameLevels.createGameLevel(levelNumber, difficulty, simulationMode);
         StackPane gameContainer = (StackPane) gameNode.getParent();
         gameContainer.getChildren().clear();
         gameContainer.getChildren().add(newGameNode);
@@ -775,6 +812,7 @@ public class GamePlayView {
         EventHandler<ActionEvent> wrappedHandler = e -> {
             System.out.println("Back button clicked - saving state before exit");
             //saveStateOnExit();
+            NodeStateManager.getInstance().flushProgress();
             if (infoStage != null) {
                 infoStage.close();
                 infoStage = null;
@@ -820,16 +858,16 @@ public class GamePlayView {
     public void cleanup() {
         System.out.println("GamePlayView cleanup called");
         //saveStateOnExit();
+        NodeStateManager.getInstance().flushProgress();
 
         if (gameBridge != null) {
             gameBridge.stopMonitoring();
             gameBridge = null;
         }
 
-        if (gameNodeCheckTimeline != null) {
-            gameNodeCheckTimeline.stop();
-            gameNodeCheckTimeline = null;
-        }
+        removeGameReadyListener();
+        removeReplayControls();
+        disposePlayPresenter();
 
         if (backButton != null) {
             backButton.setOnAction(null);
@@ -13,41 +13,65 @@ package visualization.view;
 
 import ija.ijaProject.common.GameNode;
 import ija.ijaProject.common.Position;
-import ija.ijaProject.common.Side;
 import ija.ijaProject.game.Game;
+import ija.ijaProject.game.solver.HintEngine;
+import ija.ijaProject.game.solver.SolutionHints;
+import visualization.common.ChangeEvent;
 import visualization.common.Observable;
+import visualization.common.SubscriptionScope;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /** Zobrazení informačního okna,
  * ve kterém se pro každou herní buňku zobrazí, kolik
- * otočení je třeba provést, aby dosáhla správné  pozice. */
+ * otočení je třeba provést, aby dosáhla správné  pozice.
+ * Hodnoty drží {@link HintEngine}, který po změně políčka přepočítá
+ * jen to políčko; změněná tlačítka se obnoví nejvýše jednou za snímek.
+ * Cíl bere ze stejné {@link SolutionHints} jako tooltip hry a do jeho
+ * výpočtu na pozadí zobrazuje „?“. */
 public class InfoPresenter implements Observable.Observer {
     public static final int TILE_SIZE = 40;
+    /** Druhy změn, na kterých závisí nápověda: otočení (napájení ne). */
+    public static final Set<ChangeEvent.Kind> HINT_CHANGES =
+            EnumSet.of(ChangeEvent.Kind.CONNECTORS, ChangeEvent.Kind.ROTATION);
     private static final Color BG_CELL     = new Color(0x1A1F34);
     private static final Color GRID_COLOR  = new Color(0x3A4154);
     private static final Font  FONT_NUMBER = new Font("Arial", Font.BOLD, 18);
     private final Game currentGame;
-    private final Game solvedGame;
+    private final SolutionHints source;
+    private final HintEngine hints;
+    private final Runnable sourceListener = () -> SwingUtilities.invokeLater(this::resync);
     private final JPanel panel;
     private final Map<Position,JButton> buttons = new HashMap<>();
+    private final SubscriptionScope subscriptions = new SubscriptionScope();
+    private final Set<Position> dirty = new LinkedHashSet<>();
+    private final Timer refreshTimer;
+    private boolean refreshScheduled = false;
     static{
         ToolTipManager.sharedInstance().setInitialDelay(2000);
     }
 
     /**
      * Vytvoří panel s tlačítky( reprezentuje jedno políčko.)
+     *
+     * @param currentGame hraná hra
+     * @param source      nejbližší řešení hry počítaná na pozadí (sdílená s tooltipem)
      */
-    public InfoPresenter(Game currentGame, Game solvedGame) {
+    public InfoPresenter(Game currentGame, SolutionHints source) {
         this.currentGame = currentGame;
-        this.solvedGame = solvedGame;
+        this.source = source;
+        source.addUpdateListener(sourceListener);
+        this.hints = new HintEngine(currentGame, source);
+        this.refreshTimer = new Timer(Math.max(1, 1000 / RepaintScheduler.displayRefreshRate()), e -> refreshDirty());
+        this.refreshTimer.setRepeats(false);
 
         int rows = currentGame.rows();
         int cols = currentGame.cols();
@@ -70,7 +94,7 @@ public class InfoPresenter implements Observable.Observer {
                 btn.setOpaque(true);
 
                 if (currentGame.isPlayebleNode(node)) {
-                    node.addObserver(this);
+                    subscriptions.observe(node, this, HINT_CHANGES);
                     buttons.put(pos, btn);
                     updateTooltip(pos, btn);
                     ToolTipManager.sharedInstance().registerComponent(btn);
@@ -91,33 +115,76 @@ public class InfoPresenter implements Observable.Observer {
         updateAll();
     }
 
-    /** Volá se, když se nějaký uzel otočí  */
+    /** Notifikace bez popisu změny: přepočítá políčko podle jeho aktuální masky. */
     @Override
     public void update(Observable source) {
-        SwingUtilities.invokeLater(this::updateAll);
+        if (source instanceof GameNode node) {
+            cellChanged(node.getPosition(), node.getConnectorMask());
+        }
+    }
+
+    /** Volá se, když se nějaký uzel otočí: přepočítá jen tento uzel. */
+    @Override
+    public void update(Observable source, ChangeEvent event) {
+        if (event == null) {
+            update(source);
+        } else if (source instanceof GameNode node) {
+            cellChanged(node.getPosition(), event.newConnectors());
+        }
+    }
+
+    /** Přepočítá políčko a naplánuje obnovení jeho tlačítka v příštím snímku. */
+    private void cellChanged(Position pos, int mask) {
+        hints.cellChanged(pos.row(), pos.col(), mask);
+        synchronized (dirty) {
+            dirty.add(pos);
+            if (refreshScheduled) return;
+            refreshScheduled = true;
+        }
+        SwingUtilities.invokeLater(refreshTimer::restart);
+    }
+
+    /** Obnoví tlačítka políček změněných od minulého snímku
+     * a požádá o nejbližší řešení nového stavu. */
+    private void refreshDirty() {
+        Position[] changed;
+        synchronized (dirty) {
+            changed = dirty.toArray(new Position[0]);
+            dirty.clear();
+            refreshScheduled = false;
+        }
+        source.requestNearest();
+        for (Position pos : changed) {
+            JButton btn = buttons.get(pos);
+            if (btn != null) {
+                updateButton(pos, btn);
+            }
+        }
+    }
+
+    /** Převezme nově spočítané řešení a obnoví všechna tlačítka. */
+    private void resync() {
+        hints.resync();
+        updateAll();
     }
 
     /** Aktualizuje tlačítka podle aktuálního stavu  */
     private void updateAll() {
         for (Map.Entry<Position, JButton> e : buttons.entrySet()) {
-            Position pos = e.getKey();
-            JButton btn    = e.getValue();
-
-            GameNode cur = currentGame.getGameNode(pos.row(), pos.col());
-            GameNode sol = solvedGame .getGameNode(pos.row(), pos.col());
-
-            int need = rotationsNeeded(
-                    cur.getConnectors(),
-                    sol.getConnectors()
-            );
-            // btn.setText(String.valueOf(need));
-            btn.setText(need >= 0 ? String.valueOf(need) : "?");
-            updateTooltip(pos, btn);
-            if (need == 0) {
-                btn.setBackground(Color.decode("#39D353"));
-            } else {
-                btn.setBackground(BG_CELL);
-            }
+            updateButton(e.getKey(), e.getValue());
+        }
+    }
+
+    /** Aktualizuje jedno tlačítko podle zbývajícího počtu otočení. */
+    private void updateButton(Position pos, JButton btn) {
+        int need = hints.rotationsNeeded(pos.row(), pos.col());
+        // btn.setText(String.valueOf(need));
+        btn.setText(need >= 0 ? String.valueOf(need) : "?");
+        updateTooltip(pos, btn);
+        if (need == 0) {
+            btn.setBackground(Color.decode("#39D353"));
+        } else {
+            btn.setBackground(BG_CELL);
         }
     }
     /** */
@@ -130,30 +197,24 @@ public class InfoPresenter implements Observable.Observer {
         );
     }
 
-    /** Vrátí počet otočení,do spravneho řešení  */
-    private int rotationsNeeded(Set<Side> cur, Set<Side> tgt) {
-        for (int k = 0; k < 4; k++) {
-            final int kk = k;
-            Set<Side> rot = cur.stream()
-                    .map(s -> rotateCW(s, kk))
-                    .collect(Collectors.toSet());
-            if (rot.equals(tgt)) return kk;
-        }
-        return 0;
+    /**
+     * Odregistruje presenter od uzlů hry a od {@link SolutionHints}. Volá se
+     * při zavření okna nápovědy; uzly ho drží jen slabě, sdílená nápověda
+     * ale silně, dokud se neodregistruje.
+     */
+    public void dispose() {
+        source.removeUpdateListener(sourceListener);
+        subscriptions.close();
+        refreshTimer.stop();
     }
 
-    /** Otočí jednu stranu */
-    private Side rotateCW(Side s, int times) {
-        Side r = s;
-        for (int i = 0; i < times; i++) {
-            r = switch(r) {
-                case NORTH -> Side.EAST;
-                case EAST  -> Side.SOUTH;
-                case SOUTH -> Side.WEST;
-                case WEST  -> Side.NORTH;
-            };
-        }
-        return r;
+    /**
+     * Vrací počet uzlů, u kterých je presenter stále registrován.
+     *
+     * @return počet aktivních registrací
+     */
+    public int subscriptionCount() {
+        return subscriptions.size();
     }
 
     /** Vrátí JPanel, který pak vloží do JavaFX SwingNode */
@@ -0,0 +1,153 @@
+/**
+ * Soubor: src/main/java/visualization/view/RepaintScheduler.java
+ *
+ * Popis:
+ *  Sdružuje požadavky na překreslení políček herní desky. Změněná
+ *  políčka sbírá a nejvýše jednou za snímek obrazovky překreslí
+ *  jediný obdélník, který je všechna pokrývá.
+ *
+ *
+ * @Author: Yaroslav Hryn (xhryny00), Oleksandr Musiichuk (xmusii00)
+ */
+
+package visualization.view;
+
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import java.awt.Component;
+import java.awt.DisplayMode;
+import java.awt.GraphicsEnvironment;
+import java.awt.HeadlessException;
+import java.awt.Rectangle;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Sdružuje překreslování políček. {@link #markDirty(Component)} lze volat
+ * z libovolného vlákna; na EDT se pak jednou za snímek (podle obnovovací
+ * frekvence displeje) zavolá {@code repaint(Rectangle)} nad sjednocením
+ * oblastí všech změněných políček.
+ */
+public class RepaintScheduler {
+    /** Použitá obnovovací frekvence, pokud ji displej neudává. */
+    public static final int DEFAULT_REFRESH_RATE = 60;
+
+    private final JComponent target;
+    private final Set<Component> dirty = new LinkedHashSet<>();
+    private Rectangle dirtyRegion = null;
+    private final Timer timer;
+    private final int frameMillis;
+    private boolean scheduled = false;
+    private long lastFlushMillis = 0;
+    private int flushCount = 0;
+
+    /**
+     * Vytvoří plánovač pro daný panel.
+     *
+     * @param target panel, jehož potomky jsou překreslovaná políčka
+     */
+    public RepaintScheduler(JComponent target) {
+        this.target = target;
+        this.frameMillis = Math.max(1, 1000 / displayRefreshRate());
+        this.timer = new Timer(frameMillis, e -> flush());
+        this.timer.setRepeats(false);
+    }
+
+    /**
+     * Označí komponentu k překreslení v příštím snímku.
+     *
+     * @param component potomek cílového panelu
+     */
+    public void markDirty(Component component) {
+        synchronized (dirty) {
+            dirty.add(component);
+            if (scheduled) return;
+            scheduled = true;
+        }
+        SwingUtilities.invokeLater(this::schedule);
+    }
+
+    /**
+     * Označí oblast cílového panelu k překreslení v příštím snímku.
+     *
+     * @param region oblast v souřadnicích cílového panelu
+     */
+    public void markDirty(Rectangle region) {
+        synchronized (dirty) {
+            dirtyRegion = dirtyRegion == null ? new Rectangle(region) : dirtyRegion.union(region);
+            if (scheduled) return;
+            scheduled = true;
+        }
+        SwingUtilities.invokeLater(this::schedule);
+    }
+
+    /**
+     * Označí k překreslení celý cílový panel.
+     */
+    public void markAllDirty() {
+        markDirty(new Rectangle(0, 0, target.getWidth(), target.getHeight()));
+    }
+
+    /**
+     * Vrací počet provedených překreslení (sloučených snímků).
+     *
+     * @return počet volání repaint
+     */
+    public int getFlushCount() {
+        return flushCount;
+    }
+
+    /**
+     * Zastaví čekající překreslení.
+     */
+    public void stop() {
+        timer.stop();
+        synchronized (dirty) {
+            dirty.clear();
+            dirtyRegion = null;
+            scheduled = false;
+        }
+    }
+
+    /** Naplánuje překreslení na začátek příštího snímku. */
+    private void schedule() {
+        long wait = lastFlushMillis + frameMillis - System.currentTimeMillis();
+        timer.setInitialDelay((int) Math.max(0, Math.min(wait, frameMillis)));
+        timer.restart();
+    }
+
+    /** Překreslí sjednocení oblastí změněných políček. */
+    private void flush() {
+        Rectangle union;
+        synchronized (dirty) {
+            scheduled = false;
+            union = dirtyRegion;
+            dirtyRegion = null;
+            for (Component component : dirty) {
+                if (component.getParent() == null) continue;
+                Rectangle bounds = SwingUtilities.convertRectangle(
+                        component.getParent(), component.getBounds(), target);
+                union = union == null ? bounds : union.union(bounds);
+            }
+            dirty.clear();
+        }
+        lastFlushMillis = System.currentTimeMillis();
+        if (union != null) {
+            flushCount++;
+            target.repaint(union);
+        }
+    }
+
+    /** Vrací obnovovací frekvenci displeje, případně {@link #DEFAULT_REFRESH_RATE}. */
+    static int displayRefreshRate() {
+        try {
+            if (GraphicsEnvironment.isHeadless()) return DEFAULT_REFRESH_RATE;
+            int rate = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDisplayMode().getRefreshRate();
+            return rate == DisplayMode.REFRESH_RATE_UNKNOWN || rate <= 0 ? DEFAULT_REFRESH_RATE : rate;
+        } catch (HeadlessException e) {
+            return DEFAULT_REFRESH_RATE;
+        }
+    }
+}
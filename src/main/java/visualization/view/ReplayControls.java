@@ -0,0 +1,150 @@
+/**
+ * Soubor: src/main/java/visualization/view/ReplayControls.java
+ *
+ * Popis:
+ *  Ovládací panel přehrávání záznamu v režimu simulace: tlačítko
+ *  přehrát/pozastavit, volba rychlosti 0.25x až 64x a posuvník přes
+ *  celý seznam tahů. Tahy posouvá časovač snímků JavaFX.
+ *
+ *
+ * @Author: Yaroslav Hryn (xhryny00), Oleksandr Musiichuk (xmusii00)
+ */
+
+package visualization.view;
+
+import ija.ijaProject.game.levels.GameReplay;
+import ija.ijaProject.game.levels.ReplayPlayer;
+import javafx.animation.AnimationTimer;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.Slider;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+
+/**
+ * Panel pro přehrávání záznamu. Jeden {@link AnimationTimer} volá
+ * {@link ReplayPlayer#frame(long)} jednou za vykreslený snímek, takže
+ * i při vysoké rychlosti se deska překreslí nejvýše jednou za snímek.
+ */
+public class ReplayControls {
+    private static final String BUTTON_STYLE =
+            "-fx-background-color: rgba(14, 165, 233, 0.2);" +
+                    "-fx-background-radius: 30;" +
+                    "-fx-border-color: #0EA5E9;" +
+                    "-fx-border-width: 2;" +
+                    "-fx-border-radius: 30;" +
+                    "-fx-text-fill: white;" +
+                    "-fx-font-size: 14px;" +
+                    "-fx-font-weight: bold;" +
+                    "-fx-padding: 8 15;";
+
+    private final ReplayPlayer player;
+    private final HBox root;
+    private final Button playButton;
+    private final Slider scrubber;
+    private final Label positionLabel;
+    private final AnimationTimer timer;
+    private boolean updatingScrubber = false;
+
+    /**
+     * Vytvoří panel pro daný záznam.
+     *
+     * @param replay záznam hry
+     */
+    public ReplayControls(GameReplay replay) {
+        this.player = new ReplayPlayer(replay);
+
+        playButton = new Button("⏵");
+        playButton.setStyle(BUTTON_STYLE);
+        playButton.setOnAction(e -> togglePlay());
+
+        ComboBox<String> speedBox = new ComboBox<>();
+        for (double speed : ReplayPlayer.SPEEDS) {
+            speedBox.getItems().add(formatSpeed(speed));
+        }
+        speedBox.setValue(formatSpeed(player.getSpeed()));
+        speedBox.setOnAction(e -> player.setSpeed(ReplayPlayer.SPEEDS[speedBox.getSelectionModel().getSelectedIndex()]));
+
+        scrubber = new Slider(0, replay.getMoveCount(), replay.getCurrentMoveIndex() + 1);
+        scrubber.setBlockIncrement(1);
+        scrubber.valueProperty().addListener((obs, oldValue, newValue) -> {
+            if (updatingScrubber) return;
+            player.seek((int) Math.round(newValue.doubleValue()) - 1);
+            updatePosition();
+        });
+        HBox.setHgrow(scrubber, Priority.ALWAYS);
+
+        positionLabel = new Label();
+        positionLabel.setStyle("-fx-text-fill: #7DD3FC; -fx-font-size: 14px; -fx-font-weight: bold;");
+        positionLabel.setMinWidth(110);
+
+        root = new HBox(12, playButton, speedBox, scrubber, positionLabel);
+        root.setAlignment(Pos.CENTER);
+        root.setPadding(new Insets(10, 20, 15, 20));
+
+        timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                if (player.frame(now)) {
+                    updatePosition();
+                }
+                if (!player.isPlaying()) {
+                    stopPlayback();
+                }
+            }
+        };
+        updatePosition();
+    }
+
+    /**
+     * Vrací kořenový uzel panelu.
+     *
+     * @return panel
+     */
+    public HBox getRoot() {
+        return root;
+    }
+
+    /**
+     * Aktualizuje posuvník a popisek po změně pozice mimo panel (krokování tlačítky).
+     */
+    public void updatePosition() {
+        GameReplay replay = player.getReplay();
+        int applied = replay.getCurrentMoveIndex() + 1;
+        updatingScrubber = true;
+        scrubber.setValue(applied);
+        updatingScrubber = false;
+        positionLabel.setText(applied + " / " + replay.getMoveCount());
+    }
+
+    /**
+     * Zastaví přehrávání (přepnutí do hry, opuštění úrovně).
+     */
+    public void stop() {
+        player.pause();
+        stopPlayback();
+    }
+
+    private void togglePlay() {
+        if (player.isPlaying()) {
+            stop();
+        } else {
+            player.play();
+            updatePosition();
+            playButton.setText("⏸");
+            timer.start();
+        }
+    }
+
+    private void stopPlayback() {
+        timer.stop();
+        playButton.setText("⏵");
+    }
+
+    private static String formatSpeed(double speed) {
+        return (speed == Math.rint(speed) ? String.valueOf((int) speed) : String.valueOf(speed)) + "x";
+    }
+}
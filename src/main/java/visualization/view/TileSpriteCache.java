@@ -0,0 +1,397 @@
+/**
+ * Soubor: src/main/java/visualization/view/TileSpriteCache.java
+ *
+ * Popis:
+ *  Sdílená mezipaměť předkreslených dlaždic herní desky. Vzhled dlaždice
+ *  závisí jen na typu políčka, masce konektorů, napájení, zvýraznění
+ *  a velikosti, takže se každá kombinace kreslí jen jednou.
+ *
+ *
+ * @Author: Yaroslav Hryn (xhryny00), Oleksandr Musiichuk (xmusii00)
+ */
+
+package visualization.view;
+
+import visualization.common.ToolField;
+
+import java.awt.*;
+import java.awt.geom.*;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sdílená mezipaměť dlaždic pro {@link FieldView}. Dlaždice se kreslí
+ * s antialiasingem jednou do průhledného {@link BufferedImage} (Java2D
+ * si takový obrázek sama drží v grafické paměti) a políčko pak vykresluje
+ * jediným {@code drawImage}. Obrázky jsou uložené po velikostech dlaždice;
+ * po změně velikosti se vytvoří nová sada a nejstarší sady se zahodí.
+ */
+public final class TileSpriteCache {
+    /** Typ políčka: prázdné. */
+    public static final int EMPTY = 0;
+    /** Typ políčka: vodič. */
+    public static final int LINK = 1;
+    /** Typ políčka: žárovka. */
+    public static final int BULB = 2;
+    /** Typ políčka: zdroj. */
+    public static final int POWER = 3;
+
+    /** Bit konektoru na severu. */
+    public static final int NORTH = 1;
+    /** Bit konektoru na východě. */
+    public static final int EAST = 2;
+    /** Bit konektoru na jihu. */
+    public static final int SOUTH = 4;
+    /** Bit konektoru na západě. */
+    public static final int WEST = 8;
+
+    /** Počet velikostí dlaždic držených současně. */
+    private static final int MAX_SIZES = 4;
+    /** 4 typy x 16 masek x napájení x zvýraznění */
+    private static final int SPRITES_PER_SIZE = 4 * 16 * 2 * 2;
+    private static final Color HIGHLIGHT = new Color(14, 165, 233, 50);
+
+    private static final TileSpriteCache SHARED = new TileSpriteCache();
+
+    private final Map<String, BufferedImage[]> sizes = new LinkedHashMap<>(8, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, BufferedImage[]> eldest) {
+            return size() > MAX_SIZES;
+        }
+    };
+    private int renderCount = 0;
+
+    private TileSpriteCache() {
+    }
+
+    /**
+     * Vrací mezipaměť sdílenou všemi políčky.
+     *
+     * @return sdílená instance
+     */
+    public static TileSpriteCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Vykreslí dlaždici modelového pole na souřadnice (0, 0).
+     *
+     * @param g           grafický kontext
+     * @param field       modelové pole
+     * @param highlighted zda je políčko zvýrazněné
+     * @param width       šířka políčka
+     * @param height      výška políčka
+     */
+    public void paint(Graphics2D g, ToolField field, boolean highlighted, int width, int height) {
+        int type;
+        if (field.isLink()) {
+            type = LINK;
+        } else if (field.isBulb()) {
+            type = BULB;
+        } else if (field.isPower()) {
+            type = POWER;
+        } else {
+            type = EMPTY;
+        }
+        int mask = (field.north() ? NORTH : 0)
+                | (field.east() ? EAST : 0)
+                | (field.south() ? SOUTH : 0)
+                | (field.west() ? WEST : 0);
+        paint(g, type, mask, field.light(), highlighted, width, height);
+    }
+
+    /**
+     * Vykreslí dlaždici; chybějící dlaždici nejdřív předkreslí.
+     *
+     * @param g           grafický kontext políčka
+     * @param type        typ políčka ({@link #EMPTY}, {@link #LINK}, {@link #BULB}, {@link #POWER})
+     * @param mask        maska konektorů ({@link #NORTH} | {@link #EAST} | ...)
+     * @param powered     zda je políčko napájeno
+     * @param highlighted zda je políčko zvýrazněné
+     * @param width       šířka políčka
+     * @param height      výška políčka
+     */
+    public void paint(Graphics2D g, int type, int mask, boolean powered, boolean highlighted, int width, int height) {
+        if (width <= 0 || height <= 0) return;
+        double scale = Math.max(1, g.getTransform().getScaleX());
+        g.drawImage(sprite(type, mask, powered, highlighted, width, height, scale), 0, 0, width, height, null);
+    }
+
+    /**
+     * Vrací počet dosud předkreslených dlaždic.
+     *
+     * @return počet kreslení dlaždic
+     */
+    public synchronized int getRenderCount() {
+        return renderCount;
+    }
+
+    /**
+     * Zahodí všechny dlaždice (např. při změně vzhledu).
+     */
+    public synchronized void invalidate() {
+        sizes.clear();
+    }
+
+    private synchronized BufferedImage sprite(int type, int mask, boolean powered, boolean highlighted,
+                                              int width, int height, double scale) {
+        BufferedImage[] sprites = sizes.computeIfAbsent(width + "x" + height + "@" + scale,
+                k -> new BufferedImage[SPRITES_PER_SIZE]);
+        int index = ((type & 3) << 6) | ((mask & 15) << 2) | (powered ? 2 : 0) | (highlighted ? 1 : 0);
+        BufferedImage sprite = sprites[index];
+        if (sprite == null) {
+            sprite = render(type, mask, powered, highlighted, width, height, scale);
+            sprites[index] = sprite;
+            renderCount++;
+        }
+        return sprite;
+    }
+
+    private static BufferedImage render(int type, int mask, boolean powered, boolean highlighted,
+                                        int width, int height, double scale) {
+        BufferedImage image = new BufferedImage((int) Math.ceil(width * scale), (int) Math.ceil(height * scale),
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.scale(scale, scale);
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+        switch (type) {
+            case LINK -> drawLinkNode(g2d, width, height, mask, powered);
+            case BULB -> drawBulbNode(g2d, width, height, mask, powered);
+            case POWER -> drawPowerNode(g2d, width, height, mask, powered);
+            default -> {
+            }
+        }
+
+        if (highlighted) {
+            g2d.setColor(HIGHLIGHT);
+            g2d.fillRect(0, 0, width, height);
+        }
+
+        g2d.dispose();
+        return image;
+    }
+
+    /**
+     * Draws a link node.
+     *
+     * @param g2d The graphics context
+     * @param width The width of the tile
+     * @param height The height of the tile
+     * @param mask The connector mask
+     * @param powered Whether the tile is powered
+     */
+    private static void drawLinkNode(Graphics2D g2d, int width, int height, int mask, boolean powered) {
+        boolean isPowered = powered;
+
+        Color mainColor = isPowered ? new Color(14, 165, 233) : new Color(100, 116, 139);
+        Color bgColor = new Color(mainColor.getRed(), mainColor.getGreen(), mainColor.getBlue(), 50);
+
+        int padding = 5;
+        Rectangle2D rect = new Rectangle2D.Double(padding, padding, width - 2 * padding, height - 2 * padding);
+        g2d.setColor(bgColor);
+        g2d.fill(rect);
+
+        g2d.setColor(mainColor);
+        g2d.setStroke(new BasicStroke(2));
+        g2d.draw(rect);
+
+        int centerSize = 8;
+        Ellipse2D center = new Ellipse2D.Double(
+                width / 2 - centerSize / 2,
+                height / 2 - centerSize / 2,
+                centerSize,
+                centerSize
+        );
+        g2d.fill(center);
+
+        drawConnections(g2d, width, height, mask, mainColor);
+    }
+
+    /**
+     * Draws a bulb node.
+     *
+     * @param g2d The graphics context
+     * @param width The width of the tile
+     * @param height The height of the tile
+     * @param mask The connector mask
+     * @param powered Whether the tile is powered
+     */
+    private static void drawBulbNode(Graphics2D g2d, int width, int height, int mask, boolean powered) {
+        boolean isLit = powered;
+
+        int baseWidth = 16;
+        int baseHeight = 10;
+        Rectangle2D base = new Rectangle2D.Double(
+                width / 2 - baseWidth / 2,
+                height / 2 + 5,
+                baseWidth,
+                baseHeight
+        );
+        g2d.setColor(new Color(100, 116, 139));
+        g2d.fill(base);
+
+        int glassSize = 20;
+        Ellipse2D glass = new Ellipse2D.Double(
+                width / 2 - glassSize / 2,
+                height / 2 - glassSize / 2 - 5,
+                glassSize,
+                glassSize
+        );
+
+        if (isLit) {
+            for (int i = 3; i >= 0; i--) {
+                float alpha = 0.2f - (i * 0.05f);
+                g2d.setColor(new Color(250, 204, 21, (int)(alpha * 255)));
+                int glowSize = glassSize + (i * 6);
+                Ellipse2D glow = new Ellipse2D.Double(
+                        width / 2 - glowSize / 2,
+                        height / 2 - glowSize / 2 - 5,
+                        glowSize,
+                        glowSize
+                );
+                g2d.fill(glow);
+            }
+            g2d.setColor(new Color(250, 204, 21));
+        } else {
+            g2d.setColor(new Color(203, 213, 225));
+        }
+
+        g2d.fill(glass);
+        g2d.setColor(new Color(100, 116, 139));
+        g2d.setStroke(new BasicStroke(1));
+        g2d.draw(glass);
+
+        Color connectionColor = isLit ? new Color(250, 204, 21) : new Color(100, 116, 139);
+        drawConnections(g2d, width, height, mask, connectionColor);
+    }
+
+    /**
+     * Draws a power node.
+     *
+     * @param g2d The graphics context
+     * @param width The width of the tile
+     * @param height The height of the tile
+     * @param mask The connector mask
+     * @param powered Whether the tile is powered (unused, a source always glows)
+     */
+    private static void drawPowerNode(Graphics2D g2d, int width, int height, int mask, boolean powered) {
+        int bodyW = 30;
+        int bodyH = 16;
+        int x = width / 2 - bodyW / 2;
+        int y = height / 2 - bodyH / 2;
+
+
+        Color glowColor = new Color(0x1F8A70);
+
+        for (int i = 4; i > 0; i--) {
+            int pad = i * 3;
+            int alpha = 50 / i;
+            g2d.setColor(new Color(
+                    glowColor.getRed(),
+                    glowColor.getGreen(),
+                    glowColor.getBlue(),
+                    alpha
+            ));
+            g2d.fillRoundRect(
+                    x - pad,
+                    y - pad,
+                    bodyW + pad * 2,
+                    bodyH + pad * 2,
+                    6 + pad,
+                    6 + pad
+            );
+        }
+
+
+        g2d.setColor(glowColor);
+        g2d.fillRoundRect(x, y, bodyW, bodyH, 4, 4);
+
+        g2d.setColor(glowColor.darker());
+        g2d.setStroke(new BasicStroke(2));
+        g2d.drawRoundRect(x, y, bodyW, bodyH, 4, 4);
+
+        int termH = bodyH / 3;
+        int termW = 4;
+        int tx = x - termW;
+        int ty = height / 2 - termH / 2;
+        g2d.fillRect(tx, ty, termW, termH);
+
+        int px = x + bodyW + 1;
+        int py = height / 2 - termH / 2;
+        g2d.fillRect(px, py, termW, termH);
+        int dotR = 3;
+        g2d.fillOval(px + termW/2 - dotR/2, height/2 - dotR/2, dotR, dotR);
+
+        drawConnections(g2d, width, height, mask, glowColor);
+    }
+
+    /**
+     * Draws connections based on the connector mask.
+     *
+     * @param g2d The graphics context
+     * @param width The width of the tile
+     * @param height The height of the tile
+     * @param mask The connector mask
+     * @param color The color to use for connections
+     */
+    private static void drawConnections(Graphics2D g2d, int width, int height, int mask, Color color) {
+        g2d.setColor(color);
+        g2d.setStroke(new BasicStroke(3));
+        Color baseColor = color;
+
+        int centerX = width  / 2;
+        int centerY = height / 2;
+        int thickness = 4;
+
+        g2d.setStroke(new BasicStroke(thickness, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+
+        Point2D start = new Point2D.Float(centerX, centerY);
+        Point2D end;
+        LinearGradientPaint paint;
+
+        if ((mask & NORTH) != 0) {
+            end = new Point2D.Float(centerX, 0);
+            paint = new LinearGradientPaint(
+                    start, end,
+                    new float[]{0f, 1f},
+                    new Color[]{baseColor.brighter(), baseColor.darker()}
+            );
+            g2d.setPaint(paint);
+            g2d.draw(new Line2D.Float(centerX, centerY, centerX, 0));
+        }
+        if ((mask & SOUTH) != 0) {
+            end = new Point2D.Float(centerX, height);
+            paint = new LinearGradientPaint(
+                    start, end,
+                    new float[]{0f, 1f},
+                    new Color[]{baseColor.brighter(), baseColor.darker()}
+            );
+            g2d.setPaint(paint);
+            g2d.draw(new Line2D.Float(centerX, centerY, centerX, height));
+        }
+        if ((mask & EAST) != 0) {
+            end = new Point2D.Float(width, centerY);
+            paint = new LinearGradientPaint(
+                    start, end,
+                    new float[]{0f, 1f},
+                    new Color[]{baseColor.brighter(), baseColor.darker()}
+            );
+            g2d.setPaint(paint);
+            g2d.draw(new Line2D.Float(centerX, centerY, width, centerY));
+        }
+        if ((mask & WEST) != 0) {
+            end = new Point2D.Float(0, centerY);
+            paint = new LinearGradientPaint(
+                    start, end,
+                    new float[]{0f, 1f},
+                    new Color[]{baseColor.brighter(), baseColor.darker()}
+            );
+            g2d.setPaint(paint);
+            g2d.draw(new Line2D.Float(centerX, centerY, 0, centerY));
+        }
+
+        g2d.setPaint(baseColor);
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ * Soubor: src/test/java/ija.ijaProject/game/CompactBoardTest.java
+ *
+ * Popis:
+ * Ověřuje, že CompactBoard přijme jen políčka, která umí vytvořit
+ * i Game, a že převod deska -> hra -> deska zachová typy a masky.
+ *
+ * @Author: Yaroslav Hryn (xhryny00),Oleksandr Musiichuk (xmusii00)
+ *
+ */
+
+package ija.ijaProject.game;
+
+import ija.ijaProject.game.levels.LevelGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/** Pravidla masek v {@link CompactBoard#set} a věrnost převodu přes {@link Game}. */
+class CompactBoardTest {
+
+    @Test
+    void rejectsMasksGameCannotCreate() {
+        CompactBoard board = new CompactBoard(2, 2);
+        assertThrows(IllegalArgumentException.class, () -> board.set(0, CompactBoard.EMPTY, 0b0001));
+        assertThrows(IllegalArgumentException.class, () -> board.set(0, CompactBoard.LINK, 0b0000));
+        assertThrows(IllegalArgumentException.class, () -> board.set(0, CompactBoard.LINK, 0b0100));
+        assertThrows(IllegalArgumentException.class, () -> board.set(0, CompactBoard.BULB, 0b0000));
+        assertThrows(IllegalArgumentException.class, () -> board.set(0, CompactBoard.BULB, 0b0011));
+        assertThrows(IllegalArgumentException.class, () -> board.set(0, CompactBoard.POWER, 0b0000));
+    }
+
+    @Test
+    void rejectsSecondPowerSource() {
+        CompactBoard board = new CompactBoard(2, 2);
+        board.set(0, CompactBoard.POWER, 0b0010);
+        assertThrows(IllegalArgumentException.class, () -> board.set(1, CompactBoard.POWER, 0b1000));
+    }
+
+    @Test
+    void gameRoundTripKeepsTypesAndMasks() {
+        LevelGenerator generator = new LevelGenerator(new Random(3));
+        for (int i = 0; i < 30; i++) {
+            CompactBoard board = generator.generate(3 + i % 8, 4 + i % 5, 1 + i % 4, LevelGenerator.Difficulty.MEDIUM);
+            CompactBoard copy = CompactBoard.fromGame(board.toGame());
+            for (int cell = 0; cell < board.size(); cell++) {
+                assertEquals(board.type(cell), copy.type(cell), "type of cell " + cell);
+                assertEquals(board.mask(cell), copy.mask(cell), "mask of cell " + cell);
+                assertEquals(board.powered(cell), copy.powered(cell), "power of cell " + cell);
+            }
+        }
+    }
+}
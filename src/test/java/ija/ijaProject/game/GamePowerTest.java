@@ -0,0 +1,123 @@
+/**
+ * Soubor: src/test/java/ija.ijaProject/game/GamePowerTest.java
+ *
+ * Popis:
+ * Porovnává inkrementální přepočet napájení po otočení uzlu
+ * ({@link Game#updatePower}) s úplným přepočtem {@link Game#init()}
+ * na náhodných deskách a náhodných posloupnostech otočení.
+ *
+ * @Author: Yaroslav Hryn (xhryny00),Oleksandr Musiichuk (xmusii00)
+ *
+ */
+
+package ija.ijaProject.game;
+
+import ija.ijaProject.common.Connectors;
+import ija.ijaProject.common.GameNode;
+import ija.ijaProject.common.Position;
+import ija.ijaProject.common.Side;
+import ija.ijaProject.game.levels.LevelGenerator;
+import ija.ijaProject.game.levels.NodeStateManager;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/** Po každém otočení musí být množina napájených uzlů stejná jako
+ * u čerstvě inicializované kopie hry ({@link Game#deepCopy()}). */
+class GamePowerTest {
+    private static final int TURNS = 300;
+
+    @BeforeAll
+    static void disableMoveLog() {
+        // otočení v testu se nemají zapisovat do žurnálu tahů
+        NodeStateManager.getInstance().setReplayMode(true);
+    }
+
+    @Test
+    void randomBoardsMatchFullPropagation() {
+        Random random = new Random(1);
+        for (int board = 0; board < 200; board++) {
+            int rows = 2 + random.nextInt(9);
+            int cols = 2 + random.nextInt(9);
+            checkRandomTurns(randomGame(rows, cols, random), random, "random board " + board);
+        }
+    }
+
+    @Test
+    void generatedLevelsMatchFullPropagation() {
+        Random random = new Random(2);
+        LevelGenerator generator = new LevelGenerator(random);
+        for (int board = 0; board < 50; board++) {
+            int size = 4 + random.nextInt(12);
+            CompactBoard solved = generator.generate(size, size, 1 + random.nextInt(6), LevelGenerator.Difficulty.MEDIUM);
+            checkRandomTurns(solved.toGame(), random, "generated level " + board);
+        }
+    }
+
+    /** Otáčí náhodnými uzly a po každém otočení porovná napájení s úplným přepočtem. */
+    private static void checkRandomTurns(Game game, Random random, String label) {
+        List<GameNode> nodes = game.getNodes();
+        assertPowerMatches(game, label + ", initial");
+        for (int turn = 0; turn < TURNS; turn++) {
+            GameNode node = nodes.get(random.nextInt(nodes.size()));
+            node.turn();
+            assertPowerMatches(game, label + ", turn " + turn + " at "
+                    + node.getPosition().row() + "," + node.getPosition().col());
+        }
+    }
+
+    private static void assertPowerMatches(Game game, String label) {
+        Game fresh = game.deepCopy();
+        assertEquals(powered(fresh), powered(game), label);
+        assertEquals(fresh.getLitBulbCount(), game.getLitBulbCount(), label + " (lit bulbs)");
+        assertEquals(fresh.isCompleted(), game.isCompleted(), label + " (completed)");
+    }
+
+    private static Set<Integer> powered(Game game) {
+        Set<Integer> powered = new TreeSet<>();
+        for (GameNode node : game.getNodes()) {
+            if (node.light()) powered.add(node.getPosition().row() * 1000 + node.getPosition().col());
+        }
+        return powered;
+    }
+
+    /**
+     * Vytvoří desku s jedním zdrojem, několika žárovkami a náhodnými vodiči
+     * (včetně prázdných políček a cyklů), aby otočení spojovala i rozpojovala
+     * komponenty.
+     */
+    private static Game randomGame(int rows, int cols, Random random) {
+        Game game = Game.create(rows, cols);
+        List<Position> cells = new ArrayList<>();
+        for (int r = 1; r <= rows; r++) {
+            for (int c = 1; c <= cols; c++) {
+                cells.add(new Position(r, c));
+            }
+        }
+        Collections.shuffle(cells, random);
+
+        game.createPowerNode(cells.get(0), Connectors.toSides(1 + random.nextInt(Connectors.ALL)));
+        int bulbs = 1 + random.nextInt(Math.max(1, cells.size() / 6));
+        for (int i = 1; i <= bulbs && i < cells.size(); i++) {
+            game.createBulbNode(cells.get(i), Side.values()[random.nextInt(4)]);
+        }
+        for (int i = bulbs + 1; i < cells.size(); i++) {
+            if (random.nextInt(5) == 0) continue;
+            int mask;
+            do {
+                mask = random.nextInt(Connectors.ALL + 1);
+            } while (Connectors.count(mask) < 2);
+            game.createLinkNode(cells.get(i), Connectors.toSides(mask));
+        }
+        game.init();
+        return game;
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * Soubor: src/test/java/ija.ijaProject/game/levels/LevelPackTest.java
+ *
+ * Popis:
+ * Ověřuje zápis a čtení balíku úrovní, odmítnutí poškozené hlavičky,
+ * adresáře a zkráceného souboru při otevření a odložené odhalení
+ * poškozeného políčka až při načtení dané úrovně.
+ *
+ * @Author: Yaroslav Hryn (xhryny00),Oleksandr Musiichuk (xmusii00)
+ *
+ */
+
+package ija.ijaProject.game.levels;
+
+import ija.ijaProject.game.CompactBoard;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/** Formát {@link LevelPack}: zápis přes {@link LevelPack.Writer} a kontrola při čtení. */
+class LevelPackTest {
+    private static final int LEVELS = 6;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripKeepsEveryLevel() throws IOException {
+        CompactBoard[] boards = boards();
+        Path path = write(boards);
+        try (LevelPack pack = LevelPack.open(path)) {
+            assertEquals(LEVELS, pack.size());
+            for (int i = 0; i < LEVELS; i++) {
+                int entry = pack.find(i + 1, i % 3);
+                assertEquals(i + 1, pack.levelNumber(entry));
+                assertEquals(i % 3, pack.difficulty(entry));
+                assertSameCells(boards[i], pack.board(entry), "level " + (i + 1));
+                assertSameCells(boards[i], CompactBoard.fromGame(pack.game(entry)), "game of level " + (i + 1));
+            }
+            assertEquals(-1, pack.find(LEVELS + 1, 0));
+        }
+    }
+
+    @Test
+    void corruptHeaderOrDirectoryFailsToOpen() throws IOException {
+        Path path = write(boards());
+        byte[] original = Files.readAllBytes(path);
+
+        overwrite(path, 0, (byte) 'X');
+        assertThrows(IOException.class, () -> LevelPack.open(path));
+
+        Files.write(path, original);
+        overwrite(path, 11, (byte) 0x7F);  // počet úrovní mimo soubor
+        assertThrows(IOException.class, () -> LevelPack.open(path));
+
+        Files.write(path, original);
+        overwrite(path, 16 + 12, (byte) 0x7F);  // řádky první úrovně mimo soubor
+        assertThrows(IOException.class, () -> LevelPack.open(path));
+
+        Files.write(path, Arrays.copyOf(original, original.length - 1));
+        assertThrows(IOException.class, () -> LevelPack.open(path));
+
+        Files.write(path, Arrays.copyOf(original, 10));
+        assertThrows(IOException.class, () -> LevelPack.open(path));
+    }
+
+    @Test
+    void corruptCellFailsOnlyWhenItsLevelLoads() throws IOException {
+        CompactBoard[] boards = boards();
+        Path path = write(boards);
+        long cells;
+        try (LevelPack pack = LevelPack.open(path)) {
+            cells = cellOffset(path, pack.find(1, 0));
+        }
+        overwrite(path, cells, (byte) 0x0F);  // prázdné políčko s konektory
+
+        try (LevelPack pack = LevelPack.open(path)) {
+            int bad = pack.find(1, 0);
+            assertThrows(UncheckedIOException.class, () -> pack.board(bad));
+            assertThrows(UncheckedIOException.class, () -> pack.game(bad));
+            assertSameCells(boards[1], pack.board(pack.find(2, 1)), "intact level 2");
+        }
+    }
+
+    private CompactBoard[] boards() {
+        LevelGenerator generator = new LevelGenerator(new Random(5));
+        CompactBoard[] boards = new CompactBoard[LEVELS];
+        for (int i = 0; i < LEVELS; i++) {
+            boards[i] = generator.generate(4 + i, 5 + i, 1 + i % 3, LevelGenerator.Difficulty.MEDIUM);
+        }
+        return boards;
+    }
+
+    private Path write(CompactBoard[] boards) throws IOException {
+        LevelPack.Writer writer = new LevelPack.Writer();
+        for (int i = boards.length - 1; i >= 0; i--) {
+            writer.add(i + 1, i % 3, boards[i]);
+        }
+        Path path = dir.resolve("test" + LevelPack.EXTENSION);
+        writer.write(path);
+        return path;
+    }
+
+    private static long cellOffset(Path path, int entry) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "r")) {
+            file.seek(16 + (long) entry * LevelPack.ENTRY_SIZE);
+            return file.readLong();
+        }
+    }
+
+    private static void overwrite(Path path, long position, byte value) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(position);
+            file.write(value);
+        }
+    }
+
+    private static void assertSameCells(CompactBoard expected, CompactBoard actual, String label) {
+        assertEquals(expected.rows(), actual.rows(), label + " (rows)");
+        assertEquals(expected.cols(), actual.cols(), label + " (cols)");
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.type(i), actual.type(i), label + ", type of cell " + i);
+            assertEquals(expected.mask(i), actual.mask(i), label + ", mask of cell " + i);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/**
+ * Soubor: src/test/java/ija.ijaProject/game/levels/MoveJournalTest.java
+ *
+ * Popis:
+ * Ověřuje zápis a čtení žurnálu tahů, obnovu po utrženém nebo
+ * poškozeném konci souboru a odmítnutí souboru s chybnou hlavičkou.
+ *
+ * @Author: Yaroslav Hryn (xhryny00),Oleksandr Musiichuk (xmusii00)
+ *
+ */
+
+package ija.ijaProject.game.levels;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static ija.ijaProject.game.levels.SaveFormatTest.assertMoves;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/** Formát {@link MoveJournal}: záznamy pevné délky s CRC32 a obnova konce. */
+class MoveJournalTest {
+    private static final int HEADER_SIZE = 8;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripAcrossReadBatches() throws IOException {
+        Path path = dir.resolve("moves" + MoveJournal.EXTENSION);
+        List<GameMove> moves = moves(600);
+        try (MoveJournal journal = MoveJournal.create(path, MoveJournal.SyncPolicy.BATCHED)) {
+            for (GameMove move : moves) {
+                journal.append(move);
+            }
+            assertEquals(moves.size(), journal.size());
+        }
+        assertEquals(HEADER_SIZE + (long) moves.size() * MoveJournal.RECORD_SIZE, Files.size(path));
+        assertMoves(moves, MoveJournal.readAll(path));
+    }
+
+    @Test
+    void reopenAppendsAndCreateRefusesExistingFile() throws IOException {
+        Path path = dir.resolve("moves" + MoveJournal.EXTENSION);
+        List<GameMove> moves = moves(10);
+        try (MoveJournal journal = MoveJournal.create(path, MoveJournal.SyncPolicy.ALWAYS)) {
+            for (GameMove move : moves.subList(0, 6)) {
+                journal.append(move);
+            }
+        }
+        assertThrows(FileAlreadyExistsException.class, () -> MoveJournal.create(path, MoveJournal.SyncPolicy.ALWAYS));
+        try (MoveJournal journal = MoveJournal.open(path, MoveJournal.SyncPolicy.ON_CLOSE)) {
+            assertEquals(6, journal.size());
+            for (GameMove move : moves.subList(6, 10)) {
+                journal.append(move);
+            }
+        }
+        assertMoves(moves, MoveJournal.readAll(path));
+    }
+
+    @Test
+    void truncateDropsLaterRecords() throws IOException {
+        Path path = dir.resolve("moves" + MoveJournal.EXTENSION);
+        List<GameMove> moves = moves(8);
+        try (MoveJournal journal = MoveJournal.create(path, MoveJournal.SyncPolicy.ON_CLOSE)) {
+            for (GameMove move : moves) {
+                journal.append(move);
+            }
+            journal.truncate(3);
+            assertEquals(3, journal.size());
+            journal.append(moves.get(7));
+        }
+        List<GameMove> expected = new ArrayList<>(moves.subList(0, 3));
+        expected.add(moves.get(7));
+        assertMoves(expected, MoveJournal.readAll(path));
+    }
+
+    @Test
+    void tornTailIsIgnoredAndRecovered() throws IOException {
+        Path path = journal(5);
+        Files.write(path, new byte[]{1, 2, 3, 4, 5, 6, 7}, StandardOpenOption.APPEND);
+
+        assertEquals(5, MoveJournal.readAll(path).size());
+        try (MoveJournal journal = MoveJournal.open(path, MoveJournal.SyncPolicy.ALWAYS)) {
+            assertEquals(5, journal.size());
+            journal.append(new GameMove(9, 9, 1, 99L));
+        }
+        assertEquals(HEADER_SIZE + 6L * MoveJournal.RECORD_SIZE, Files.size(path));
+        assertEquals(6, MoveJournal.readAll(path).size());
+    }
+
+    @Test
+    void corruptedLastRecordIsDropped() throws IOException {
+        Path path = journal(5);
+        flip(path, HEADER_SIZE + 4L * MoveJournal.RECORD_SIZE + 6);
+
+        assertEquals(4, MoveJournal.readAll(path).size());
+        try (MoveJournal journal = MoveJournal.open(path, MoveJournal.SyncPolicy.ALWAYS)) {
+            assertEquals(4, journal.size());
+        }
+        assertEquals(HEADER_SIZE + 4L * MoveJournal.RECORD_SIZE, Files.size(path));
+    }
+
+    @Test
+    void readerStopsAtCorruptedRecord() throws IOException {
+        Path path = journal(5);
+        flip(path, HEADER_SIZE + 2L * MoveJournal.RECORD_SIZE);
+        assertMoves(moves(5).subList(0, 2), MoveJournal.readAll(path));
+    }
+
+    @Test
+    void corruptedHeaderThrowsIOException() throws IOException {
+        Path path = journal(3);
+        flip(path, 0);
+        assertThrows(IOException.class, () -> MoveJournal.readAll(path));
+        assertThrows(IOException.class, () -> MoveJournal.open(path, MoveJournal.SyncPolicy.ALWAYS));
+
+        Path shortFile = dir.resolve("short" + MoveJournal.EXTENSION);
+        Files.write(shortFile, new byte[]{'V', 'M', 'J'});
+        assertThrows(IOException.class, () -> MoveJournal.readAll(shortFile));
+    }
+
+    private Path journal(int records) throws IOException {
+        Path path = dir.resolve("moves" + MoveJournal.EXTENSION);
+        try (MoveJournal journal = MoveJournal.create(path, MoveJournal.SyncPolicy.ON_CLOSE)) {
+            for (GameMove move : moves(records)) {
+                journal.append(move);
+            }
+        }
+        return path;
+    }
+
+    private static List<GameMove> moves(int count) {
+        List<GameMove> moves = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            moves.add(new GameMove(1 + i % 13, 1 + i % 17, i % 4, 1_700_000_000_000L + i * 37L));
+        }
+        return moves;
+    }
+
+    private static void flip(Path path, long position) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(position);
+            int value = file.read();
+            file.seek(position);
+            file.write(value ^ 0x20);
+        }
+    }
+}
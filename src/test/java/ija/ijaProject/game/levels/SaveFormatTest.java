@@ -0,0 +1,199 @@
+/**
+ * Soubor: src/test/java/ija.ijaProject/game/levels/SaveFormatTest.java
+ *
+ * Popis:
+ * Ověřuje zápis a čtení všech druhů dat formátu SaveFormat, odmítnutí
+ * poškozeného a zkráceného souboru a převod starého level_progress.dat
+ * i starých .dat souborů v adresáři uložených her.
+ *
+ * @Author: Yaroslav Hryn (xhryny00),Oleksandr Musiichuk (xmusii00)
+ *
+ */
+
+package ija.ijaProject.game.levels;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Formát {@link SaveFormat} a převod starých souborů {@link SaveMigrator}. */
+class SaveFormatTest {
+    private static final List<NodeState> STATES = List.of(
+            new NodeState(1, 1, 0), new NodeState(3, 7, 2), new NodeState(200, 1000, 3));
+    private static final List<GameMove> MOVES = List.of(
+            new GameMove(1, 2, 1, 1_700_000_000_000L), new GameMove(5, 4, 3, 1_700_000_000_250L),
+            new GameMove(5, 4, 0, 1_699_999_999_000L), new GameMove(300, 2, 2, 0L));
+    private static final Set<String> PROGRESS = Set.of("0-1", "0-2", "1-10", "2-7");
+
+    @TempDir
+    File dir;
+
+    @Test
+    void everyKindRoundTrips() throws IOException {
+        assertStates(STATES, SaveFormat.decodeNodeStates(SaveFormat.encodeNodeStates(STATES)));
+        assertMoves(MOVES, SaveFormat.decodeMoves(SaveFormat.encodeMoves(MOVES)));
+        assertEquals(PROGRESS, SaveFormat.decodeLevelProgress(SaveFormat.encodeLevelProgress(PROGRESS)));
+
+        ScrambleDescriptor scramble = ScrambleDescriptor.of(99L, 4, 6, new byte[]{3, 2, 1, 0, 1, 2, 3});
+        assertEquals(scramble, SaveFormat.decodeScramble(SaveFormat.encodeScramble(scramble)));
+
+        List<SaveIndex.Entry> index = List.of(
+                new SaveIndex.Entry(1, 0, "moves_1_0_5.vmj", 420, 3, 9000),
+                new SaveIndex.Entry(10, 2, "tahy_žárovky.vmj", 0, 1, 0));
+        List<SaveIndex.Entry> decodedIndex = SaveFormat.decodeLogIndex(SaveFormat.encodeLogIndex(index));
+        assertEquals(index.size(), decodedIndex.size());
+        for (int i = 0; i < index.size(); i++) {
+            SaveIndex.Entry expected = index.get(i);
+            SaveIndex.Entry actual = decodedIndex.get(i);
+            assertEquals(expected.level(), actual.level());
+            assertEquals(expected.difficulty(), actual.difficulty());
+            assertEquals(expected.latestLog(), actual.latestLog());
+            assertEquals(expected.latestBytes(), actual.latestBytes());
+            assertEquals(expected.logCount(), actual.logCount());
+            assertEquals(expected.olderBytes(), actual.olderBytes());
+        }
+
+        Map<String, List<GameMove>> logs = new LinkedHashMap<>();
+        logs.put("moves_1_0_1.vmj", MOVES);
+        logs.put("moves_1_0_2.vmj", List.of());
+        Map<String, List<GameMove>> decodedLogs = SaveFormat.decodeLogArchive(SaveFormat.encodeLogArchive(logs));
+        assertEquals(new ArrayList<>(logs.keySet()), new ArrayList<>(decodedLogs.keySet()));
+        for (String name : logs.keySet()) {
+            assertMoves(logs.get(name), decodedLogs.get(name));
+        }
+    }
+
+    @Test
+    void fileRoundTrip() throws IOException {
+        File file = new File(dir, "progress_1_0" + SaveFormat.EXTENSION);
+        SaveFormat.write(file, SaveFormat.encodeNodeStates(STATES));
+        assertStates(STATES, SaveFormat.decodeNodeStates(SaveFormat.read(file)));
+    }
+
+    @Test
+    void corruptedDataThrowsIOException() {
+        byte[] data = SaveFormat.encodeMoves(MOVES);
+        for (int i = 0; i < data.length; i++) {
+            byte[] corrupted = data.clone();
+            corrupted[i] ^= 0x10;
+            assertThrows(IOException.class, () -> SaveFormat.decodeMoves(corrupted), "flipped byte " + i);
+        }
+        assertThrows(IOException.class, () -> SaveFormat.decodeNodeStates(data), "wrong kind");
+    }
+
+    @Test
+    void truncatedDataThrowsIOException() {
+        byte[] archive = SaveFormat.encodeLogArchive(Map.of("moves_1_0_1.vmj", MOVES));
+        for (int length = 0; length < archive.length; length++) {
+            byte[] truncated = Arrays.copyOf(archive, length);
+            assertThrows(IOException.class, () -> SaveFormat.decodeLogArchive(truncated), "length " + length);
+        }
+        byte[] progress = SaveFormat.encodeLevelProgress(PROGRESS);
+        byte[] truncated = Arrays.copyOf(progress, progress.length - 1);
+        assertThrows(IOException.class, () -> SaveFormat.decodeLevelProgress(truncated));
+    }
+
+    @Test
+    void bogusPayloadWithValidChecksumThrowsIOException() {
+        // počet záznamů větší než zbytek souboru a nedokončený varint
+        assertThrows(IOException.class, () -> SaveFormat.decodeNodeStates(frame(SaveFormat.KIND_NODE_STATES,
+                0xFF, 0xFF, 0x7F, 1, 1, 1)));
+        assertThrows(IOException.class, () -> SaveFormat.decodeMoves(frame(SaveFormat.KIND_MOVES,
+                1, 1, 1, 1, 0x80)));
+    }
+
+    @Test
+    void migratesLegacyLevelProgress() throws IOException {
+        File legacy = new File(dir, "level_progress.dat");
+        File target = new File(dir, "level_progress" + SaveFormat.EXTENSION);
+        Files.write(legacy.toPath(), serialize(new HashSet<>(PROGRESS)));
+
+        assertTrue(SaveMigrator.migrateLevelProgress(legacy, target));
+        assertEquals(PROGRESS, SaveFormat.decodeLevelProgress(SaveFormat.read(target)));
+        assertFalse(legacy.exists());
+        assertTrue(new File(dir, "level_progress.dat.bak").exists());
+        assertFalse(SaveMigrator.migrateLevelProgress(legacy, target), "second run");
+    }
+
+    @Test
+    void keepsCorruptLegacyLevelProgress() throws IOException {
+        File legacy = new File(dir, "level_progress.dat");
+        File target = new File(dir, "level_progress" + SaveFormat.EXTENSION);
+        byte[] data = serialize(new HashSet<>(PROGRESS));
+        Files.write(legacy.toPath(), Arrays.copyOf(data, data.length / 2));
+
+        assertFalse(SaveMigrator.migrateLevelProgress(legacy, target));
+        assertTrue(legacy.exists());
+        assertFalse(target.exists());
+    }
+
+    @Test
+    void migratesLegacySaveDir() throws IOException {
+        Files.write(new File(dir, "initial_1_0.dat").toPath(), serialize(new ArrayList<>(STATES)));
+        Files.write(new File(dir, "moves_1_0_5.dat").toPath(), serialize(new ArrayList<>(MOVES)));
+
+        assertEquals(2, SaveMigrator.migrateSaveDir(dir));
+        assertStates(STATES, SaveFormat.decodeNodeStates(SaveFormat.read(new File(dir, "initial_1_0" + SaveFormat.EXTENSION))));
+        assertMoves(MOVES, MoveJournal.readAll(new File(dir, "moves_1_0_5" + MoveJournal.EXTENSION).toPath()));
+        assertEquals(0, SaveMigrator.migrateSaveDir(dir), "second run");
+    }
+
+    private static byte[] serialize(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        return bytes.toByteArray();
+    }
+
+    /** Sestaví soubor s platnou hlavičkou a kontrolním součtem kolem libovolných dat. */
+    private static byte[] frame(byte kind, int... payload) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(new byte[]{'V', 'M', 'Z', 'S', SaveFormat.VERSION, kind, (byte) payload.length});
+        for (int b : payload) {
+            out.write(b);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(out.toByteArray());
+        int value = (int) crc.getValue();
+        out.writeBytes(new byte[]{(byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value});
+        return out.toByteArray();
+    }
+
+    private static void assertStates(List<NodeState> expected, List<NodeState> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).x, actual.get(i).x, "state " + i);
+            assertEquals(expected.get(i).y, actual.get(i).y, "state " + i);
+            assertEquals(expected.get(i).rotationCount, actual.get(i).rotationCount, "state " + i);
+        }
+    }
+
+    static void assertMoves(List<GameMove> expected, List<GameMove> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).x, actual.get(i).x, "move " + i);
+            assertEquals(expected.get(i).y, actual.get(i).y, "move " + i);
+            assertEquals(expected.get(i).rotation, actual.get(i).rotation, "move " + i);
+            assertEquals(expected.get(i).timestamp, actual.get(i).timestamp, "move " + i);
+        }
+    }
+}
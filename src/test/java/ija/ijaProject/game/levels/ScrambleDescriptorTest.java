@@ -0,0 +1,61 @@
+/**
+ * Soubor: src/test/java/ija.ijaProject/game/levels/ScrambleDescriptorTest.java
+ *
+ * Popis:
+ * Ověřuje textový i binární převod popisu zamíchání a to, že poškozený
+ * vstup skončí očekávanou výjimkou místo pádu nebo obří alokace.
+ *
+ * @Author: Yaroslav Hryn (xhryny00),Oleksandr Musiichuk (xmusii00)
+ *
+ */
+
+package ija.ijaProject.game.levels;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/** Převody {@link ScrambleDescriptor} a odmítání chybného vstupu. */
+class ScrambleDescriptorTest {
+    private static final ScrambleDescriptor SAMPLE =
+            ScrambleDescriptor.of(-7L, 3, 5, new byte[]{0, 1, 2, 3, 3, 2, 1, 0, 1, 1, 2, 2, 3, 3, 0});
+
+    @Test
+    void textRoundTrip() {
+        assertEquals(SAMPLE, ScrambleDescriptor.decode(SAMPLE.encode()));
+    }
+
+    @Test
+    void binaryRoundTrip() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        SAMPLE.write(new DataOutputStream(bytes));
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        assertEquals(SAMPLE, ScrambleDescriptor.read(in));
+    }
+
+    @Test
+    void malformedTextThrowsIllegalArgument() {
+        for (String text : new String[]{"", "1:3:ab", "1:3x:ab", "x:3x5:0000", "1:ax5:0000", "1:0x5:",
+                "1:-1x4:00", "1:65536x65536:00", "1:3x5:zz", "1:3x5:00", "1:3x5:000000:00"}) {
+            assertThrows(IllegalArgumentException.class, () -> ScrambleDescriptor.decode(text), text);
+        }
+    }
+
+    @Test
+    void oversizedBinaryThrowsIOException() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeLong(1L);
+        out.writeShort(0xFFFF);
+        out.writeShort(0xFFFF);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        assertThrows(IOException.class, () -> ScrambleDescriptor.read(in));
+    }
+}
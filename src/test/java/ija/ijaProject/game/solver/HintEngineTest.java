@@ -0,0 +1,106 @@
+/**
+ * Soubor: src/test/java/ija.ijaProject/game/solver/HintEngineTest.java
+ *
+ * Popis:
+ * Ověřuje, že okno nápovědy (HintEngine) a tooltip (SolutionHints)
+ * ukazují po převzetí řešení z pozadí stejné počty otočení a že
+ * do té doby HintEngine žádný počet nehádá.
+ *
+ * @Author: Yaroslav Hryn (xhryny00),Oleksandr Musiichuk (xmusii00)
+ *
+ */
+
+package ija.ijaProject.game.solver;
+
+import ija.ijaProject.common.GameNode;
+import ija.ijaProject.game.CompactBoard;
+import ija.ijaProject.game.Game;
+import ija.ijaProject.game.levels.LevelGenerator;
+import ija.ijaProject.game.levels.NodeStateManager;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** {@link HintEngine} nad sdílenou {@link SolutionHints}. */
+class HintEngineTest {
+
+    @BeforeAll
+    static void disableMoveLog() {
+        // otočení v testu se nemají zapisovat do žurnálu tahů
+        NodeStateManager.getInstance().setReplayMode(true);
+    }
+
+    @Test
+    void unknownUntilTargetsArrive() {
+        Game game = scrambledGame(new Random(1));
+        HintEngine engine = new HintEngine(game, new SolutionHints(game, null) {
+            @Override
+            public void requestNearest() {
+                // řešič záměrně nespouští
+            }
+        });
+        assertEquals(-1, engine.totalRemaining());
+        assertEquals(-1, engine.rotationsNeeded(1, 1));
+        GameNode node = game.getGameNode(1, 1);
+        assertEquals(-1, engine.cellChanged(1, 1, node.getConnectorMask()));
+    }
+
+    @Test
+    void windowAndTooltipAgree() throws InterruptedException {
+        Random random = new Random(2);
+        Game game = scrambledGame(random);
+        SolutionHints hints = new SolutionHints(game, null);
+        HintEngine engine = new HintEngine(game, hints);
+        List<GameNode> nodes = game.getNodes();
+
+        for (int round = 0; round < 5; round++) {
+            awaitTargets(hints);
+            engine.resync();
+            assertAgree(game, hints, engine, "round " + round);
+            for (int turn = 0; turn < 3; turn++) {
+                GameNode node = nodes.get(random.nextInt(nodes.size()));
+                node.turn();
+                engine.cellChanged(node.getPosition().row(), node.getPosition().col(), node.getConnectorMask());
+            }
+        }
+    }
+
+    private static void assertAgree(Game game, SolutionHints hints, HintEngine engine, String label) {
+        int total = 0;
+        for (int row = 1; row <= game.rows(); row++) {
+            for (int col = 1; col <= game.cols(); col++) {
+                int need = engine.rotationsNeeded(row, col);
+                assertEquals(hints.rotationsNeeded(row, col), need, label + " at " + row + "," + col);
+                total += need;
+            }
+        }
+        assertEquals(total, engine.totalRemaining(), label + " (total)");
+    }
+
+    /** Počká, až řešič na pozadí doběhne pro aktuální stav hry. */
+    private static void awaitTargets(SolutionHints hints) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!hints.isCurrent() && System.nanoTime() < deadline) {
+            hints.requestNearest();
+            Thread.sleep(1);
+        }
+        assertTrue(hints.isCurrent() && hints.targetMasks() != null, "targets not found in time");
+    }
+
+    private static Game scrambledGame(Random random) {
+        CompactBoard solved = new LevelGenerator(random).generate(6, 6, 3, LevelGenerator.Difficulty.MEDIUM);
+        Game game = solved.toGame();
+        for (GameNode node : game.getNodes()) {
+            for (int i = random.nextInt(4); i > 0; i--) {
+                node.turn();
+            }
+        }
+        return game;
+    }
+}